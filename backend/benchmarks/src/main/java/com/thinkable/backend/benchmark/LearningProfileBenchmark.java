@@ -0,0 +1,54 @@
+package com.thinkable.backend.benchmark;
+
+import com.thinkable.backend.model.User;
+import com.thinkable.backend.repository.LeaderboardRepository;
+import com.thinkable.backend.repository.LessonProgressRepository;
+import com.thinkable.backend.service.AdaptiveLearningAIService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AdaptiveLearningAIService.analyzeLearningProfile over a population of students with
+ * assessment game results. Scale is the number of students; each invocation takes the next one.
+ * Quiz counts and averages come from stubbed repositories derived from the user ID.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class LearningProfileBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int scale;
+
+    private AdaptiveLearningAIService service;
+    private User[] students;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SyntheticData.SEED);
+        students = new User[scale];
+        for (int i = 0; i < scale; i++) {
+            students[i] = SyntheticData.student(i + 1, random);
+        }
+
+        service = new AdaptiveLearningAIService();
+        Stubs.inject(service, "leaderboardRepository", Stubs.repository(LeaderboardRepository.class,
+                Map.of("countByUserId", args -> ((Long) args[0]) % 40)));
+        Stubs.inject(service, "lessonProgressRepository", Stubs.repository(LessonProgressRepository.class,
+                Map.of("getAverageQuizScore", args -> 50.0 + ((User) args[0]).getId() % 50)));
+    }
+
+    @Benchmark
+    public AdaptiveLearningAIService.LearningProfile analyzeLearningProfile() {
+        User student = students[next];
+        next = (next + 1) % scale;
+        return service.analyzeLearningProfile(student);
+    }
+}
@@ -0,0 +1,86 @@
+package com.thinkable.backend.benchmark;
+
+import com.thinkable.backend.entity.UserAdaptiveInsight;
+import com.thinkable.backend.entity.UserToolUsage;
+import com.thinkable.backend.repository.UserAdaptiveInsightRepository;
+import com.thinkable.backend.repository.UserNeurodivergentProfileRepository;
+import com.thinkable.backend.repository.UserToolUsageRepository;
+import com.thinkable.backend.service.PersonalPatternRecognitionService;
+import com.thinkable.backend.service.UserNeurodivergentProfileService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * PersonalPatternRecognitionService.analyzeAndGenerateInsights for one user.
+ * Scale is the number of tool usage records in the user's last week. The stubbed repository
+ * answers each query from precomputed results, so the measurement is the analysis itself.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class PatternRecognitionBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({"1000", "100000", "1000000"})
+    public int scale;
+
+    private PersonalPatternRecognitionService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SyntheticData.SEED);
+        List<UserToolUsage> usage = Collections.unmodifiableList(SyntheticData.toolUsage(USER_ID, scale, random));
+
+        List<Object[]> mostUsedTools = usage.stream()
+                .collect(Collectors.groupingBy(UserToolUsage::getToolName, Collectors.counting()))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(entry -> new Object[] {entry.getKey(), entry.getValue()})
+                .collect(Collectors.toList());
+        Map<String, Double> averageRatings = usage.stream()
+                .collect(Collectors.groupingBy(UserToolUsage::getToolName,
+                        Collectors.averagingInt(UserToolUsage::getSuccessRating)));
+        List<Object[]> dayTypePatterns = usage.stream()
+                .collect(Collectors.groupingBy(u -> Arrays.asList(dayType(u), u.getToolName()), Collectors.counting()))
+                .entrySet().stream()
+                .map(entry -> new Object[] {entry.getKey().get(0), entry.getKey().get(1), entry.getValue()})
+                .collect(Collectors.toList());
+
+        UserToolUsageRepository toolUsageRepository = Stubs.repository(UserToolUsageRepository.class, Map.of(
+                "findRecentUsageByUserId", args -> usage,
+                "findMostUsedToolsByUserId", args -> mostUsedTools,
+                "getAverageSuccessRatingByUserAndTool", args -> averageRatings.get((String) args[1]),
+                "findUsagePatternsByDayType", args -> dayTypePatterns));
+        UserAdaptiveInsightRepository insightRepository = Stubs.repository(UserAdaptiveInsightRepository.class, Map.of(
+                "save", args -> (UserAdaptiveInsight) args[0]));
+
+        UserNeurodivergentProfileService profileService = new UserNeurodivergentProfileService();
+        Optional<?> profile = Optional.of(SyntheticData.profile(USER_ID, random));
+        Stubs.inject(profileService, "profileRepository", Stubs.repository(UserNeurodivergentProfileRepository.class,
+                Map.of("findByUserId", args -> profile)));
+
+        service = new PersonalPatternRecognitionService();
+        Stubs.inject(service, "toolUsageRepository", toolUsageRepository);
+        Stubs.inject(service, "insightRepository", insightRepository);
+        Stubs.inject(service, "profileService", profileService);
+    }
+
+    @Benchmark
+    public List<UserAdaptiveInsight> analyzeAndGenerateInsights() {
+        return service.analyzeAndGenerateInsights(USER_ID);
+    }
+
+    // Helper methods
+
+    private static String dayType(UserToolUsage usage) {
+        int day = usage.getDayOfWeek();
+        return day == 0 || day == 6 ? "weekend" : "weekday";
+    }
+}
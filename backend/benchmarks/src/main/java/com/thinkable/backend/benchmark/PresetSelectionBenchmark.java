@@ -0,0 +1,56 @@
+package com.thinkable.backend.benchmark;
+
+import com.thinkable.backend.model.FontTestResult;
+import com.thinkable.backend.model.UserAssessment;
+import com.thinkable.backend.service.IntelligentAssessmentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IntelligentAssessmentService.determineOptimalPreset over a population of completed assessments.
+ * Scale is the number of assessed users; each invocation takes the next user's assessment,
+ * font test results and questionnaire answers, so larger populations also exercise cache misses.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class PresetSelectionBenchmark {
+
+    private static final int FONT_TESTS_PER_USER = 5;
+
+    @Param({"1000", "100000", "1000000"})
+    public int scale;
+
+    private IntelligentAssessmentService service;
+    private UserAssessment[] assessments;
+    private List<List<FontTestResult>> fontTests;
+    private List<Map<String, Object>> responses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SyntheticData.SEED);
+        assessments = new UserAssessment[scale];
+        fontTests = new ArrayList<>(scale);
+        responses = new ArrayList<>(scale);
+        for (int i = 0; i < scale; i++) {
+            long userId = i + 1;
+            assessments[i] = SyntheticData.assessment(userId, random);
+            fontTests.add(SyntheticData.fontTests(userId, FONT_TESTS_PER_USER, random));
+            responses.add(SyntheticData.questionResponses(random));
+        }
+        service = new IntelligentAssessmentService();
+    }
+
+    @Benchmark
+    public String determineOptimalPreset() {
+        int i = next;
+        next = (next + 1) % scale;
+        return service.determineOptimalPreset(assessments[i], fontTests.get(i), responses.get(i));
+    }
+}
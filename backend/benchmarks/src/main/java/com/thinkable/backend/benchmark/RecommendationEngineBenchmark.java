@@ -0,0 +1,104 @@
+package com.thinkable.backend.benchmark;
+
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.entity.StudentContentInteraction;
+import com.thinkable.backend.repository.ContentTrendingCounterRepository;
+import com.thinkable.backend.repository.LearningContentRepository;
+import com.thinkable.backend.repository.StudentContentInteractionRepository;
+import com.thinkable.backend.repository.UserNeurodivergentProfileRepository;
+import com.thinkable.backend.service.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Full candidate generation and ranking of ContentRecommendationEngine for one student.
+ * Scale is the catalog size; the student population is a tenth of it with five positive
+ * outcomes each feeding the co-occurrence model and profile index. The engine runs its
+ * stages sequentially against a catalog snapshot, as the batch precomputation does, so
+ * the measurement excludes executor hand-offs and database access.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RecommendationEngineBenchmark {
+
+    private static final int CONTEXTS = 256;
+    private static final int HISTORY_SIZE = 20;
+    private static final int POSITIVES_PER_STUDENT = 5;
+    private static final int TRENDING_EVENTS = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int scale;
+
+    private ContentRecommendationEngine engine;
+    private RecommendationContext[] contexts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SyntheticData.SEED);
+        int students = Math.max(100, scale / 10);
+
+        List<LearningContent> catalog = SyntheticData.catalog(scale, random);
+        List<Object[]> pairs = SyntheticData.positivePairs(students, POSITIVES_PER_STUDENT, scale, random);
+        List<Object[]> traits = SyntheticData.traitVectors(students, random);
+
+        ContentCatalogIndex catalogIndex = new ContentCatalogIndex();
+        Stubs.inject(catalogIndex, "contentRepository", Stubs.repository(LearningContentRepository.class,
+                Map.of("findByStatusAndIsPublicTrue", args -> catalog)));
+        catalogIndex.rebuild();
+
+        ItemCoOccurrenceModel coOccurrenceModel = new ItemCoOccurrenceModel();
+        Stubs.inject(coOccurrenceModel, "interactionRepository", Stubs.repository(StudentContentInteractionRepository.class,
+                Map.of("findPositiveOutcomePairs", args -> pairs)));
+        coOccurrenceModel.rebuild();
+
+        ProfileSimilarityIndex profileIndex = new ProfileSimilarityIndex();
+        Stubs.inject(profileIndex, "profileRepository", Stubs.repository(UserNeurodivergentProfileRepository.class,
+                Map.of("findAllTraitVectors", args -> traits)));
+        profileIndex.rebuildFromDatabase();
+
+        TrendingCounters trendingCounters = new TrendingCounters();
+        Stubs.inject(trendingCounters, "counterRepository", Stubs.repository(ContentTrendingCounterRepository.class,
+                Map.<String, Function<Object[], Object>>of()));
+        Stubs.inject(trendingCounters, "topSize", 200);
+        trendingCounters.init();
+        for (int i = 0; i < TRENDING_EVENTS; i++) {
+            trendingCounters.record(1L + random.nextInt(scale));
+        }
+
+        engine = new ContentRecommendationEngine();
+        Stubs.inject(engine, "catalogIndex", catalogIndex);
+        Stubs.inject(engine, "coOccurrenceModel", coOccurrenceModel);
+        Stubs.inject(engine, "profileSimilarityIndex", profileIndex);
+        Stubs.inject(engine, "trendingCounters", trendingCounters);
+
+        CatalogSnapshot snapshot = new CatalogSnapshot(catalog,
+                trendingCounters.top(TrendingCounters.Window.DAY, 50));
+
+        contexts = new RecommendationContext[CONTEXTS];
+        for (int i = 0; i < CONTEXTS; i++) {
+            long studentId = 1 + random.nextInt(students);
+            List<StudentContentInteraction> history = SyntheticData.history(studentId, catalog, HISTORY_SIZE, random);
+            Set<Long> interacted = new HashSet<>();
+            for (StudentContentInteraction interaction : history) {
+                interacted.add(interaction.getContent().getId());
+            }
+            contexts[i] = new RecommendationContext(studentId, SyntheticData.profile(studentId, random),
+                    history, ContentIdSet.of(interacted), snapshot);
+        }
+    }
+
+    @Benchmark
+    public List<RecommendationCandidate> recommend() {
+        RecommendationContext context = contexts[next];
+        next = (next + 1) % CONTEXTS;
+        return engine.recommend(context);
+    }
+}
@@ -0,0 +1,61 @@
+package com.thinkable.backend.benchmark;
+
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.service.RecommendationCandidate;
+import com.thinkable.backend.service.RecommendationScoring;
+import com.thinkable.backend.service.TopKSelector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Final scoring and top-15 selection over a candidate list, as rankCandidates does,
+ * against the full sort it replaced. Scale is the number of candidates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class RecommendationRankingBenchmark {
+
+    private static final int TOP_K = 15;
+    private static final int CONTENT_POOL = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int scale;
+
+    private List<RecommendationCandidate> candidates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SyntheticData.SEED);
+        List<LearningContent> pool = SyntheticData.catalog(CONTENT_POOL, random);
+        candidates = new ArrayList<>(scale);
+        for (int i = 0; i < scale; i++) {
+            candidates.add(new RecommendationCandidate(1L, pool.get(random.nextInt(CONTENT_POOL)), "personalized",
+                    0.5 + random.nextDouble() * 0.5, "synthetic", List.of("benchmark")));
+        }
+    }
+
+    @Benchmark
+    public int[] topKSelector() {
+        TopKSelector top = new TopKSelector(TOP_K);
+        for (int i = 0; i < candidates.size(); i++) {
+            top.offer(i, RecommendationScoring.scoreFinal(candidates.get(i)));
+        }
+        return top.drainDescending();
+    }
+
+    @Benchmark
+    public List<RecommendationCandidate> fullSort() {
+        List<RecommendationCandidate> sorted = new ArrayList<>(candidates);
+        for (RecommendationCandidate candidate : sorted) {
+            RecommendationScoring.scoreFinal(candidate);
+        }
+        sorted.sort(Comparator.comparingDouble(RecommendationCandidate::getOverallScore).reversed());
+        return new ArrayList<>(sorted.subList(0, Math.min(TOP_K, sorted.size())));
+    }
+}
@@ -0,0 +1,76 @@
+package com.thinkable.backend.benchmark;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring wiring: repository interfaces answered by lambdas
+ * and direct injection into @Autowired fields, so services run without a context or database.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * A repository whose named methods are answered from the given functions of the call arguments.
+     * Any other method returns an empty value for its return type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args != null ? args : new Object[0]);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals": return proxy == args[0];
+                    case "hashCode": return System.identityHashCode(proxy);
+                    default: return type.getSimpleName() + " stub";
+                }
+            }
+            return emptyValue(method.getReturnType());
+        });
+    }
+
+    /**
+     * Set a field declared on the target's class or one of its superclasses
+     */
+    public static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + fieldName + " on " + target.getClass().getName());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    // Helper methods
+
+    private static Object emptyValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (List.class.isAssignableFrom(type) || type == Iterable.class || type == Collection.class) {
+            return new ArrayList<>();
+        }
+        return null;
+    }
+}
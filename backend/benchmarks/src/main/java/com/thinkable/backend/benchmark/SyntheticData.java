@@ -0,0 +1,243 @@
+package com.thinkable.backend.benchmark;
+
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.entity.StudentContentInteraction;
+import com.thinkable.backend.entity.UserNeurodivergentProfile;
+import com.thinkable.backend.entity.UserToolUsage;
+import com.thinkable.backend.model.FontTestResult;
+import com.thinkable.backend.model.User;
+import com.thinkable.backend.model.UserAssessment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Deterministic synthetic datasets for the benchmarks. Every generator takes its own seeded
+ * random source so a given scale always produces the same data across runs and forks.
+ */
+public final class SyntheticData {
+
+    public static final long SEED = 20240917L;
+
+    private static final String[] SUBJECTS = {
+        "math", "science", "language", "history", "art", "music", "geography", "computing"
+    };
+    private static final String[] DIFFICULTIES = {"beginner", "intermediate", "advanced"};
+    private static final String[] CONTENT_TYPES = {"document", "video", "audio", "interactive", "image"};
+    private static final String[] TOOLS = {"escape_hatch", "focus_timer", "fidget_tools", "breathing_tool", "energy_check"};
+    private static final String[] TIMES_OF_DAY = {"morning", "afternoon", "evening", "night"};
+    private static final String[] ACTIVITY_CONTEXTS = {"studying", "reading", "homework", "break", "exam_prep"};
+    private static final String[] FONTS = {"OpenDyslexic", "Lexend", "Arial", "Comic Sans", "Atkinson Hyperlegible"};
+    private static final String[] DIFFICULTY_REPORTS = {"easy", "medium", "hard"};
+    private static final String[] SYMPTOMS = {"[]", "[\"letters_move\"]", "[\"eye_strain\",\"slow_reading\"]"};
+    private static final String[] QUESTION_IDS = {
+        "attention_1", "focus_2", "concentrate_3", "reading_1", "text_2", "word_3",
+        "social_1", "communication_2", "interaction_3", "sensory_1", "noise_2", "light_3"
+    };
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Published, public catalog with IDs 1..size
+     */
+    public static List<LearningContent> catalog(int size, SplittableRandom random) {
+        List<LearningContent> catalog = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            LearningContent content = new LearningContent();
+            content.setId((long) i);
+            content.setTitle("Synthetic content " + i);
+            content.setContentType(pick(CONTENT_TYPES, random));
+            content.setSubjectArea(pick(SUBJECTS, random));
+            content.setDifficultyLevel(pick(DIFFICULTIES, random));
+            int minAge = 5 + random.nextInt(10);
+            content.setTargetAgeMin(minAge);
+            content.setTargetAgeMax(minAge + 2 + random.nextInt(6));
+            content.setEstimatedDurationMinutes(5 + random.nextInt(55));
+            content.setDyslexiaFriendly(random.nextInt(10) < 3);
+            content.setAdhdFriendly(random.nextInt(10) < 3);
+            content.setAutismFriendly(random.nextInt(10) < 3);
+            content.setVisualImpairmentFriendly(random.nextInt(10) < 1);
+            content.setHearingImpairmentFriendly(random.nextInt(10) < 1);
+            content.setMotorImpairmentFriendly(random.nextInt(10) < 1);
+            content.setViewCount(random.nextInt(5000));
+            content.setRatingAverage(decimal(2.5 + random.nextDouble() * 2.5, 2));
+            content.setRatingCount(random.nextInt(200));
+            content.setSuccessRate(decimal(40 + random.nextDouble() * 60, 2));
+            content.setStatus("published");
+            content.setIsPublic(true);
+            catalog.add(content);
+        }
+        return catalog;
+    }
+
+    /**
+     * (studentId, contentId) positive-outcome pairs; content popularity is skewed towards low IDs
+     */
+    public static List<Object[]> positivePairs(int students, int perStudent, int catalogSize, SplittableRandom random) {
+        List<Object[]> pairs = new ArrayList<>(students * perStudent);
+        for (long studentId = 1; studentId <= students; studentId++) {
+            for (int i = 0; i < perStudent; i++) {
+                pairs.add(new Object[] {studentId, skewedId(catalogSize, random)});
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Rows shaped like UserNeurodivergentProfileRepository.findAllTraitVectors: user ID then ten traits
+     */
+    public static List<Object[]> traitVectors(int students, SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(students);
+        for (long userId = 1; userId <= students; userId++) {
+            Object[] row = new Object[11];
+            row[0] = userId;
+            for (int d = 1; d <= 10; d++) {
+                row[d] = 1 + random.nextInt(10);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static UserNeurodivergentProfile profile(long userId, SplittableRandom random) {
+        UserNeurodivergentProfile profile = new UserNeurodivergentProfile();
+        profile.setId(userId);
+        profile.setUserId(userId);
+        profile.setHyperfocusIntensity(1 + random.nextInt(10));
+        profile.setAttentionFlexibility(1 + random.nextInt(10));
+        profile.setSensoryProcessing(1 + random.nextInt(10));
+        profile.setExecutiveFunction(1 + random.nextInt(10));
+        profile.setSocialBattery(1 + random.nextInt(10));
+        profile.setChangeAdaptability(1 + random.nextInt(10));
+        profile.setEmotionalRegulation(1 + random.nextInt(10));
+        profile.setInformationProcessing(1 + random.nextInt(10));
+        profile.setCreativityExpression(1 + random.nextInt(10));
+        profile.setStructurePreference(1 + random.nextInt(10));
+        return profile;
+    }
+
+    /**
+     * A student's interaction history over the catalog, with content attached as the fetch-joined query returns it
+     */
+    public static List<StudentContentInteraction> history(long studentId, List<LearningContent> catalog, int size,
+                                                          SplittableRandom random) {
+        List<StudentContentInteraction> history = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            StudentContentInteraction interaction = new StudentContentInteraction();
+            interaction.setId(studentId * 1000 + i);
+            interaction.setStudentId(studentId);
+            interaction.setContent(catalog.get((int) skewedId(catalog.size(), random) - 1));
+            interaction.setInteractionType("view");
+            interaction.setTimeSpentMinutes(1 + random.nextInt(60));
+            interaction.setCompletionPercentage(random.nextInt(101));
+            interaction.setEngagementScore(decimal(random.nextDouble(), 2));
+            interaction.setComprehensionScore(decimal(0.4 + random.nextDouble() * 0.6, 2));
+            interaction.setUsefulnessRating(1 + random.nextInt(5));
+            interaction.setWasHelpful(random.nextInt(10) < 6);
+            interaction.setStartedAt(now.minusHours(random.nextInt(24 * 60)));
+            history.add(interaction);
+        }
+        return history;
+    }
+
+    /**
+     * One user's tool usage spread over the last week
+     */
+    public static List<UserToolUsage> toolUsage(long userId, int size, SplittableRandom random) {
+        List<UserToolUsage> usage = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            UserToolUsage record = new UserToolUsage();
+            record.setId((long) i + 1);
+            record.setUserId(userId);
+            record.setToolName(pick(TOOLS, random));
+            record.setToolContext(pick(ACTIVITY_CONTEXTS, random));
+            LocalDateTime timestamp = now.minusMinutes(random.nextInt(7 * 24 * 60));
+            record.setUsageTimestamp(timestamp);
+            record.setSessionDurationMinutes(5 + random.nextInt(86));
+            record.setSuccessRating(1 + random.nextInt(10));
+            record.setUserEnergyLevel(1 + random.nextInt(10));
+            record.setTimeOfDay(pick(TIMES_OF_DAY, random));
+            // 0 = Sunday through 6 = Saturday, as the day-type query expects
+            record.setDayOfWeek(timestamp.getDayOfWeek().getValue() % 7);
+            record.setActivityContext(pick(ACTIVITY_CONTEXTS, random));
+            usage.add(record);
+        }
+        return usage;
+    }
+
+    public static UserAssessment assessment(long userId, SplittableRandom random) {
+        UserAssessment assessment = new UserAssessment();
+        assessment.setId(userId);
+        assessment.setUserId(userId);
+        assessment.setAttentionScore(random.nextInt(21));
+        assessment.setSocialCommunicationScore(random.nextInt(21));
+        assessment.setSensoryProcessingScore(random.nextInt(21));
+        assessment.setReadingDifficultyScore(random.nextInt(21));
+        assessment.setMotorSkillsScore(random.nextInt(21));
+        assessment.setAssessmentCompleted(true);
+        return assessment;
+    }
+
+    public static List<FontTestResult> fontTests(long userId, int size, SplittableRandom random) {
+        List<FontTestResult> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            FontTestResult result = new FontTestResult();
+            result.setId(userId * 100 + i);
+            result.setUserId(userId);
+            result.setFontName(pick(FONTS, random));
+            result.setReadabilityRating(1 + random.nextInt(5));
+            result.setReadingTimeMs(2000 + random.nextInt(20000));
+            result.setDifficultyReported(pick(DIFFICULTY_REPORTS, random));
+            result.setSymptomsReported(pick(SYMPTOMS, random));
+            results.add(result);
+        }
+        return results;
+    }
+
+    public static Map<String, Object> questionResponses(SplittableRandom random) {
+        Map<String, Object> responses = new HashMap<>();
+        for (String questionId : QUESTION_IDS) {
+            responses.put(questionId, 1 + random.nextInt(7));
+        }
+        return responses;
+    }
+
+    /**
+     * Student with the assessment game results JSON that analyzeLearningProfile parses
+     */
+    public static User student(long userId, SplittableRandom random) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail("student" + userId + "@example.com");
+        user.setUsername("student" + userId);
+        user.setRole("STUDENT");
+        user.setAssessmentScores(String.format(Locale.ROOT,
+            "{\"focusGame\":{\"consistency\":%.2f,\"attentionVariability\":%.2f}," +
+            "\"patternGame\":{\"score\":%d,\"averageResponseTime\":%d}," +
+            "\"executiveFunctionGame\":{\"taskSwitchingCost\":%d,\"averageResponseTime\":%d}," +
+            "\"reactionGame\":{\"averageTime\":%d,\"averageResponseTime\":%d}}",
+            random.nextDouble(), random.nextDouble(), random.nextInt(101), 300 + random.nextInt(1500),
+            random.nextInt(800), 300 + random.nextInt(1500), 300 + random.nextInt(900), 300 + random.nextInt(1500)));
+        return user;
+    }
+
+    // Helper methods
+
+    private static long skewedId(int size, SplittableRandom random) {
+        double r = random.nextDouble();
+        return 1 + (long) (size * r * r * r);
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static BigDecimal decimal(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,58 @@
+package com.thinkable.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads of the interaction event log: a bounded pool that materializes logged content
+ * interactions into the database, and the single thread that polls the log and feeds it
+ */
+@Configuration
+public class InteractionExecutorConfig {
+
+    @Value("${content.events.threads:4}")
+    private int materializerThreads;
+
+    @Bean(name = "interactionMaterializerExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor interactionMaterializerExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "interaction-materializer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // One task per student lane and batch; a full queue runs the lane on the draining thread
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                materializerThreads, materializerThreads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(materializerThreads * 2),
+                threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Dedicated consumer thread, so a busy log never holds up the shared @Scheduled jobs
+     */
+    @Bean(name = "interactionConsumerExecutor", destroyMethod = "shutdown")
+    public ScheduledExecutorService interactionConsumerExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "interaction-consumer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+}
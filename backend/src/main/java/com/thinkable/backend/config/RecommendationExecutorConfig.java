@@ -0,0 +1,117 @@
+package com.thinkable.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded thread pools used to fan out the recommendation generator stages,
+ * the batch precomputation workers, the shadow strategy runs and table compaction
+ */
+@Configuration
+public class RecommendationExecutorConfig {
+
+    @Value("${recommendation.stages.threads:8}")
+    private int stageThreads;
+
+    @Value("${recommendation.stages.queue-capacity:200}")
+    private int stageQueueCapacity;
+
+    @Value("${recommendation.batch.workers:4}")
+    private int batchWorkers;
+
+    @Value("${recommendation.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${recommendation.strategy.shadow-threads:2}")
+    private int shadowThreads;
+
+    @Value("${recommendation.strategy.shadow-queue-capacity:50}")
+    private int shadowQueueCapacity;
+
+    @Bean(name = "recommendationStageExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor recommendationStageExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-stage-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // Rejected stages are reported back to the engine, which skips them instead of blocking
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                stageThreads, stageThreads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(stageQueueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(name = "recommendationBatchExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor recommendationBatchExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // A full queue runs the student on the submitting thread, throttling chunk submission
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                batchWorkers, batchWorkers,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchChunkSize),
+                threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(name = "recommendationShadowExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor recommendationShadowExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-shadow-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+
+        // Shadow runs are best-effort; rejected runs are counted as dropped by the runner
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                shadowThreads, shadowThreads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(shadowQueueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(name = "recommendationCompactionExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor recommendationCompactionExecutor() {
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-compaction");
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // One compaction at a time; a trigger while one is already queued is rejected and skipped
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1, 1,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.thinkable.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables scheduled background jobs such as the nightly recommendation batch.
+ * Jobs share a small pool so a slow one (counter flush, checkpoint) does not delay the others;
+ * long-running work is handed off to its own executor by the job itself.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Value("${scheduling.pool-size:4}")
+    private int poolSize;
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduled-job-");
+        scheduler.setDaemon(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+}
@@ -0,0 +1,48 @@
+package com.thinkable.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded thread pool that extracts the text of published content files for the search index
+ */
+@Configuration
+public class SearchExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchExecutorConfig.class);
+
+    @Value("${search.extraction.threads:2}")
+    private int extractionThreads;
+
+    @Value("${search.extraction.queue-capacity:100}")
+    private int extractionQueueCapacity;
+
+    @Bean(name = "contentTextExtractionExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor contentTextExtractionExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "content-text-extraction-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // A full queue drops the task; the periodic sweep in ContentTextIndexer extracts it later
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                extractionThreads, extractionThreads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(extractionQueueCapacity),
+                threadFactory,
+                (task, pool) -> logger.warn("Text extraction queue full, leaving content for the next sweep"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -215,11 +216,17 @@ public class NeurodivergentProfileController {
     @GetMapping("/profile/{userId}/similar")
     public ResponseEntity<List<Map<String, Object>>> getSimilarProfiles(@PathVariable Long userId) {
         try {
-            List<UserNeurodivergentProfile> similarProfiles = profileService.findSimilarProfiles(userId, 5);
+            List<UserNeurodivergentProfileService.SimilarProfile> similarProfiles =
+                    profileService.findSimilarProfileMatches(userId, 5);
             
             // Anonymize the data - remove personal identifiers
             List<Map<String, Object>> anonymizedProfiles = similarProfiles.stream()
-                    .map(this::anonymizeProfile)
+                    .map(match -> {
+                        Map<String, Object> anonymized = new HashMap<>(anonymizeProfile(match.getProfile()));
+                        anonymized.put("distance", match.getDistance());
+                        anonymized.put("similarity", match.getSimilarity());
+                        return anonymized;
+                    })
                     .collect(Collectors.toList());
             
             return ResponseEntity.ok(anonymizedProfiles);
@@ -3,7 +3,13 @@ package com.thinkable.backend.controller;
 import java.util.stream.Collectors;
 
 import com.thinkable.backend.entity.ContentRecommendation;
+import com.thinkable.backend.entity.RecommendationBatchRun;
 import com.thinkable.backend.service.ContentRecommendationEngine;
+import com.thinkable.backend.service.RecommendationBatchService;
+import com.thinkable.backend.service.RecommendationCache;
+import com.thinkable.backend.service.RecommendationCompactionService;
+import com.thinkable.backend.service.RecommendationStageMetrics;
+import com.thinkable.backend.service.RecommendationStrategyRunner;
 import com.thinkable.backend.repository.ContentRecommendationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,8 +18,10 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST Controller for AI-powered content recommendations
@@ -28,6 +36,21 @@ public class RecommendationController {
     @Autowired
     private ContentRecommendationRepository recommendationRepository;
     
+    @Autowired
+    private RecommendationStageMetrics stageMetrics;
+    
+    @Autowired
+    private RecommendationCache recommendationCache;
+    
+    @Autowired
+    private RecommendationBatchService batchService;
+    
+    @Autowired
+    private RecommendationCompactionService compactionService;
+    
+    @Autowired
+    private RecommendationStrategyRunner strategyRunner;
+    
     /**
      * Generate personalized recommendations for a student
      */
@@ -137,6 +160,7 @@ public class RecommendationController {
             
             recommendation.markPresented();
             recommendationRepository.save(recommendation);
+            recommendationCache.invalidate(recommendation.getStudentId(), RecommendationCache.REASON_RESPONSE);
             
             return ResponseEntity.ok(Map.of(
                 "message", "Recommendation marked as presented",
@@ -162,6 +186,7 @@ public class RecommendationController {
             
             recommendation.recordResponse(response);
             recommendationRepository.save(recommendation);
+            recommendationCache.invalidate(recommendation.getStudentId(), RecommendationCache.REASON_RESPONSE);
             
             return ResponseEntity.ok(Map.of(
                 "message", "Student response recorded",
@@ -189,6 +214,7 @@ public class RecommendationController {
             
             recommendation.recordFeedback(rating, helpful);
             recommendationRepository.save(recommendation);
+            recommendationCache.invalidate(recommendation.getStudentId(), RecommendationCache.REASON_RESPONSE);
             
             return ResponseEntity.ok(Map.of(
                 "message", "Feedback recorded successfully",
@@ -233,18 +259,13 @@ public class RecommendationController {
     @PostMapping("/cleanup/expired")
     public ResponseEntity<?> cleanupExpiredRecommendations() {
         try {
-            List<ContentRecommendation> expiredRecommendations = recommendationRepository
-                    .findExpiredRecommendations(LocalDateTime.now());
-            
-            for (ContentRecommendation recommendation : expiredRecommendations) {
-                recommendation.expire();
-            }
-            
-            recommendationRepository.saveAll(expiredRecommendations);
+            RecommendationCompactionService.CompactionReport report = compactionService.expireNow();
             
             return ResponseEntity.ok(Map.of(
                 "message", "Expired recommendations cleaned up",
-                "expiredCount", expiredRecommendations.size()
+                "expiredCount", report.getExpired(),
+                "elapsedMillis", report.getElapsedMillis(),
+                "rowsPerSecond", report.getRowsPerSecond()
             ));
             
         } catch (Exception e) {
@@ -253,13 +274,46 @@ public class RecommendationController {
         }
     }
     
+    /**
+     * Run expiry, archiving and deletion of old recommendations now
+     */
+    @PostMapping("/cleanup/compact")
+    public ResponseEntity<?> compactRecommendations() {
+        try {
+            return ResponseEntity.ok(compactionReportToMap(compactionService.compact()));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to compact recommendations: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get the result of the latest compaction run
+     */
+    @GetMapping("/cleanup/compact/status")
+    public ResponseEntity<?> getCompactionStatus() {
+        try {
+            RecommendationCompactionService.CompactionReport report = compactionService.getLastReport();
+            if (report == null) {
+                return ResponseEntity.ok(Map.of("message", "No compaction has run yet"));
+            }
+            return ResponseEntity.ok(compactionReportToMap(report));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to get compaction status: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get algorithm performance statistics
      */
     @GetMapping("/statistics/algorithm/{version}")
     public ResponseEntity<?> getAlgorithmStatistics(@PathVariable String version) {
         try {
-            Double averageFeedback = recommendationRepository.getAverageFeedbackRatingForAlgorithm(version);
+            // Includes recommendations archived by the compaction job
+            Double averageFeedback = compactionService.getAverageFeedbackRating(version);
             
             return ResponseEntity.ok(Map.of(
                 "algorithmVersion", version,
@@ -273,8 +327,117 @@ public class RecommendationController {
         }
     }
     
+    /**
+     * Get latency and outcome counters for the recommendation generator stages
+     */
+    @GetMapping("/metrics/stages")
+    public ResponseEntity<?> getStageMetrics() {
+        try {
+            return ResponseEntity.ok(stageMetrics.snapshot());
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to get stage metrics: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get hit rate, size and eviction counts of the per-student recommendation cache
+     */
+    @GetMapping("/metrics/cache")
+    public ResponseEntity<?> getCacheMetrics() {
+        try {
+            return ResponseEntity.ok(recommendationCache.snapshot());
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to get cache metrics: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get latency, candidate counts and overlap with the primary for each recommendation strategy
+     */
+    @GetMapping("/metrics/strategies")
+    public ResponseEntity<?> getStrategyMetrics() {
+        try {
+            return ResponseEntity.ok(strategyRunner.snapshot());
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to get strategy metrics: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Start a batch precomputation of recommendations for all students.
+     * Resumes the latest run if it did not complete.
+     */
+    @PostMapping("/batch/run")
+    public ResponseEntity<?> startBatchRun() {
+        try {
+            if (!batchService.runAsync()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "A recommendation batch run is already in progress"));
+            }
+            
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Recommendation batch run started",
+                "startedAt", LocalDateTime.now()
+            ));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to start batch run: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get progress and throughput of the latest batch precomputation run
+     */
+    @GetMapping("/batch/status")
+    public ResponseEntity<?> getBatchStatus() {
+        try {
+            Optional<RecommendationBatchRun> latestRun = batchService.getLatestRun();
+            if (latestRun.isEmpty()) {
+                return ResponseEntity.ok(Map.of("running", batchService.isRunning(), "message", "No batch runs yet"));
+            }
+            
+            RecommendationBatchRun run = latestRun.get();
+            Map<String, Object> status = new HashMap<>();
+            status.put("running", batchService.isRunning());
+            status.put("runId", run.getId());
+            status.put("status", run.getStatus());
+            status.put("lastStudentId", run.getLastStudentId());
+            status.put("studentsProcessed", run.getStudentsProcessed());
+            status.put("studentsFailed", run.getStudentsFailed());
+            status.put("recommendationsWritten", run.getRecommendationsWritten());
+            status.put("studentsPerSecond", run.getStudentsPerSecond());
+            status.put("startedAt", run.getStartedAt());
+            status.put("updatedAt", run.getUpdatedAt());
+            status.put("finishedAt", run.getFinishedAt());
+            status.put("errorMessage", run.getErrorMessage());
+            return ResponseEntity.ok(status);
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to get batch status: " + e.getMessage()));
+        }
+    }
+    
     // Helper methods
     
+    private Map<String, Object> compactionReportToMap(RecommendationCompactionService.CompactionReport report) {
+        return Map.of(
+            "expired", report.getExpired(),
+            "archived", report.getArchived(),
+            "deleted", report.getDeleted(),
+            "elapsedMillis", report.getElapsedMillis(),
+            "rowsPerSecond", report.getRowsPerSecond(),
+            "finishedAt", report.getFinishedAt()
+        );
+    }
+    
     private String getTypeDescription(String type) {
         switch (type.toLowerCase()) {
             case "personalized":
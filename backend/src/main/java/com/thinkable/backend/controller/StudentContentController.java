@@ -1,5 +1,6 @@
 package com.thinkable.backend.controller;
 
+import com.thinkable.backend.dto.ContentListItem;
 import com.thinkable.backend.entity.LearningContent;
 import com.thinkable.backend.entity.StudentContentInteraction;
 import com.thinkable.backend.model.Quiz;
@@ -11,20 +12,25 @@ import com.thinkable.backend.repository.UserRepository;
 import com.thinkable.backend.repository.LeaderboardRepository;
 import com.thinkable.backend.repository.StudentContentInteractionRepository;
 import com.thinkable.backend.service.TutorContentService;
+import com.thinkable.backend.service.TutorContentService.ContentListing;
 import com.thinkable.backend.service.TutorContentService.ContentSearchRequest;
+import com.thinkable.backend.service.TutorContentService.ContentSearchResults;
+import com.thinkable.backend.service.TutorContentService.BatchInteraction;
+import com.thinkable.backend.service.TutorContentService.InteractionBatchRequest;
 import com.thinkable.backend.service.TutorContentService.InteractionRequest;
 import com.thinkable.backend.service.ActivityTrackingService;
+import com.thinkable.backend.service.ContentCounterBuffer;
+import com.thinkable.backend.service.ContentTypeaheadIndex;
+import com.thinkable.backend.service.InteractionEventLog;
 import com.thinkable.backend.service.SmartNotesAIService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -39,6 +45,8 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/student/content")
 public class StudentContentController {
     
+    private static final int MAX_BATCH_INTERACTIONS = 500;
+    
     @Autowired
     private TutorContentService contentService;
     
@@ -60,6 +68,15 @@ public class StudentContentController {
     @Autowired
     private StudentContentInteractionRepository studentInteractionRepository;
     
+    @Autowired
+    private ContentTypeaheadIndex typeaheadIndex;
+    
+    @Autowired
+    private ContentCounterBuffer counterBuffer;
+    
+    @Autowired
+    private InteractionEventLog interactionEventLog;
+    
     /**
      * Search and filter content based on accessibility needs
      */
@@ -71,10 +88,14 @@ public class StudentContentController {
             @RequestParam(value = "dyslexiaFriendly", defaultValue = "false") Boolean dyslexiaFriendly,
             @RequestParam(value = "adhdFriendly", defaultValue = "false") Boolean adhdFriendly,
             @RequestParam(value = "autismFriendly", defaultValue = "false") Boolean autismFriendly,
-            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "tag", required = false) String topicTag,
+            @RequestParam(value = "learningStyle", required = false) String learningStyle,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @RequestParam(value = "size", defaultValue = "20") int size) {
         
         try {
+            size = clampPageSize(size);
+            
             // Create search request
             ContentSearchRequest searchRequest = new ContentSearchRequest();
             searchRequest.setQuery(query);
@@ -82,26 +103,53 @@ public class StudentContentController {
             searchRequest.setDyslexiaFriendly(dyslexiaFriendly);
             searchRequest.setAdhdFriendly(adhdFriendly);
             searchRequest.setAutismFriendly(autismFriendly);
+            searchRequest.setTopicTag(topicTag);
+            searchRequest.setLearningStyle(learningStyle);
             
-            Pageable pageable = PageRequest.of(page, size);
-            Page<LearningContent> contentPage = contentService.searchContent(searchRequest, pageable);
+            ContentSearchResults results = contentService.searchContent(searchRequest, cursor, size);
+            ContentListing listing = results.getListing();
             
             // Enrich content with tutor information
-            List<Map<String, Object>> enrichedContent = enrichContentWithTutorInfo(contentPage.getContent());
+            List<Map<String, Object>> enrichedContent = enrichContentWithTutorInfo(listing.getContent());
+            
+            // Highlighted body text matches, for results found by their document text
+            for (Map<String, Object> item : enrichedContent) {
+                String snippet = results.getSnippets().get(item.get("id"));
+                if (snippet != null) {
+                    item.put("snippet", snippet);
+                }
+            }
+            
+            Map<String, Object> response = pageResponse(enrichedContent, listing, size);
+            response.put("totalExact", results.isTotalExact());
+            response.put("facets", results.getFacets());
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to search content: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Typeahead suggestions (titles, subject areas and topic tags) for a partially typed query
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam(value = "q") String prefix,
+            @RequestParam(value = "limit", defaultValue = "8") int limit) {
+        
+        try {
+            List<ContentTypeaheadIndex.Suggestion> suggestions = typeaheadIndex.suggest(prefix, Math.min(limit, 20));
             
             return ResponseEntity.ok(Map.of(
-                "content", enrichedContent,
-                "totalElements", contentPage.getTotalElements(),
-                "totalPages", contentPage.getTotalPages(),
-                "currentPage", page,
-                "size", size,
-                "hasNext", contentPage.hasNext(),
-                "hasPrevious", contentPage.hasPrevious()
+                "query", prefix,
+                "suggestions", suggestions
             ));
             
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", "Failed to search content: " + e.getMessage()));
+                    .body(Map.of("error", "Failed to get suggestions: " + e.getMessage()));
         }
     }
     
@@ -133,9 +181,10 @@ public class StudentContentController {
     public ResponseEntity<?> getPersonalizedContent(@PathVariable Long studentId) {
         try {
             List<LearningContent> recommendations = contentService.getPersonalizedContent(studentId);
+            List<Long> recommendedIds = recommendations.stream().map(LearningContent::getId).collect(Collectors.toList());
             
             // Enrich content with tutor information
-            List<Map<String, Object>> enrichedRecommendations = enrichContentWithTutorInfo(recommendations);
+            List<Map<String, Object>> enrichedRecommendations = enrichContentWithTutorInfo(contentService.loadListItems(recommendedIds));
             
             return ResponseEntity.ok(Map.of(
                 "recommendations", enrichedRecommendations,
@@ -187,7 +236,8 @@ public class StudentContentController {
     }
     
     /**
-     * Record student interaction with content
+     * Record student interaction with content. The interaction is appended to the event log and
+     * applied asynchronously, so it shows up in analytics and recommendations shortly afterwards.
      */
     @PostMapping("/{contentId}/interact")
     public ResponseEntity<?> recordInteraction(
@@ -196,7 +246,7 @@ public class StudentContentController {
             @RequestBody InteractionRequest request) {
         
         try {
-            contentService.recordInteraction(studentId, contentId, request);
+            interactionEventLog.append(studentId, contentId, request);
             
             return ResponseEntity.ok(Map.of(
                 "message", "Interaction recorded successfully",
@@ -211,6 +261,47 @@ public class StudentContentController {
         }
     }
     
+    /**
+     * Record a batch of interactions in one request, e.g. events buffered by an offline client.
+     * The whole batch is appended to the event log at once; resending it with the same
+     * idempotency keys does not record anything twice.
+     */
+    @PostMapping("/interactions/batch")
+    public ResponseEntity<?> recordInteractionBatch(
+            @RequestParam Long studentId,
+            @RequestBody InteractionBatchRequest request) {
+        
+        try {
+            List<BatchInteraction> events = request.getEvents();
+            if (events == null || events.isEmpty()) {
+                throw new IllegalArgumentException("No events given");
+            }
+            if (events.size() > MAX_BATCH_INTERACTIONS) {
+                throw new IllegalArgumentException("At most " + MAX_BATCH_INTERACTIONS + " events per batch");
+            }
+            
+            List<InteractionEventLog.InteractionEvent> logged = new ArrayList<>(events.size());
+            for (BatchInteraction event : events) {
+                if (event == null || event.getContentId() == null) {
+                    throw new IllegalArgumentException("Every event needs a contentId");
+                }
+                logged.add(new InteractionEventLog.InteractionEvent(
+                    studentId, event.getContentId(), event.getIdempotencyKey(), event));
+            }
+            interactionEventLog.appendAll(logged);
+            
+            return ResponseEntity.ok(Map.of(
+                "message", "Interactions recorded successfully",
+                "studentId", studentId,
+                "accepted", logged.size()
+            ));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to record interactions: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get content details with accessibility information
      */
@@ -231,19 +322,27 @@ public class StudentContentController {
     }
     
     /**
-     * Get popular content (most viewed/rated)
+     * Get popular content (most interacted with over a recent window: 1h, 24h or 7d)
      */
     @GetMapping("/popular")
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getPopularContent(
-            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "window", defaultValue = "24h") String window,
+            @RequestParam(value = "cursor", required = false) String cursor) {
         
         try {
-            // This would fetch popular content from repository
-            return ResponseEntity.ok(Map.of(
-                "content", List.of(), // Placeholder
-                "message", "Popular content fetched successfully",
-                "limit", limit
-            ));
+            limit = clampPageSize(limit);
+            ContentListing popular = contentService.getTrendingContent(window, cursor, limit);
+            
+            // Enrich content with tutor information
+            List<Map<String, Object>> enrichedContent = enrichContentWithTutorInfo(popular.getContent());
+            
+            Map<String, Object> response = pageResponse(enrichedContent, popular, limit);
+            response.put("message", "Popular content fetched successfully");
+            response.put("limit", limit);
+            response.put("window", window);
+            return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -251,20 +350,51 @@ public class StudentContentController {
         }
     }
     
+    /**
+     * Get pending and flushed counts of the buffered content view and download counters
+     */
+    @GetMapping("/metrics/counters")
+    public ResponseEntity<?> getCounterMetrics() {
+        try {
+            return ResponseEntity.ok(counterBuffer.snapshot());
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to get counter metrics: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get appended, materialized and failed counts and the consumer lag of the interaction event log
+     */
+    @GetMapping("/metrics/events")
+    public ResponseEntity<?> getEventLogMetrics() {
+        try {
+            return ResponseEntity.ok(interactionEventLog.snapshot());
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to get event log metrics: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get latest uploaded content
      */
     @GetMapping("/latest")
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getLatestContent(
-            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
         
         try {
-            // This would fetch latest content from repository
-            return ResponseEntity.ok(Map.of(
-                "content", List.of(), // Placeholder
-                "message", "Latest content fetched successfully",
-                "limit", limit
-            ));
+            limit = clampPageSize(limit);
+            ContentListing latest = contentService.getLatestContent(cursor, limit);
+            
+            Map<String, Object> response = pageResponse(enrichContentWithTutorInfo(latest.getContent()), latest, limit);
+            response.put("message", "Latest content fetched successfully");
+            response.put("limit", limit);
+            return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -276,19 +406,19 @@ public class StudentContentController {
      * Get content by subject area
      */
     @GetMapping("/subject/{subject}")
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getContentBySubject(
             @PathVariable String subject,
-            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @RequestParam(value = "size", defaultValue = "20") int size) {
         
         try {
-            // This would fetch content by subject from repository
-            return ResponseEntity.ok(Map.of(
-                "content", List.of(), // Placeholder
-                "subject", subject,
-                "currentPage", page,
-                "size", size
-            ));
+            size = clampPageSize(size);
+            ContentListing listing = contentService.getContentBySubject(subject, cursor, size);
+            
+            Map<String, Object> response = pageResponse(enrichContentWithTutorInfo(listing.getContent()), listing, size);
+            response.put("subject", subject);
+            return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -531,9 +661,30 @@ public class StudentContentController {
     }
     
     /**
-     * Helper method to enrich content with tutor information for student-friendly display
+     * Page sizes outside 1..100 are clamped so a single request cannot load the whole catalog
      */
-    private List<Map<String, Object>> enrichContentWithTutorInfo(List<LearningContent> contentList) {
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+
+    /**
+     * Common fields of a keyset-paginated response; nextCursor is null on the last page
+     */
+    private Map<String, Object> pageResponse(List<Map<String, Object>> content, ContentListing listing, int size) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", content);
+        response.put("totalElements", listing.getTotal());
+        response.put("size", size);
+        response.put("hasNext", listing.hasNext());
+        response.put("nextCursor", listing.getNextCursor());
+        return response;
+    }
+
+    /**
+     * Helper method to turn listing rows into student-friendly maps. The rows already carry the tutor's
+     * display name from the projection query, so no tutor is loaded here.
+     */
+    private List<Map<String, Object>> enrichContentWithTutorInfo(List<ContentListItem> contentList) {
         return contentList.stream().map(content -> {
             Map<String, Object> enrichedContent = new HashMap<>();
             
@@ -561,16 +712,9 @@ public class StudentContentController {
             enrichedContent.put("hearingImpairmentFriendly", content.getHearingImpairmentFriendly());
             enrichedContent.put("motorImpairmentFriendly", content.getMotorImpairmentFriendly());
             
-            // Add tutor information (force lazy loading)
-            try {
-                if (content.getTutor() != null) {
-                    enrichedContent.put("tutorId", content.getTutor().getId());
-                    enrichedContent.put("tutorName", content.getTutor().getDisplayName());
-                }
-            } catch (Exception e) {
-                // Handle lazy loading issues gracefully
-                enrichedContent.put("tutorName", "Unknown Tutor");
-            }
+            // Tutor information
+            enrichedContent.put("tutorId", content.getTutorId());
+            enrichedContent.put("tutorName", content.getTutorName());
             
             return enrichedContent;
         }).collect(Collectors.toList());
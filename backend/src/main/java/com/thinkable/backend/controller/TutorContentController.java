@@ -4,6 +4,7 @@ import com.thinkable.backend.entity.LearningContent;
 import com.thinkable.backend.service.TutorContentService;
 import com.thinkable.backend.service.TutorContentService.ContentUploadRequest;
 import com.thinkable.backend.service.TutorContentService.ContentAnalytics;
+import com.thinkable.backend.service.TutorContentService.AccessibilityUpdateRequest;
 import com.thinkable.backend.dto.H5PContentRequest;
 import com.thinkable.backend.enums.ContentType;
 import com.thinkable.backend.service.TextExtractionService;
@@ -325,7 +326,8 @@ public class TutorContentController {
             @RequestBody AccessibilityUpdateRequest request) {
         
         try {
-            // Implementation would update accessibility features
+            contentService.updateAccessibilityFeatures(contentId, tutorUserId, request);
+            
             return ResponseEntity.ok(Map.of(
                 "message", "Accessibility features updated successfully",
                 "contentId", contentId
@@ -1194,45 +1196,4 @@ public class TutorContentController {
         public String getMessage() { return message; }
         public Quiz getQuiz() { return quiz; }
     }
-    
-    // Inner class for accessibility update request
-    public static class AccessibilityUpdateRequest {
-        private Boolean dyslexiaFriendly;
-        private Boolean adhdFriendly;
-        private Boolean autismFriendly;
-        private Boolean visualImpairmentFriendly;
-        private Boolean hearingImpairmentFriendly;
-        private Boolean motorImpairmentFriendly;
-        private String fontType;
-        private String readingLevel;
-        private Boolean hasAudioDescription;
-        private Boolean hasSubtitles;
-        private String cognitiveLoadLevel;
-        
-        // Getters and setters
-        public Boolean getDyslexiaFriendly() { return dyslexiaFriendly; }
-        public void setDyslexiaFriendly(Boolean dyslexiaFriendly) { this.dyslexiaFriendly = dyslexiaFriendly; }
-        public Boolean getAdhdFriendly() { return adhdFriendly; }
-        public void setAdhdFriendly(Boolean adhdFriendly) { this.adhdFriendly = adhdFriendly; }
-        public Boolean getAutismFriendly() { return autismFriendly; }
-        public void setAutismFriendly(Boolean autismFriendly) { this.autismFriendly = autismFriendly; }
-        public Boolean getVisualImpairmentFriendly() { return visualImpairmentFriendly; }
-        public void setVisualImpairmentFriendly(Boolean visualImpairmentFriendly) { this.visualImpairmentFriendly = visualImpairmentFriendly; }
-        public Boolean getHearingImpairmentFriendly() { return hearingImpairmentFriendly; }
-        public void setHearingImpairmentFriendly(Boolean hearingImpairmentFriendly) { this.hearingImpairmentFriendly = hearingImpairmentFriendly; }
-        public Boolean getMotorImpairmentFriendly() { return motorImpairmentFriendly; }
-        public void setMotorImpairmentFriendly(Boolean motorImpairmentFriendly) { this.motorImpairmentFriendly = motorImpairmentFriendly; }
-        public String getFontType() { return fontType; }
-        public void setFontType(String fontType) { this.fontType = fontType; }
-        public String getReadingLevel() { return readingLevel; }
-        public void setReadingLevel(String readingLevel) { this.readingLevel = readingLevel; }
-        public Boolean getHasAudioDescription() { return hasAudioDescription; }
-        public void setHasAudioDescription(Boolean hasAudioDescription) { this.hasAudioDescription = hasAudioDescription; }
-        public Boolean getHasSubtitles() { return hasSubtitles; }
-        public void setHasSubtitles(Boolean hasSubtitles) { this.hasSubtitles = hasSubtitles; }
-        public String getCognitiveLoadLevel() { return cognitiveLoadLevel; }
-        public void setCognitiveLoadLevel(String cognitiveLoadLevel) { this.cognitiveLoadLevel = cognitiveLoadLevel; }
-    }
-
-
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.thinkable.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of a student content listing, selected by a JPQL constructor expression
+ * together with the tutor's display name. It carries only the columns listings show, so
+ * listing pages never hydrate LearningContent entities (and their H5P TEXT columns) or
+ * touch the lazy tutor association.
+ */
+public class ContentListItem {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String subjectArea;
+    private final String contentType;
+    private final String fileName;
+    private final String filePath;
+    private final String mimeType;
+    private final String difficultyLevel;
+    private final String status;
+    private final LocalDateTime createdAt;
+    private final Integer viewCount;
+    private final BigDecimal ratingAverage;
+    private final Integer ratingCount;
+
+    // Accessibility flags
+    private final Boolean dyslexiaFriendly;
+    private final Boolean adhdFriendly;
+    private final Boolean autismFriendly;
+    private final Boolean visualImpairmentFriendly;
+    private final Boolean hearingImpairmentFriendly;
+    private final Boolean motorImpairmentFriendly;
+
+    // Tutor
+    private final Long tutorId;
+    private final String tutorName;
+
+    public ContentListItem(Long id, String title, String description, String subjectArea, String contentType,
+                           String fileName, String filePath, String mimeType, String difficultyLevel, String status,
+                           LocalDateTime createdAt, Integer viewCount, BigDecimal ratingAverage, Integer ratingCount,
+                           Boolean dyslexiaFriendly, Boolean adhdFriendly, Boolean autismFriendly,
+                           Boolean visualImpairmentFriendly, Boolean hearingImpairmentFriendly,
+                           Boolean motorImpairmentFriendly, Long tutorId, String tutorName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.subjectArea = subjectArea;
+        this.contentType = contentType;
+        this.fileName = fileName;
+        this.filePath = filePath;
+        this.mimeType = mimeType;
+        this.difficultyLevel = difficultyLevel;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.viewCount = viewCount;
+        this.ratingAverage = ratingAverage;
+        this.ratingCount = ratingCount;
+        this.dyslexiaFriendly = dyslexiaFriendly;
+        this.adhdFriendly = adhdFriendly;
+        this.autismFriendly = autismFriendly;
+        this.visualImpairmentFriendly = visualImpairmentFriendly;
+        this.hearingImpairmentFriendly = hearingImpairmentFriendly;
+        this.motorImpairmentFriendly = motorImpairmentFriendly;
+        this.tutorId = tutorId;
+        this.tutorName = tutorName;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getSubjectArea() { return subjectArea; }
+    public String getContentType() { return contentType; }
+    public String getFileName() { return fileName; }
+    public String getFilePath() { return filePath; }
+    public String getMimeType() { return mimeType; }
+    public String getDifficultyLevel() { return difficultyLevel; }
+    public String getStatus() { return status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public Integer getViewCount() { return viewCount; }
+    public BigDecimal getRatingAverage() { return ratingAverage; }
+    public Integer getRatingCount() { return ratingCount; }
+    public Boolean getDyslexiaFriendly() { return dyslexiaFriendly; }
+    public Boolean getAdhdFriendly() { return adhdFriendly; }
+    public Boolean getAutismFriendly() { return autismFriendly; }
+    public Boolean getVisualImpairmentFriendly() { return visualImpairmentFriendly; }
+    public Boolean getHearingImpairmentFriendly() { return hearingImpairmentFriendly; }
+    public Boolean getMotorImpairmentFriendly() { return motorImpairmentFriendly; }
+    public Long getTutorId() { return tutorId; }
+    public String getTutorName() { return tutorName; }
+}
@@ -0,0 +1,30 @@
+package com.thinkable.backend.entity;
+
+import javax.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Content Search Text Entity
+ * Body text extracted from a content file when it is published, kept so the search index
+ * can be rebuilt and snippets cut without downloading the file again.
+ */
+@Entity
+@Table(name = "content_search_text")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentSearchText {
+
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+
+    @Column(name = "body_text", columnDefinition = "TEXT", nullable = false)
+    private String bodyText;
+
+    @Column(name = "extracted_at", nullable = false)
+    private LocalDateTime extractedAt;
+}
@@ -0,0 +1,39 @@
+package com.thinkable.backend.entity;
+
+import javax.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.io.Serializable;
+
+/**
+ * Content Tag Entity
+ * Join row between learning content and a tag dictionary entry. The primary key serves
+ * per-content lookups; the (tag_id, content_id) index serves tag filters.
+ */
+@Entity
+@Table(name = "content_tag", indexes = {
+    @Index(name = "idx_content_tag_tag", columnList = "tag_id, content_id")
+})
+@IdClass(ContentTag.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentTag {
+
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+
+    @Id
+    @Column(name = "tag_id")
+    private Long tagId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long contentId;
+        private Long tagId;
+    }
+}
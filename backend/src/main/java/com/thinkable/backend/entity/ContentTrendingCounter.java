@@ -0,0 +1,36 @@
+package com.thinkable.backend.entity;
+
+import javax.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Content Trending Counter Entity
+ * Checkpoint of the in-memory time-decayed interaction counters of a content item.
+ * Scores are the decayed values as of updatedAt and keep decaying from there on reload.
+ */
+@Entity
+@Table(name = "content_trending_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentTrendingCounter {
+
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+
+    @Column(name = "score_1h", nullable = false)
+    private Double score1h;
+
+    @Column(name = "score_24h", nullable = false)
+    private Double score24h;
+
+    @Column(name = "score_7d", nullable = false)
+    private Double score7d;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
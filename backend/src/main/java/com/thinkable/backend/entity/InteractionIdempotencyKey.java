@@ -0,0 +1,43 @@
+package com.thinkable.backend.entity;
+
+import javax.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Interaction Idempotency Key Entity
+ * Key of an interaction event already applied for a student, so a retried client batch
+ * or a replayed event log batch is not counted twice. Purged after the retention period.
+ */
+@Entity
+@Table(name = "interaction_idempotency_keys", indexes = {
+    @Index(name = "idx_interaction_idempotency_recorded", columnList = "recorded_at")
+})
+@IdClass(InteractionIdempotencyKey.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionIdempotencyKey {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long studentId;
+        private String idempotencyKey;
+    }
+}
@@ -16,7 +16,10 @@ import java.math.BigDecimal;
  * Stores educational materials uploaded by tutors with accessibility metadata
  */
 @Entity
-@Table(name = "learning_content")
+@Table(name = "learning_content", indexes = {
+    @Index(name = "idx_learning_content_listing", columnList = "status, is_public, created_at, id"),
+    @Index(name = "idx_learning_content_subject_listing", columnList = "subject_area, status, is_public, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -153,11 +156,12 @@ public class LearningContent {
     @Column(name = "learning_styles", length = 200)
     private String learningStyles; // JSON array: visual, auditory, kinesthetic, reading
     
-    // Content metrics
-    @Column(name = "view_count")
+    // Content metrics; view and download counts are only incremented in SQL by ContentCounterBuffer,
+    // so saving a stale entity can never overwrite them
+    @Column(name = "view_count", updatable = false)
     private Integer viewCount = 0;
     
-    @Column(name = "download_count")
+    @Column(name = "download_count", updatable = false)
     private Integer downloadCount = 0;
     
     @Column(name = "rating_average", precision = 3, scale = 2)
@@ -246,14 +250,6 @@ public class LearningContent {
         return successRate != null && successRate.compareTo(BigDecimal.valueOf(75.0)) >= 0;
     }
     
-    public void incrementViewCount() {
-        this.viewCount = (viewCount != null ? viewCount : 0) + 1;
-    }
-    
-    public void incrementDownloadCount() {
-        this.downloadCount = (downloadCount != null ? downloadCount : 0) + 1;
-    }
-    
     public void publish() {
         this.status = "published";
         this.isPublic = true;
@@ -0,0 +1,67 @@
+package com.thinkable.backend.entity;
+
+import javax.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Recommendation Batch Run Entity
+ * Progress and checkpoint of a batch recommendation precomputation run
+ */
+@Entity
+@Table(name = "recommendation_batch_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationBatchRun {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = "running"; // running, completed, failed
+    
+    // Highest student ID whose chunk has been fully written; a resumed run continues after it
+    @Column(name = "last_student_id", nullable = false)
+    private Long lastStudentId = 0L;
+    
+    @Column(name = "students_processed", nullable = false)
+    private Long studentsProcessed = 0L;
+    
+    @Column(name = "students_failed", nullable = false)
+    private Long studentsFailed = 0L;
+    
+    @Column(name = "recommendations_written", nullable = false)
+    private Long recommendationsWritten = 0L;
+    
+    @Column(name = "students_per_second")
+    private Double studentsPerSecond;
+    
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt = LocalDateTime.now();
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    // Helper methods
+    public boolean isCompleted() {
+        return "completed".equals(status);
+    }
+    
+    public void recordChunk(long lastStudentId, int processed, int failed, int written) {
+        this.lastStudentId = lastStudentId;
+        this.studentsProcessed += processed;
+        this.studentsFailed += failed;
+        this.recommendationsWritten += written;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
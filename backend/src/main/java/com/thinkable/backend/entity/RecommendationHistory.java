@@ -0,0 +1,63 @@
+package com.thinkable.backend.entity;
+
+import javax.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+import java.math.BigDecimal;
+
+/**
+ * Recommendation History Entity
+ * Compact archive of responded recommendations, moved out of content_recommendations
+ * by the compaction job and kept for algorithm performance statistics
+ */
+@Entity
+@Table(name = "recommendation_history", indexes = {
+    @Index(name = "idx_recommendation_history_version", columnList = "algorithm_version")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationHistory {
+    
+    // Same ID as the archived content_recommendations row
+    @Id
+    private Long id;
+    
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+    
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+    
+    @Column(name = "recommendation_type", length = 30)
+    private String recommendationType;
+    
+    @Column(name = "algorithm_version", length = 20)
+    private String algorithmVersion;
+    
+    @Column(name = "confidence_score", precision = 4, scale = 3)
+    private BigDecimal confidenceScore;
+    
+    @Column(name = "student_response", length = 20)
+    private String studentResponse;
+    
+    @Column(name = "feedback_rating")
+    private Integer feedbackRating;
+    
+    @Column(name = "was_helpful")
+    private Boolean wasHelpful;
+    
+    @Column(name = "generated_at")
+    private LocalDateTime generatedAt;
+    
+    @Column(name = "presented_at")
+    private LocalDateTime presentedAt;
+    
+    @Column(name = "responded_at")
+    private LocalDateTime respondedAt;
+    
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
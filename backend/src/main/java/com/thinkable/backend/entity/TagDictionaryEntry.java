@@ -0,0 +1,34 @@
+package com.thinkable.backend.entity;
+
+import javax.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Tag Dictionary Entry Entity
+ * One distinct topic tag or learning style, stored once and referenced from content_tag by ID.
+ * The name is normalized (trimmed, lowercase) so "Fractions" and "fractions " are the same tag.
+ */
+@Entity
+@Table(name = "tag_dictionary", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_tag_dictionary_kind_name", columnNames = {"kind", "name"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagDictionaryEntry {
+
+    public static final String KIND_TOPIC = "topic";
+    public static final String KIND_LEARNING_STYLE = "learning_style";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "kind", nullable = false, length = 20)
+    private String kind; // topic, learning_style
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+}
@@ -0,0 +1,67 @@
+package com.thinkable.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * JDBC batch writer for buffered content view and download counts.
+ * Deltas are added in the database, so concurrent flushes from several nodes never overwrite each other.
+ */
+@Repository
+public class ContentCounterWriter {
+
+    private static final String INCREMENT_SQL =
+        "UPDATE learning_content SET view_count = COALESCE(view_count, 0) + ?, " +
+        "download_count = COALESCE(download_count, 0) + ? WHERE id = ?";
+
+    /**
+     * Pending increments of one content item
+     */
+    public static class CounterDelta {
+        private final long contentId;
+        private final long views;
+        private final long downloads;
+
+        public CounterDelta(long contentId, long views, long downloads) {
+            this.contentId = contentId;
+            this.views = views;
+            this.downloads = downloads;
+        }
+
+        public long getContentId() { return contentId; }
+        public long getViews() { return views; }
+        public long getDownloads() { return downloads; }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public int addCounts(List<CounterDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CounterDelta delta = deltas.get(i);
+                ps.setLong(1, delta.getViews());
+                ps.setLong(2, delta.getDownloads());
+                ps.setLong(3, delta.getContentId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+        return deltas.size();
+    }
+}
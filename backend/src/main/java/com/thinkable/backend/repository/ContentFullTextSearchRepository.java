@@ -0,0 +1,147 @@
+package com.thinkable.backend.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PostgreSQL full-text search over the generated learning_content.search_vector column (V16),
+ * ranked with ts_rank. Queries are plain JDBC because neither the column nor the tsquery
+ * functions are known to JPA. Only usable when the database is PostgreSQL and the column exists;
+ * check {@link #isAvailable()} first.
+ */
+@Repository
+public class ContentFullTextSearchRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentFullTextSearchRepository.class);
+
+    private static final String MATCHES =
+        "FROM learning_content c CROSS JOIN plainto_tsquery('english', ?) AS q " +
+        "WHERE c.search_vector @@ q AND c.status = 'published' AND c.is_public = true";
+
+    /**
+     * One page of ranked matches, best first, with the rank of each ID
+     */
+    public static class RankedIds {
+        private final List<Long> contentIds;
+        private final double[] ranks;
+
+        public RankedIds(List<Long> contentIds, double[] ranks) {
+            this.contentIds = contentIds;
+            this.ranks = ranks;
+        }
+
+        public List<Long> getContentIds() { return contentIds; }
+        public double[] getRanks() { return ranks; }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean available;
+
+    /**
+     * True if the database is PostgreSQL with the search_vector column; detected once
+     */
+    public boolean isAvailable() {
+        Boolean result = available;
+        if (result == null) {
+            result = detect();
+            available = result;
+        }
+        return result;
+    }
+
+    /**
+     * IDs of all published content matching the query, unfiltered, for facet counts and totals
+     */
+    public List<Long> findMatchingIds(String query) {
+        return jdbcTemplate.queryForList("SELECT c.id " + MATCHES, Long.class, query);
+    }
+
+    /**
+     * Up to {@code limit} matches ordered by rank descending, then ID ascending, strictly after the
+     * (afterRank, afterId) position when afterId is not null. Matches must carry every tag in tagIds.
+     * The rank is widened to float8 so a cursor's double compares equal to the row it came from.
+     */
+    public RankedIds search(String query, String subjectArea, boolean dyslexia, boolean adhd, boolean autism,
+                            long[] tagIds, double afterRank, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, rank FROM (SELECT c.id, ts_rank(c.search_vector, q)::float8 AS rank ")
+                .append(MATCHES);
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        if (subjectArea != null) {
+            sql.append(" AND c.subject_area = ?");
+            args.add(subjectArea);
+        }
+        if (dyslexia) {
+            sql.append(" AND c.dyslexia_friendly = true");
+        }
+        if (adhd) {
+            sql.append(" AND c.adhd_friendly = true");
+        }
+        if (autism) {
+            sql.append(" AND c.autism_friendly = true");
+        }
+        for (long tagId : tagIds) {
+            sql.append(" AND EXISTS (SELECT 1 FROM content_tag ct WHERE ct.content_id = c.id AND ct.tag_id = ?)");
+            args.add(tagId);
+        }
+        sql.append(") ranked");
+        if (afterId != null) {
+            sql.append(" WHERE rank < ? OR (rank = ? AND id > ?)");
+            args.add(afterRank);
+            args.add(afterRank);
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY rank DESC, id ASC LIMIT ?");
+        args.add(limit);
+
+        List<Long> ids = new ArrayList<>();
+        List<Double> ranks = new ArrayList<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            ids.add(rs.getLong(1));
+            ranks.add(rs.getDouble(2));
+        }, args.toArray());
+
+        double[] rankArray = new double[ranks.size()];
+        for (int i = 0; i < rankArray.length; i++) {
+            rankArray[i] = ranks.get(i);
+        }
+        return new RankedIds(ids, rankArray);
+    }
+
+    // Helper methods
+
+    private boolean detect() {
+        try {
+            Boolean result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+                if (!"PostgreSQL".equalsIgnoreCase(metaData.getDatabaseProductName())) {
+                    logger.info("Database full-text search unavailable on {}", metaData.getDatabaseProductName());
+                    return false;
+                }
+                try (ResultSet columns = metaData.getColumns(null, null, "learning_content", "search_vector")) {
+                    if (!columns.next()) {
+                        logger.warn("Database full-text search unavailable: learning_content.search_vector is missing (apply V16)");
+                        return false;
+                    }
+                }
+                return true;
+            });
+            return Boolean.TRUE.equals(result);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to detect database full-text search support", e);
+            return false;
+        }
+    }
+}
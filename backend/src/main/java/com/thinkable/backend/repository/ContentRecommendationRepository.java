@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.math.BigDecimal;
 
@@ -15,6 +16,12 @@ public interface ContentRecommendationRepository extends JpaRepository<ContentRe
     
     List<ContentRecommendation> findByStudentIdAndIsActiveTrueOrderByConfidenceScoreDesc(Long studentId);
     
+    @Query("SELECT r FROM ContentRecommendation r JOIN FETCH r.content WHERE r.studentId = :studentId AND r.isActive = true")
+    List<ContentRecommendation> findActiveWithContent(@Param("studentId") Long studentId);
+    
+    @Query("SELECT r FROM ContentRecommendation r JOIN FETCH r.content WHERE r.id IN :ids AND r.isActive = true")
+    List<ContentRecommendation> findActiveWithContentByIdIn(@Param("ids") Collection<Long> ids);
+    
     List<ContentRecommendation> findByStudentIdAndIsActiveTrueAndPresentedToStudentFalseOrderByConfidenceScoreDesc(Long studentId);
     
     @Query("SELECT r FROM ContentRecommendation r WHERE r.studentId = :studentId AND r.isActive = true AND " +
@@ -44,6 +51,10 @@ public interface ContentRecommendationRepository extends JpaRepository<ContentRe
            "r.algorithmVersion = :version")
     Double getAverageFeedbackRatingForAlgorithm(@Param("version") String algorithmVersion);
     
+    @Query("SELECT SUM(r.feedbackRating), COUNT(r.feedbackRating) FROM ContentRecommendation r " +
+           "WHERE r.feedbackRating IS NOT NULL AND r.algorithmVersion = :version")
+    List<Object[]> getFeedbackTotalsForAlgorithm(@Param("version") String algorithmVersion);
+    
     @Query("SELECT r.recommendationType, COUNT(r), AVG(r.confidenceScore) FROM ContentRecommendation r " +
            "WHERE r.studentId = :studentId GROUP BY r.recommendationType")
     List<Object[]> getRecommendationTypeStats(@Param("studentId") Long studentId);
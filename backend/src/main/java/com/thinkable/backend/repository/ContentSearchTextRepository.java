@@ -0,0 +1,9 @@
+package com.thinkable.backend.repository;
+
+import com.thinkable.backend.entity.ContentSearchText;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContentSearchTextRepository extends JpaRepository<ContentSearchText, Long> {
+}
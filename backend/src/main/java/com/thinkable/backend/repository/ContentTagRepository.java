@@ -0,0 +1,22 @@
+package com.thinkable.backend.repository;
+
+import com.thinkable.backend.entity.ContentTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContentTagRepository extends JpaRepository<ContentTag, ContentTag.Key> {
+
+    // Served by idx_content_tag_tag (tag_id, content_id) without touching the table
+    @Query("SELECT ct.contentId FROM ContentTag ct WHERE ct.tagId = :tagId")
+    List<Long> findContentIdsByTagId(@Param("tagId") Long tagId);
+
+    @Modifying
+    @Query("DELETE FROM ContentTag ct WHERE ct.contentId = :contentId")
+    void deleteByContentId(@Param("contentId") Long contentId);
+}
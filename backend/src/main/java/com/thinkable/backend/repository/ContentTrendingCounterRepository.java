@@ -0,0 +1,9 @@
+package com.thinkable.backend.repository;
+
+import com.thinkable.backend.entity.ContentTrendingCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContentTrendingCounterRepository extends JpaRepository<ContentTrendingCounter, Long> {
+}
@@ -0,0 +1,27 @@
+package com.thinkable.backend.repository;
+
+import com.thinkable.backend.entity.InteractionIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InteractionIdempotencyKeyRepository
+        extends JpaRepository<InteractionIdempotencyKey, InteractionIdempotencyKey.Key> {
+
+    @Query("SELECT k.idempotencyKey FROM InteractionIdempotencyKey k WHERE k.studentId = :studentId AND " +
+           "k.idempotencyKey IN :keys")
+    List<String> findRecordedKeys(@Param("studentId") Long studentId, @Param("keys") Collection<String> keys);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM InteractionIdempotencyKey k WHERE k.recordedAt < :before")
+    int deleteRecordedBefore(@Param("before") LocalDateTime before);
+}
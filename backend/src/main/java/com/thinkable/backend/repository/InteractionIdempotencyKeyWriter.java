@@ -0,0 +1,47 @@
+package com.thinkable.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch writer for interaction idempotency keys: one batched insert per applied batch,
+ * instead of the select-then-insert JPA would issue for entities with assigned IDs
+ */
+@Repository
+public class InteractionIdempotencyKeyWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO interaction_idempotency_keys (student_id, idempotency_key, recorded_at) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public int insertKeys(Long studentId, List<String> keys, LocalDateTime recordedAt) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Timestamp timestamp = Timestamp.valueOf(recordedAt);
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, studentId);
+                ps.setString(2, keys.get(i));
+                ps.setTimestamp(3, timestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return keys.size();
+            }
+        });
+        return keys.size();
+    }
+}
@@ -1,5 +1,6 @@
 package com.thinkable.backend.repository;
 
+import com.thinkable.backend.dto.ContentListItem;
 import com.thinkable.backend.entity.LearningContent;
 import com.thinkable.backend.entity.TutorProfile;
 import org.springframework.data.domain.Page;
@@ -9,6 +10,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.math.BigDecimal;
 
@@ -44,16 +47,55 @@ public interface LearningContentRepository extends JpaRepository<LearningContent
            "c.visualImpairmentFriendly = true OR c.hearingImpairmentFriendly = true OR c.motorImpairmentFriendly = true)")
     List<LearningContent> findAccessibleContent();
     
-    @Query("SELECT c FROM LearningContent c WHERE c.status = 'published' AND c.isPublic = true AND " +
+    // Listing rows projected with the tutor display name in a single query; no entities are hydrated
+    String LIST_ITEM_SELECT = "SELECT new com.thinkable.backend.dto.ContentListItem(" +
+            "c.id, c.title, c.description, c.subjectArea, c.contentType, c.fileName, c.filePath, c.mimeType, " +
+            "c.difficultyLevel, c.status, c.createdAt, c.viewCount, c.ratingAverage, c.ratingCount, " +
+            "c.dyslexiaFriendly, c.adhdFriendly, c.autismFriendly, c.visualImpairmentFriendly, " +
+            "c.hearingImpairmentFriendly, c.motorImpairmentFriendly, t.id, t.displayName) " +
+            "FROM LearningContent c JOIN c.tutor t ";
+    
+    @Query(LIST_ITEM_SELECT + "WHERE c.id IN :ids")
+    List<ContentListItem> findListItemsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Keyset pagination over published content, newest first: rows strictly after the (createdAt, id) cursor.
+    // A tag ID of 0 means no tag filter; tag filters are lookups on content_tag.
+    @Query(LIST_ITEM_SELECT + "WHERE c.status = 'published' AND c.isPublic = true AND " +
+           "(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) AND " +
+           "(:dyslexia = false OR c.dyslexiaFriendly = true) AND " +
+           "(:adhd = false OR c.adhdFriendly = true) AND " +
+           "(:autism = false OR c.autismFriendly = true) AND " +
+           "(:topicTagId = 0 OR EXISTS (SELECT ct FROM ContentTag ct WHERE ct.contentId = c.id AND ct.tagId = :topicTagId)) AND " +
+           "(:styleTagId = 0 OR EXISTS (SELECT cs FROM ContentTag cs WHERE cs.contentId = c.id AND cs.tagId = :styleTagId)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ContentListItem> findPublishedBefore(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            @Param("dyslexia") Boolean dyslexia,
+            @Param("adhd") Boolean adhd,
+            @Param("autism") Boolean autism,
+            @Param("topicTagId") Long topicTagId,
+            @Param("styleTagId") Long styleTagId,
+            Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + "WHERE c.status = 'published' AND c.isPublic = true AND " +
            "c.subjectArea = :subject AND " +
+           "(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) AND " +
            "(:dyslexia = false OR c.dyslexiaFriendly = true) AND " +
            "(:adhd = false OR c.adhdFriendly = true) AND " +
-           "(:autism = false OR c.autismFriendly = true)")
-    Page<LearningContent> findContentByAccessibilityFilters(
+           "(:autism = false OR c.autismFriendly = true) AND " +
+           "(:topicTagId = 0 OR EXISTS (SELECT ct FROM ContentTag ct WHERE ct.contentId = c.id AND ct.tagId = :topicTagId)) AND " +
+           "(:styleTagId = 0 OR EXISTS (SELECT cs FROM ContentTag cs WHERE cs.contentId = c.id AND cs.tagId = :styleTagId)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ContentListItem> findPublishedInSubjectBefore(
             @Param("subject") String subject,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
             @Param("dyslexia") Boolean dyslexia,
             @Param("adhd") Boolean adhd,
             @Param("autism") Boolean autism,
+            @Param("topicTagId") Long topicTagId,
+            @Param("styleTagId") Long styleTagId,
             Pageable pageable);
     
     @Query("SELECT c FROM LearningContent c WHERE c.status = 'published' AND c.isPublic = true AND " +
@@ -76,18 +118,6 @@ public interface LearningContentRepository extends JpaRepository<LearningContent
            "c.targetAgeMin <= :age AND c.targetAgeMax >= :age")
     List<LearningContent> findContentForAge(@Param("age") Integer age);
     
-    @Query("SELECT c FROM LearningContent c WHERE c.status = 'published' AND c.isPublic = true AND " +
-           "LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.topicTags) LIKE LOWER(CONCAT('%', :query, '%'))")
-    Page<LearningContent> searchContent(@Param("query") String query, Pageable pageable);
-    
-    @Query("SELECT c FROM LearningContent c LEFT JOIN FETCH c.tutor WHERE c.status = 'published' AND c.isPublic = true AND " +
-           "(LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.topicTags) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<LearningContent> searchContentWithTutor(@Param("query") String query);
-    
     @Query("SELECT c FROM LearningContent c LEFT JOIN FETCH c.tutor WHERE c.status = 'published' AND c.isPublic = true")
     List<LearningContent> findAllPublishedWithTutor();
     
@@ -100,4 +130,9 @@ public interface LearningContentRepository extends JpaRepository<LearningContent
     @Query("SELECT c.subjectArea, COUNT(c) FROM LearningContent c WHERE c.status = 'published' " +
            "GROUP BY c.subjectArea ORDER BY COUNT(c) DESC")
     List<Object[]> getSubjectAreaStats();
+    
+    @Query("SELECT c.id FROM LearningContent c WHERE c.status = 'published' AND c.id > :afterId AND " +
+           "(LOWER(c.fileName) LIKE '%.pdf' OR LOWER(c.fileName) LIKE '%.txt') AND " +
+           "NOT EXISTS (SELECT t.contentId FROM ContentSearchText t WHERE t.contentId = c.id) ORDER BY c.id")
+    List<Long> findPublishedIdsWithoutSearchText(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.thinkable.backend.repository;
+
+import com.thinkable.backend.entity.RecommendationBatchRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RecommendationBatchRunRepository extends JpaRepository<RecommendationBatchRun, Long> {
+    
+    Optional<RecommendationBatchRun> findTopByOrderByStartedAtDesc();
+}
@@ -0,0 +1,150 @@
+package com.thinkable.backend.repository;
+
+import com.thinkable.backend.entity.ContentRecommendation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC batch writer for generated recommendations.
+ * Upserts on (student_id, content_id, algorithm_version) so regenerating a student's
+ * recommendations updates the existing rows instead of growing the table, in a constant
+ * number of round trips: one set-based deactivation, one batched update, one batched insert.
+ * A regenerated row starts unpresented, like a new one. Rows the student already responded to
+ * or gave feedback on are never reactivated: they keep their history and stay out of the active set.
+ */
+@Repository
+public class RecommendationBatchWriter {
+
+    private static final String DEACTIVATE_SQL =
+        "UPDATE content_recommendations SET is_active = false " +
+        "WHERE student_id IN (:studentIds) AND is_active = true";
+
+    private static final String KEY_MATCH = "student_id = ? AND content_id = ? AND algorithm_version = ?";
+
+    // Only rows without a response or feedback are reused; presentation is reset as for a new row
+    private static final String UPDATE_SQL =
+        "UPDATE content_recommendations SET recommendation_type = ?, confidence_score = ?, relevance_score = ?, " +
+        "accessibility_match_score = ?, learning_style_match_score = ?, difficulty_match_score = ?, " +
+        "success_prediction_score = ?, reasoning = ?, matching_factors = ?, optimal_timing = ?, " +
+        "expected_outcomes = ?, priority_level = ?, context_tags = ?, is_active = true, model_features = ?, " +
+        "recommendation_source = ?, generated_at = ?, expires_at = ?, " +
+        "presented_to_student = false, presented_at = NULL " +
+        "WHERE " + KEY_MATCH + " AND student_response IS NULL AND feedback_rating IS NULL AND was_helpful IS NULL";
+
+    // Skips keys that already have a row, i.e. the ones the student responded to
+    private static final String INSERT_SQL =
+        "INSERT INTO content_recommendations (recommendation_type, confidence_score, relevance_score, " +
+        "accessibility_match_score, learning_style_match_score, difficulty_match_score, " +
+        "success_prediction_score, reasoning, matching_factors, optimal_timing, expected_outcomes, " +
+        "priority_level, context_tags, is_active, model_features, recommendation_source, generated_at, " +
+        "expires_at, student_id, content_id, algorithm_version, presented_to_student) " +
+        "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true, ?, ?, ?, ?, ?, ?, ?, false " +
+        "WHERE NOT EXISTS (SELECT 1 FROM content_recommendations WHERE " + KEY_MATCH + ")";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Make the given recommendations the students' active set: deactivate everything currently
+     * active for them, then update rows that already exist for a key and insert the rest.
+     * Re-running with the same input leaves the table unchanged. Returns the number of rows made active.
+     */
+    @Transactional
+    public int upsertRecommendations(Collection<Long> studentIds, List<ContentRecommendation> recommendations) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        namedParameterJdbcTemplate.update(DEACTIVATE_SQL, new MapSqlParameterSource("studentIds", studentIds));
+        if (recommendations.isEmpty()) {
+            return 0;
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, setter(recommendations, false));
+        int written = 0;
+        List<ContentRecommendation> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(recommendations.get(i));
+            } else {
+                written++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            // The unique key rejects a concurrent first-time insert of the same rows rather than duplicating them
+            for (int inserted : jdbcTemplate.batchUpdate(INSERT_SQL, setter(missing, true))) {
+                written += Math.max(inserted, 0);
+            }
+        }
+        return written;
+    }
+
+    // Helper methods
+
+    /**
+     * Binds the shared column order of UPDATE_SQL and INSERT_SQL: score and metadata columns, then the key,
+     * then for the insert the key once more for its NOT EXISTS check
+     */
+    private static BatchPreparedStatementSetter setter(List<ContentRecommendation> recommendations, boolean insert) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ContentRecommendation r = recommendations.get(i);
+                ps.setString(1, r.getRecommendationType());
+                ps.setBigDecimal(2, r.getConfidenceScore());
+                ps.setBigDecimal(3, r.getRelevanceScore());
+                ps.setBigDecimal(4, r.getAccessibilityMatchScore());
+                ps.setBigDecimal(5, r.getLearningStyleMatchScore());
+                ps.setBigDecimal(6, r.getDifficultyMatchScore());
+                ps.setBigDecimal(7, r.getSuccessPredictionScore());
+                ps.setString(8, r.getReasoning());
+                ps.setString(9, r.getMatchingFactors());
+                ps.setString(10, r.getOptimalTiming());
+                ps.setString(11, r.getExpectedOutcomes());
+                ps.setString(12, r.getPriorityLevel());
+                ps.setString(13, r.getContextTags());
+                ps.setString(14, r.getModelFeatures());
+                ps.setString(15, r.getRecommendationSource());
+                setTimestamp(ps, 16, r.getGeneratedAt());
+                setTimestamp(ps, 17, r.getExpiresAt());
+                ps.setLong(18, r.getStudentId());
+                ps.setLong(19, r.getContent().getId());
+                ps.setString(20, r.getAlgorithmVersion());
+                if (insert) {
+                    ps.setLong(21, r.getStudentId());
+                    ps.setLong(22, r.getContent().getId());
+                    ps.setString(23, r.getAlgorithmVersion());
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return recommendations.size();
+            }
+        };
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            ps.setNull(index, Types.TIMESTAMP);
+        }
+    }
+}
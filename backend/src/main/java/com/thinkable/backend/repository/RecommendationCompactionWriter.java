@@ -0,0 +1,88 @@
+package com.thinkable.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Set-based maintenance statements for content_recommendations.
+ * Every statement is bounded to a primary-key range so each one touches at most a chunk
+ * of rows, and none of them loads entities.
+ */
+@Repository
+public class RecommendationCompactionWriter {
+
+    private static final String ID_RANGE_SQL =
+        "SELECT MIN(id), MAX(id) FROM content_recommendations";
+
+    private static final String EXPIRE_SQL =
+        "UPDATE content_recommendations SET is_active = false " +
+        "WHERE id >= ? AND id < ? AND is_active = true AND expires_at <= ?";
+
+    // Inactive rows with a response or feedback older than the cutoff
+    private static final String ARCHIVABLE =
+        "id >= ? AND id < ? AND is_active = false " +
+        "AND (student_response IS NOT NULL OR feedback_rating IS NOT NULL) " +
+        "AND COALESCE(responded_at, expires_at) < ?";
+
+    private static final String ARCHIVE_SQL =
+        "INSERT INTO recommendation_history (id, student_id, content_id, recommendation_type, algorithm_version, " +
+        "confidence_score, student_response, feedback_rating, was_helpful, generated_at, presented_at, " +
+        "responded_at, archived_at) " +
+        "SELECT r.id, r.student_id, r.content_id, r.recommendation_type, r.algorithm_version, r.confidence_score, " +
+        "r.student_response, r.feedback_rating, r.was_helpful, r.generated_at, r.presented_at, r.responded_at, ? " +
+        "FROM content_recommendations r WHERE " + ARCHIVABLE +
+        " AND NOT EXISTS (SELECT 1 FROM recommendation_history h WHERE h.id = r.id)";
+
+    private static final String DELETE_ARCHIVED_SQL =
+        "DELETE FROM content_recommendations WHERE " + ARCHIVABLE;
+
+    // Inactive rows nobody responded to, expired before the cutoff
+    private static final String DELETE_STALE_SQL =
+        "DELETE FROM content_recommendations " +
+        "WHERE id >= ? AND id < ? AND is_active = false " +
+        "AND student_response IS NULL AND feedback_rating IS NULL AND expires_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lowest and highest row ID, or null when the table is empty
+     */
+    public long[] idRange() {
+        return jdbcTemplate.query(ID_RANGE_SQL, rs -> {
+            if (!rs.next() || rs.getObject(1) == null) {
+                return null;
+            }
+            return new long[] {rs.getLong(1), rs.getLong(2)};
+        });
+    }
+
+    /**
+     * Deactivate active rows in [fromId, toId) whose expiry has passed
+     */
+    public int expireRange(long fromId, long toId, LocalDateTime now) {
+        return jdbcTemplate.update(EXPIRE_SQL, fromId, toId, Timestamp.valueOf(now));
+    }
+
+    /**
+     * Move responded rows in [fromId, toId) older than the cutoff into recommendation_history
+     */
+    @Transactional
+    public int archiveRespondedRange(long fromId, long toId, LocalDateTime cutoff, LocalDateTime archivedAt) {
+        Timestamp cutoffTs = Timestamp.valueOf(cutoff);
+        jdbcTemplate.update(ARCHIVE_SQL, Timestamp.valueOf(archivedAt), fromId, toId, cutoffTs);
+        return jdbcTemplate.update(DELETE_ARCHIVED_SQL, fromId, toId, cutoffTs);
+    }
+
+    /**
+     * Delete unresponded inactive rows in [fromId, toId) that expired before the cutoff
+     */
+    public int deleteStaleRange(long fromId, long toId, LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_STALE_SQL, fromId, toId, Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,17 @@
+package com.thinkable.backend.repository;
+
+import com.thinkable.backend.entity.RecommendationHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RecommendationHistoryRepository extends JpaRepository<RecommendationHistory, Long> {
+    
+    @Query("SELECT SUM(h.feedbackRating), COUNT(h.feedbackRating) FROM RecommendationHistory h " +
+           "WHERE h.feedbackRating IS NOT NULL AND h.algorithmVersion = :version")
+    List<Object[]> getFeedbackTotalsForAlgorithm(@Param("version") String algorithmVersion);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,10 +18,19 @@ public interface StudentContentInteractionRepository extends JpaRepository<Stude
     
     List<StudentContentInteraction> findByStudentIdOrderByLastAccessedAtDesc(Long studentId);
     
+    @Query("SELECT i FROM StudentContentInteraction i JOIN FETCH i.content WHERE i.studentId = :studentId " +
+           "ORDER BY i.lastAccessedAt DESC")
+    List<StudentContentInteraction> findByStudentIdWithContent(@Param("studentId") Long studentId);
+    
     List<StudentContentInteraction> findByStudentIdAndInteractionType(Long studentId, String interactionType);
     
     Optional<StudentContentInteraction> findByStudentIdAndContentId(Long studentId, Long contentId);
     
+    List<StudentContentInteraction> findByStudentIdAndContentIdIn(Long studentId, Collection<Long> contentIds);
+    
+    @Query("SELECT DISTINCT i.content.id FROM StudentContentInteraction i WHERE i.studentId = :studentId")
+    List<Long> findInteractedContentIds(@Param("studentId") Long studentId);
+    
     @Query("SELECT i FROM StudentContentInteraction i WHERE i.studentId = :studentId AND " +
            "i.lastAccessedAt >= :since ORDER BY i.lastAccessedAt DESC")
     List<StudentContentInteraction> findRecentInteractions(@Param("studentId") Long studentId, 
@@ -34,6 +44,14 @@ public interface StudentContentInteractionRepository extends JpaRepository<Stude
            "i.wasHelpful = true ORDER BY i.lastAccessedAt DESC")
     List<StudentContentInteraction> findHelpfulContent(@Param("studentId") Long studentId);
     
+    /**
+     * (studentId, contentId) pairs matching StudentContentInteraction.hadPositiveOutcome()
+     */
+    @Query("SELECT i.studentId, i.content.id FROM StudentContentInteraction i WHERE i.wasHelpful = true AND " +
+           "(i.usefulnessRating IS NULL OR i.usefulnessRating >= 4) AND " +
+           "(i.comprehensionScore IS NULL OR i.comprehensionScore >= 0.7)")
+    List<Object[]> findPositiveOutcomePairs();
+    
     @Query("SELECT i FROM StudentContentInteraction i WHERE i.studentId = :studentId AND " +
            "i.engagementScore >= :minScore ORDER BY i.engagementScore DESC")
     List<StudentContentInteraction> findHighEngagementContent(@Param("studentId") Long studentId, 
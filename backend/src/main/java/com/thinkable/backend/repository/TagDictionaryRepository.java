@@ -0,0 +1,17 @@
+package com.thinkable.backend.repository;
+
+import com.thinkable.backend.entity.TagDictionaryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TagDictionaryRepository extends JpaRepository<TagDictionaryEntry, Long> {
+
+    Optional<TagDictionaryEntry> findByKindAndName(String kind, String name);
+
+    List<TagDictionaryEntry> findByKindAndNameIn(String kind, Collection<String> names);
+}
@@ -0,0 +1,72 @@
+package com.thinkable.backend.repository;
+
+import com.thinkable.backend.entity.ContentTrendingCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writer for trending counter checkpoints.
+ * Each checkpoint is one batched update plus one batched insert for counters seen for the first time.
+ */
+@Repository
+public class TrendingCounterWriter {
+
+    private static final String UPDATE_SQL =
+        "UPDATE content_trending_counters SET score_1h = ?, score_24h = ?, score_7d = ?, updated_at = ? " +
+        "WHERE content_id = ?";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO content_trending_counters (score_1h, score_24h, score_7d, updated_at, content_id) " +
+        "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public int upsertCounters(List<ContentTrendingCounter> counters) {
+        if (counters.isEmpty()) {
+            return 0;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, setter(counters));
+        List<ContentTrendingCounter> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(counters.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, setter(missing));
+        }
+        return counters.size();
+    }
+
+    // Helper methods
+
+    private static BatchPreparedStatementSetter setter(List<ContentTrendingCounter> counters) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ContentTrendingCounter counter = counters.get(i);
+                ps.setDouble(1, counter.getScore1h());
+                ps.setDouble(2, counter.getScore24h());
+                ps.setDouble(3, counter.getScore7d());
+                ps.setTimestamp(4, Timestamp.valueOf(counter.getUpdatedAt()));
+                ps.setLong(5, counter.getContentId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return counters.size();
+            }
+        };
+    }
+}
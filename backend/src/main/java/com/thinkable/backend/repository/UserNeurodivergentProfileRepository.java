@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -69,6 +70,17 @@ public interface UserNeurodivergentProfileRepository extends JpaRepository<UserN
         @Param("excludeUserId") Long excludeUserId
     );
     
+    /**
+     * Trait scores of every profile for the in-memory similarity index
+     */
+    @Query("SELECT p.userId, p.hyperfocusIntensity, p.attentionFlexibility, p.sensoryProcessing, " +
+           "p.executiveFunction, p.socialBattery, p.changeAdaptability, p.emotionalRegulation, " +
+           "p.informationProcessing, p.creativityExpression, p.structurePreference " +
+           "FROM UserNeurodivergentProfile p")
+    List<Object[]> findAllTraitVectors();
+    
+    List<UserNeurodivergentProfile> findByUserIdIn(Collection<Long> userIds);
+    
     /**
      * Find profiles needing emotional regulation support
      */
@@ -3,6 +3,7 @@ package com.thinkable.backend.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,4 +20,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Password migration support
     List<User> findByPasswordHashedFalseOrPasswordHashedIsNull();
     long countByPasswordHashedTrue();
+
+    // Keyset pagination over students for batch jobs
+    @Query("SELECT u.id FROM User u WHERE u.role = 'STUDENT' AND u.id > :afterId ORDER BY u.id")
+    List<Long> findStudentIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
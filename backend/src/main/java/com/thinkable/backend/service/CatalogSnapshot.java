@@ -0,0 +1,56 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.LearningContent;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Read-only copy of the published catalog shared by batch recommendation workers.
+ * Captured once per batch run so workers resolve candidate content from memory instead
+ * of issuing a lookup per student. Entities are detached; only scalar fields are read.
+ */
+public final class CatalogSnapshot {
+
+    private final Map<Long, LearningContent> contentById;
+    private final List<TrendingCounters.Trend> trending;
+    private final LocalDateTime capturedAt = LocalDateTime.now();
+
+    public CatalogSnapshot(List<LearningContent> published, List<TrendingCounters.Trend> trending) {
+        Map<Long, LearningContent> byId = new HashMap<>(published.size() * 2);
+        for (LearningContent content : published) {
+            byId.put(content.getId(), content);
+        }
+        this.contentById = Collections.unmodifiableMap(byId);
+        this.trending = Collections.unmodifiableList(new ArrayList<>(trending));
+    }
+
+    /**
+     * Content for the given IDs in the given order; IDs missing from the snapshot are skipped
+     */
+    public List<LearningContent> load(List<Long> ids) {
+        List<LearningContent> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            LearningContent content = contentById.get(id);
+            if (content != null) {
+                ordered.add(content);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Trending content at capture time, highest score first
+     */
+    public List<TrendingCounters.Trend> trending() {
+        return trending;
+    }
+
+    public int size() {
+        return contentById.size();
+    }
+
+    public LocalDateTime getCapturedAt() {
+        return capturedAt;
+    }
+}
@@ -0,0 +1,631 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.repository.LearningContentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory catalog index of published learning content.
+ * Keeps one bitset per accessibility flag, subject area, difficulty level and age band
+ * so candidate selection for recommendations is a bitset AND/OR instead of a table scan.
+ * Bit positions are dense ordinals assigned per content ID; removed content keeps its
+ * ordinal until more than half of the ordinals are dead, when the live ones are renumbered.
+ * Each ordinal also carries dictionary codes of its subject, difficulty and content type so
+ * search facets are counted in one pass, and its rating for ranking selected candidates.
+ */
+@Service
+public class ContentCatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentCatalogIndex.class);
+
+    /**
+     * Lower bounds of the age bands (inclusive); the last band is open-ended
+     */
+    private static final int[] AGE_BAND_STARTS = {0, 6, 9, 12, 15, 19};
+
+    /**
+     * Ordinals are only compacted past this many, so small catalogs never renumber
+     */
+    private static final int MIN_ORDINALS_TO_COMPACT = 1024;
+
+    public enum AccessibilityFlag {
+        DYSLEXIA, ADHD, AUTISM, VISUAL_IMPAIRMENT, HEARING_IMPAIRMENT, MOTOR_IMPAIRMENT;
+
+        boolean isSetOn(LearningContent content) {
+            switch (this) {
+                case DYSLEXIA:
+                    return Boolean.TRUE.equals(content.getDyslexiaFriendly());
+                case ADHD:
+                    return Boolean.TRUE.equals(content.getAdhdFriendly());
+                case AUTISM:
+                    return Boolean.TRUE.equals(content.getAutismFriendly());
+                case VISUAL_IMPAIRMENT:
+                    return Boolean.TRUE.equals(content.getVisualImpairmentFriendly());
+                case HEARING_IMPAIRMENT:
+                    return Boolean.TRUE.equals(content.getHearingImpairmentFriendly());
+                case MOTOR_IMPAIRMENT:
+                    return Boolean.TRUE.equals(content.getMotorImpairmentFriendly());
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * Search facet counts, each map ordered by descending count
+     */
+    public static class FacetCounts {
+        private final Map<String, Integer> subjectAreas;
+        private final Map<String, Integer> difficultyLevels;
+        private final Map<String, Integer> contentTypes;
+        private final Map<String, Integer> accessibility;
+
+        public FacetCounts(Map<String, Integer> subjectAreas, Map<String, Integer> difficultyLevels,
+                           Map<String, Integer> contentTypes, Map<String, Integer> accessibility) {
+            this.subjectAreas = subjectAreas;
+            this.difficultyLevels = difficultyLevels;
+            this.contentTypes = contentTypes;
+            this.accessibility = accessibility;
+        }
+
+        public Map<String, Integer> getSubjectAreas() { return subjectAreas; }
+        public Map<String, Integer> getDifficultyLevels() { return difficultyLevels; }
+        public Map<String, Integer> getContentTypes() { return contentTypes; }
+        public Map<String, Integer> getAccessibility() { return accessibility; }
+    }
+
+    /**
+     * Normalized facet values numbered in first-seen order; codes are never reused
+     */
+    private static final class FacetDictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        void clear() {
+            codes.clear();
+            values.clear();
+        }
+    }
+
+    @Autowired
+    private LearningContentRepository contentRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private long[] idsByOrdinal = new long[256];
+    private int nextOrdinal = 0;
+    private long version = 0;
+
+    private final BitSet published = new BitSet();
+    private final EnumMap<AccessibilityFlag, BitSet> flagBits = new EnumMap<>(AccessibilityFlag.class);
+    private final Map<String, BitSet> subjectBits = new HashMap<>();
+    private final Map<String, BitSet> difficultyBits = new HashMap<>();
+    private final Map<String, BitSet> contentTypeBits = new HashMap<>();
+    private final BitSet[] ageBandBits = new BitSet[AGE_BAND_STARTS.length];
+
+    // Facet codes per ordinal, stored as code + 1 so zero means "no value"
+    private final FacetDictionary subjectValues = new FacetDictionary();
+    private final FacetDictionary difficultyValues = new FacetDictionary();
+    private final FacetDictionary contentTypeValues = new FacetDictionary();
+    private int[] subjectCodes = new int[256];
+    private int[] difficultyCodes = new int[256];
+    private int[] contentTypeCodes = new int[256];
+    private byte[] flagMasks = new byte[256];
+    private float[] ratings = new float[256];
+
+    public ContentCatalogIndex() {
+        for (AccessibilityFlag flag : AccessibilityFlag.values()) {
+            flagBits.put(flag, new BitSet());
+        }
+        for (int i = 0; i < ageBandBits.length; i++) {
+            ageBandBits[i] = new BitSet();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build content catalog index", e);
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the published catalog, compacting ordinals
+     */
+    public void rebuild() {
+        List<LearningContent> catalog = contentRepository.findByStatusAndIsPublicTrue("published");
+
+        lock.writeLock().lock();
+        try {
+            ordinalsById.clear();
+            int capacity = Math.max(256, catalog.size());
+            idsByOrdinal = new long[capacity];
+            subjectCodes = new int[capacity];
+            difficultyCodes = new int[capacity];
+            contentTypeCodes = new int[capacity];
+            flagMasks = new byte[capacity];
+            ratings = new float[capacity];
+            nextOrdinal = 0;
+            published.clear();
+            flagBits.values().forEach(BitSet::clear);
+            subjectBits.clear();
+            difficultyBits.clear();
+            contentTypeBits.clear();
+            subjectValues.clear();
+            difficultyValues.clear();
+            contentTypeValues.clear();
+            for (BitSet band : ageBandBits) {
+                band.clear();
+            }
+
+            for (LearningContent content : catalog) {
+                indexLocked(content);
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Content catalog index built with {} published items", catalog.size());
+    }
+
+    /**
+     * Add or refresh a single content item. Items that are not published and public are removed.
+     */
+    public void index(LearningContent content) {
+        if (content == null || content.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            indexLocked(content);
+            compactIfSparseLocked();
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a content item from every posting bitset
+     */
+    public void remove(Long contentId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalsById.get(contentId);
+            if (ordinal != null) {
+                clearLocked(ordinal);
+                compactIfSparseLocked();
+                version++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public BitSet published() {
+        return copy(published);
+    }
+
+    public BitSet withFlag(AccessibilityFlag flag) {
+        return copy(flagBits.get(flag));
+    }
+
+    public BitSet inSubject(String subjectArea) {
+        return copy(subjectBits.get(normalize(subjectArea)));
+    }
+
+    public BitSet atDifficulty(String difficultyLevel) {
+        return copy(difficultyBits.get(normalize(difficultyLevel)));
+    }
+
+    public BitSet ofContentType(String contentType) {
+        return copy(contentTypeBits.get(normalize(contentType)));
+    }
+
+    public BitSet forAge(int age) {
+        return copy(ageBandBits[ageBand(age)]);
+    }
+
+    /**
+     * Count subject areas, difficulty levels, content types and accessibility flags over the
+     * published members of {@code ordinals}, in a single pass over its set bits
+     */
+    public FacetCounts facetCounts(BitSet ordinals) {
+        AccessibilityFlag[] flags = AccessibilityFlag.values();
+        int[] flagCounts = new int[flags.length];
+        int[] subjectCounts;
+        int[] difficultyCounts;
+        int[] contentTypeCounts;
+        List<String> subjects;
+        List<String> difficulties;
+        List<String> contentTypes;
+
+        lock.readLock().lock();
+        try {
+            subjects = new ArrayList<>(subjectValues.values);
+            difficulties = new ArrayList<>(difficultyValues.values);
+            contentTypes = new ArrayList<>(contentTypeValues.values);
+            subjectCounts = new int[subjects.size() + 1];
+            difficultyCounts = new int[difficulties.size() + 1];
+            contentTypeCounts = new int[contentTypes.size() + 1];
+
+            for (int i = ordinals.nextSetBit(0); i >= 0 && i < nextOrdinal; i = ordinals.nextSetBit(i + 1)) {
+                if (!published.get(i)) {
+                    continue;
+                }
+                subjectCounts[subjectCodes[i]]++;
+                difficultyCounts[difficultyCodes[i]]++;
+                contentTypeCounts[contentTypeCodes[i]]++;
+                int mask = flagMasks[i];
+                for (int f = 0; mask != 0; f++, mask >>>= 1) {
+                    if ((mask & 1) != 0) {
+                        flagCounts[f]++;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Integer> accessibility = new LinkedHashMap<>();
+        for (AccessibilityFlag flag : flags) {
+            accessibility.put(flag.name().toLowerCase(), flagCounts[flag.ordinal()]);
+        }
+        return new FacetCounts(byCount(subjects, subjectCounts), byCount(difficulties, difficultyCounts),
+                byCount(contentTypes, contentTypeCounts), accessibility);
+    }
+
+    /**
+     * Content sharing at least two of the dyslexia/ADHD/autism flags with the given content,
+     * mirroring the engine's "similar accessibility features" rule
+     */
+    public BitSet withSimilarAccessibility(LearningContent content) {
+        lock.readLock().lock();
+        try {
+            BitSet dyslexia = matching(AccessibilityFlag.DYSLEXIA, content);
+            BitSet adhd = matching(AccessibilityFlag.ADHD, content);
+            BitSet autism = matching(AccessibilityFlag.AUTISM, content);
+
+            BitSet dyslexiaAndAdhd = (BitSet) dyslexia.clone();
+            dyslexiaAndAdhd.and(adhd);
+            BitSet dyslexiaAndAutism = dyslexia;
+            dyslexiaAndAutism.and(autism);
+            BitSet adhdAndAutism = adhd;
+            adhdAndAutism.and(autism);
+
+            dyslexiaAndAdhd.or(dyslexiaAndAutism);
+            dyslexiaAndAdhd.or(adhdAndAutism);
+            return dyslexiaAndAdhd;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ordinals of the given content IDs that are present in the index
+     */
+    public BitSet ordinalsOf(ContentIdSet contentIds) {
+        return ordinalsOf(contentIds.sortedIds());
+    }
+
+    public BitSet ordinalsOf(long[] contentIds) {
+        BitSet ordinals = new BitSet();
+        lock.readLock().lock();
+        try {
+            for (long id : contentIds) {
+                Integer ordinal = ordinalsById.get(id);
+                if (ordinal != null) {
+                    ordinals.set(ordinal);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ordinals;
+    }
+
+    public boolean isPublished(Long contentId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinalsById.get(contentId);
+            return ordinal != null && published.get(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int ordinalOf(Long contentId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinalsById.get(contentId);
+            return ordinal != null ? ordinal : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return published.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Incremented on every change to the index, so derived structures can tell when to rebuild
+     */
+    public long version() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolve the {@code limit} best-rated content IDs from a candidate bitset, best first and
+     * newer content first on equal ratings, skipping IDs rejected by the filter
+     */
+    public List<Long> selectIds(BitSet candidates, LongPredicate filter, int limit) {
+        TopKSelector best = new TopKSelector(limit);
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int i = candidates.nextSetBit(0); i >= 0 && i < nextOrdinal; i = candidates.nextSetBit(i + 1)) {
+                if (!published.get(i)) {
+                    continue;
+                }
+                long id = idsByOrdinal[i];
+                if (filter == null || filter.test(id)) {
+                    best.offer(i, ratings[i], -id);
+                }
+            }
+            for (int ordinal : best.drainDescending()) {
+                ids.add(idsByOrdinal[ordinal]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    /**
+     * Load content entities for the selected IDs, preserving the selection order
+     */
+    public List<LearningContent> loadContent(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, LearningContent> byId = new HashMap<>();
+        for (LearningContent content : contentRepository.findAllById(ids)) {
+            byId.put(content.getId(), content);
+        }
+        List<LearningContent> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            LearningContent content = byId.get(id);
+            if (content != null) {
+                ordered.add(content);
+            }
+        }
+        return ordered;
+    }
+
+    // Helper methods
+
+    private void indexLocked(LearningContent content) {
+        Integer existing = ordinalsById.get(content.getId());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            clearLocked(ordinal);
+        } else {
+            if (!content.isPublished() || !Boolean.TRUE.equals(content.getIsPublic())) {
+                return;
+            }
+            ordinal = nextOrdinal++;
+            if (ordinal >= idsByOrdinal.length) {
+                int capacity = idsByOrdinal.length * 2;
+                idsByOrdinal = Arrays.copyOf(idsByOrdinal, capacity);
+                subjectCodes = Arrays.copyOf(subjectCodes, capacity);
+                difficultyCodes = Arrays.copyOf(difficultyCodes, capacity);
+                contentTypeCodes = Arrays.copyOf(contentTypeCodes, capacity);
+                flagMasks = Arrays.copyOf(flagMasks, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+            }
+            idsByOrdinal[ordinal] = content.getId();
+            ordinalsById.put(content.getId(), ordinal);
+        }
+
+        if (!content.isPublished() || !Boolean.TRUE.equals(content.getIsPublic())) {
+            return;
+        }
+
+        published.set(ordinal);
+        int mask = 0;
+        for (AccessibilityFlag flag : AccessibilityFlag.values()) {
+            if (flag.isSetOn(content)) {
+                flagBits.get(flag).set(ordinal);
+                mask |= 1 << flag.ordinal();
+            }
+        }
+        flagMasks[ordinal] = (byte) mask;
+        ratings[ordinal] = content.getRatingAverage() != null ? content.getRatingAverage().floatValue() : 0f;
+        if (content.getSubjectArea() != null) {
+            String subject = normalize(content.getSubjectArea());
+            subjectBits.computeIfAbsent(subject, k -> new BitSet()).set(ordinal);
+            subjectCodes[ordinal] = subjectValues.code(subject) + 1;
+        }
+        if (content.getDifficultyLevel() != null) {
+            String difficulty = normalize(content.getDifficultyLevel());
+            difficultyBits.computeIfAbsent(difficulty, k -> new BitSet()).set(ordinal);
+            difficultyCodes[ordinal] = difficultyValues.code(difficulty) + 1;
+        }
+        if (content.getContentType() != null) {
+            String contentType = normalize(content.getContentType());
+            contentTypeBits.computeIfAbsent(contentType, k -> new BitSet()).set(ordinal);
+            contentTypeCodes[ordinal] = contentTypeValues.code(contentType) + 1;
+        }
+
+        // Content without an age range is treated as suitable for every band
+        int minBand = content.getTargetAgeMin() != null ? ageBand(content.getTargetAgeMin()) : 0;
+        int maxBand = content.getTargetAgeMax() != null ? ageBand(content.getTargetAgeMax()) : ageBandBits.length - 1;
+        for (int band = minBand; band <= maxBand; band++) {
+            ageBandBits[band].set(ordinal);
+        }
+    }
+
+    private void clearLocked(int ordinal) {
+        published.clear(ordinal);
+        flagBits.values().forEach(bits -> bits.clear(ordinal));
+        subjectBits.values().forEach(bits -> bits.clear(ordinal));
+        difficultyBits.values().forEach(bits -> bits.clear(ordinal));
+        contentTypeBits.values().forEach(bits -> bits.clear(ordinal));
+        for (BitSet band : ageBandBits) {
+            band.clear(ordinal);
+        }
+        subjectCodes[ordinal] = 0;
+        difficultyCodes[ordinal] = 0;
+        contentTypeCodes[ordinal] = 0;
+        flagMasks[ordinal] = 0;
+        ratings[ordinal] = 0f;
+    }
+
+    /**
+     * Renumber the live ordinals densely, in their current order, once more than half are dead.
+     * Callers bump the version, so derived structures keyed by ordinal rebuild; bitsets
+     * handed out earlier are only used within one request.
+     */
+    private void compactIfSparseLocked() {
+        int live = published.cardinality();
+        if (nextOrdinal < MIN_ORDINALS_TO_COMPACT || live * 2 >= nextOrdinal) {
+            return;
+        }
+        int[] remap = new int[nextOrdinal];
+        int capacity = Math.max(256, live * 2);
+        long[] newIds = new long[capacity];
+        int[] newSubjects = new int[capacity];
+        int[] newDifficulties = new int[capacity];
+        int[] newContentTypes = new int[capacity];
+        byte[] newFlagMasks = new byte[capacity];
+        float[] newRatings = new float[capacity];
+        ordinalsById.clear();
+        int next = 0;
+        for (int i = 0; i < nextOrdinal; i++) {
+            if (!published.get(i)) {
+                remap[i] = -1;
+                continue;
+            }
+            remap[i] = next;
+            newIds[next] = idsByOrdinal[i];
+            newSubjects[next] = subjectCodes[i];
+            newDifficulties[next] = difficultyCodes[i];
+            newContentTypes[next] = contentTypeCodes[i];
+            newFlagMasks[next] = flagMasks[i];
+            newRatings[next] = ratings[i];
+            ordinalsById.put(idsByOrdinal[i], next);
+            next++;
+        }
+        idsByOrdinal = newIds;
+        subjectCodes = newSubjects;
+        difficultyCodes = newDifficulties;
+        contentTypeCodes = newContentTypes;
+        flagMasks = newFlagMasks;
+        ratings = newRatings;
+
+        remapInPlace(published, remap);
+        flagBits.values().forEach(bits -> remapInPlace(bits, remap));
+        subjectBits.values().forEach(bits -> remapInPlace(bits, remap));
+        difficultyBits.values().forEach(bits -> remapInPlace(bits, remap));
+        contentTypeBits.values().forEach(bits -> remapInPlace(bits, remap));
+        for (BitSet band : ageBandBits) {
+            remapInPlace(band, remap);
+        }
+        logger.info("Compacted content catalog index from {} to {} ordinals", nextOrdinal, next);
+        nextOrdinal = next;
+    }
+
+    private static void remapInPlace(BitSet bits, int[] remap) {
+        BitSet moved = new BitSet();
+        for (int i = bits.nextSetBit(0); i >= 0 && i < remap.length; i = bits.nextSetBit(i + 1)) {
+            if (remap[i] >= 0) {
+                moved.set(remap[i]);
+            }
+        }
+        bits.clear();
+        bits.or(moved);
+    }
+
+    private BitSet matching(AccessibilityFlag flag, LearningContent content) {
+        BitSet bits = (BitSet) flagBits.get(flag).clone();
+        if (flag.isSetOn(content)) {
+            return bits;
+        }
+        BitSet inverse = (BitSet) published.clone();
+        inverse.andNot(bits);
+        return inverse;
+    }
+
+    private BitSet copy(BitSet source) {
+        lock.readLock().lock();
+        try {
+            return source != null ? (BitSet) source.clone() : new BitSet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Non-zero counts keyed by value, highest first; slot 0 holds items without a value and is skipped
+     */
+    private static Map<String, Integer> byCount(List<String> values, int[] counts) {
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < values.size(); code++) {
+            if (counts[code + 1] > 0) {
+                codes.add(code);
+            }
+        }
+        codes.sort((a, b) -> Integer.compare(counts[b + 1], counts[a + 1]));
+        Map<String, Integer> ordered = new LinkedHashMap<>();
+        for (int code : codes) {
+            ordered.put(values.get(code), counts[code + 1]);
+        }
+        return ordered;
+    }
+
+    private static int ageBand(int age) {
+        int band = 0;
+        for (int i = 0; i < AGE_BAND_STARTS.length; i++) {
+            if (age >= AGE_BAND_STARTS[i]) {
+                band = i;
+            }
+        }
+        return band;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,148 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.repository.ContentCounterWriter;
+import com.thinkable.backend.repository.ContentCounterWriter.CounterDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for content view and download counts.
+ * Interactions only bump striped LongAdders per content item; a scheduled flush drains them
+ * into one batched UPDATE that adds the deltas in the database. Popular content no longer costs
+ * a row write per view, and concurrent viewers cannot lose each other's increments.
+ * Deltas are flushed on shutdown; a crash loses at most one flush interval of counts.
+ */
+@Service
+public class ContentCounterBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentCounterBuffer.class);
+
+    @Autowired
+    private ContentCounterWriter counterWriter;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder flushedViews = new LongAdder();
+    private final LongAdder flushedDownloads = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile LocalDateTime lastFlushAt;
+
+    private static final class Pending {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder downloads = new LongAdder();
+    }
+
+    public void recordView(Long contentId) {
+        pending.computeIfAbsent(contentId, k -> new Pending()).views.increment();
+    }
+
+    public void recordDownload(Long contentId) {
+        pending.computeIfAbsent(contentId, k -> new Pending()).downloads.increment();
+    }
+
+    /**
+     * Views recorded but not yet written, to add to the persisted count when reading it
+     */
+    public long pendingViews(Long contentId) {
+        Pending counts = pending.get(contentId);
+        return counts != null ? counts.views.sum() : 0L;
+    }
+
+    public long pendingDownloads(Long contentId) {
+        Pending counts = pending.get(contentId);
+        return counts != null ? counts.downloads.sum() : 0L;
+    }
+
+    /**
+     * Drain all pending deltas into one batched update; on failure they are added back for the next flush
+     */
+    @Scheduled(fixedDelayString = "${content.counters.flush-ms:5000}",
+               initialDelayString = "${content.counters.flush-ms:5000}")
+    public synchronized void flush() {
+        List<CounterDelta> deltas = new ArrayList<>();
+        for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+            long views = entry.getValue().views.sumThenReset();
+            long downloads = entry.getValue().downloads.sumThenReset();
+            // Entries are kept (at most one per content item) so an increment can never land on a removed one
+            if (views == 0 && downloads == 0) {
+                continue;
+            }
+            deltas.add(new CounterDelta(entry.getKey(), views, downloads));
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            counterWriter.addCounts(deltas);
+            for (CounterDelta delta : deltas) {
+                flushedViews.add(delta.getViews());
+                flushedDownloads.add(delta.getDownloads());
+            }
+            flushes.increment();
+            lastFlushAt = LocalDateTime.now();
+        } catch (Exception e) {
+            failures.increment();
+            logger.error("Failed to flush counters of {} content items", deltas.size(), e);
+            for (CounterDelta delta : deltas) {
+                Pending counts = pending.computeIfAbsent(delta.getContentId(), k -> new Pending());
+                counts.views.add(delta.getViews());
+                counts.downloads.add(delta.getDownloads());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        long unflushed = pendingTotal();
+        if (unflushed > 0) {
+            logger.warn("Content counters not flushed on shutdown: {} views and downloads lost", unflushed);
+        }
+    }
+
+    /**
+     * Pending deltas and flush counts
+     */
+    public Map<String, Object> snapshot() {
+        long pendingViews = 0;
+        long pendingDownloads = 0;
+        for (Pending counts : pending.values()) {
+            pendingViews += counts.views.sum();
+            pendingDownloads += counts.downloads.sum();
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("trackedContentItems", pending.size());
+        snapshot.put("pendingViews", pendingViews);
+        snapshot.put("pendingDownloads", pendingDownloads);
+        snapshot.put("flushedViews", flushedViews.sum());
+        snapshot.put("flushedDownloads", flushedDownloads.sum());
+        snapshot.put("flushes", flushes.sum());
+        snapshot.put("failedFlushes", failures.sum());
+        snapshot.put("lastFlushAt", lastFlushAt);
+        return snapshot;
+    }
+
+    // Helper methods
+
+    private long pendingTotal() {
+        long total = 0;
+        for (Pending counts : pending.values()) {
+            total += counts.views.sum() + counts.downloads.sum();
+        }
+        return total;
+    }
+}
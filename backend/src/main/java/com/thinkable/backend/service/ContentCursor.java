@@ -0,0 +1,53 @@
+package com.thinkable.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor: the sort key and content ID of the last item of a page.
+ * The next page starts strictly after that position, so its cost does not depend on how deep it is.
+ * Encoded as URL-safe Base64 so clients treat it as a token rather than something to build.
+ */
+public final class ContentCursor {
+
+    private final double sortKey;
+    private final long contentId;
+
+    public ContentCursor(double sortKey, long contentId) {
+        this.sortKey = sortKey;
+        this.contentId = contentId;
+    }
+
+    public double getSortKey() { return sortKey; }
+    public long getContentId() { return contentId; }
+
+    /**
+     * True if an item ranks after this cursor in descending (sortKey, contentId) order
+     */
+    public boolean precedes(double itemSortKey, long itemContentId) {
+        return itemSortKey < sortKey || (itemSortKey == sortKey && itemContentId > contentId);
+    }
+
+    public String encode() {
+        String raw = Long.toHexString(Double.doubleToLongBits(sortKey)) + ":" + contentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor from a request; null or blank means the first page
+     */
+    public static ContentCursor decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            double sortKey = Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, separator), 16));
+            long contentId = Long.parseLong(raw.substring(separator + 1));
+            return new ContentCursor(sortKey, contentId);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
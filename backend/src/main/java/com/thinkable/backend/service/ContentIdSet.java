@@ -0,0 +1,70 @@
+package com.thinkable.backend.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of content IDs backed by a sorted primitive array.
+ * Used to share a student's "already interacted" content across recommendation
+ * stages without a query or boxed lookup per candidate.
+ */
+public final class ContentIdSet {
+
+    private static final ContentIdSet EMPTY = new ContentIdSet(new long[0]);
+
+    private final long[] ids;
+
+    private ContentIdSet(long[] sortedIds) {
+        this.ids = sortedIds;
+    }
+
+    public static ContentIdSet empty() {
+        return EMPTY;
+    }
+
+    public static ContentIdSet of(Collection<Long> contentIds) {
+        if (contentIds == null || contentIds.isEmpty()) {
+            return EMPTY;
+        }
+        long[] values = new long[contentIds.size()];
+        int size = 0;
+        for (Long id : contentIds) {
+            if (id != null) {
+                values[size++] = id;
+            }
+        }
+        Arrays.sort(values, 0, size);
+
+        // Drop duplicates in place
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || values[unique - 1] != values[i]) {
+                values[unique++] = values[i];
+            }
+        }
+        return new ContentIdSet(Arrays.copyOf(values, unique));
+    }
+
+    public boolean contains(long contentId) {
+        return Arrays.binarySearch(ids, contentId) >= 0;
+    }
+
+    public boolean contains(Long contentId) {
+        return contentId != null && contains(contentId.longValue());
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * Raw sorted IDs; callers must not modify the returned array
+     */
+    long[] sortedIds() {
+        return ids;
+    }
+}
@@ -4,15 +4,18 @@ import com.thinkable.backend.entity.*;
 import com.thinkable.backend.repository.*;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * AI-Powered Content Recommendation Engine
@@ -21,7 +24,9 @@ import java.math.RoundingMode;
  */
 @Service
 @Transactional
-public class ContentRecommendationEngine {
+public class ContentRecommendationEngine implements RecommendationStrategy {
+    
+    public static final String ALGORITHM_VERSION = "2.0";
     
     @Autowired
     private ContentRecommendationRepository recommendationRepository;
@@ -38,81 +43,290 @@ public class ContentRecommendationEngine {
     @Autowired
     private ContentAccessibilityTagRepository accessibilityTagRepository;
     
+    @Autowired
+    private ContentCatalogIndex catalogIndex;
+    
+    @Autowired
+    private ItemCoOccurrenceModel coOccurrenceModel;
+    
+    @Autowired
+    private ProfileSimilarityIndex profileSimilarityIndex;
+    
+    @Autowired
+    @Qualifier("recommendationStageExecutor")
+    private ExecutorService stageExecutor;
+    
+    @Autowired
+    private RecommendationStageMetrics stageMetrics;
+    
+    @Autowired
+    private RecommendationCache recommendationCache;
+    
+    @Autowired
+    private RecommendationBatchWriter recommendationWriter;
+    
+    @Autowired
+    private RecommendationStrategyRunner strategyRunner;
+    
+    @Autowired
+    private TrendingCounters trendingCounters;
+    
+    @Value("${recommendation.stages.timeout-ms:1500}")
+    private long stageTimeoutMillis;
+    
+    private static final int TRENDING_CANDIDATES = 50;
+    private static final int MAX_RECOMMENDATIONS = 15;
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentRecommendationEngine.class);
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     /**
-     * Generate comprehensive personalized recommendations for a student
+     * Generate comprehensive personalized recommendations for a student.
+     * Served from the per-student cache until the recommendations expire or an
+     * interaction, profile update or newly published content invalidates them.
      */
     public List<ContentRecommendation> generateRecommendations(Long studentId) {
-        UserNeurodivergentProfile profile = profileService.getOrCreateProfile(studentId);
-        List<StudentContentInteraction> history = interactionRepository.findByStudentIdOrderByLastAccessedAtDesc(studentId);
+        Optional<List<Long>> cached = recommendationCache.get(studentId);
+        if (cached.isPresent()) {
+            List<ContentRecommendation> current = loadActiveInIdOrder(cached.get());
+            if (current.size() == cached.get().size()) {
+                return current;
+            }
+            // Some were deactivated since they were cached; generate a fresh set
+            recommendationCache.invalidate(studentId, RecommendationCache.REASON_STALE);
+        }
+        
+        RecommendationContext context = loadContext(studentId, null);
+        
+        // The primary strategy serves the request; sampled requests also run the shadow strategies
+        RecommendationStrategy primary = strategyRunner.getPrimary();
+        List<RecommendationCandidate> ranked = strategyRunner.runPrimary(primary, context);
+        List<ContentRecommendation> finalRecommendations = toRecommendations(ranked, primary.getVersion());
+        
+        // Upsert as the student's active set and read it back with IDs, in ranking order
+        recommendationWriter.upsertRecommendations(List.of(studentId), finalRecommendations);
+        List<ContentRecommendation> saved = loadActiveInRankOrder(studentId, finalRecommendations);
+        recommendationCache.put(studentId, saved, subjectAreasOf(context.getHistory(), saved));
+        return saved;
+    }
+    
+    /**
+     * Compute ranked recommendations for a student with the primary strategy, without saving them.
+     * Used by the batch precomputation, which reads candidates from the shared snapshot.
+     */
+    public List<ContentRecommendation> computeRecommendations(Long studentId, CatalogSnapshot snapshot) {
+        RecommendationContext context = loadContext(studentId, snapshot);
+        RecommendationStrategy primary = strategyRunner.getPrimary();
+        return toRecommendations(primary.recommend(context), primary.getVersion());
+    }
+    
+    @Override
+    public String getVersion() {
+        return ALGORITHM_VERSION;
+    }
+    
+    /**
+     * Hybrid five-stage pipeline. On-demand requests run the stages concurrently on the stage
+     * executor; batch runs execute them sequentially on the worker thread, since batch
+     * parallelism is across students.
+     */
+    @Override
+    public List<RecommendationCandidate> recommend(RecommendationContext context) {
+        Long studentId = context.getStudentId();
+        UserNeurodivergentProfile profile = context.getProfile();
+        List<StudentContentInteraction> history = context.getHistory();
+        ContentIdSet interacted = context.getInteracted();
+        CatalogSnapshot snapshot = context.getSnapshot();
+        
+        List<RecommendationCandidate> candidates = new ArrayList<>();
+        if (context.isBatch()) {
+            candidates.addAll(generateCollaborativeRecommendations(studentId, profile, history, interacted, snapshot));
+            candidates.addAll(generateContentBasedRecommendations(studentId, history, interacted, snapshot));
+            candidates.addAll(generatePatternBasedRecommendations(studentId, history, profile, interacted, snapshot));
+            candidates.addAll(generateAccessibilityBasedRecommendations(studentId, profile, interacted, snapshot));
+            candidates.addAll(generateTrendingRecommendations(studentId, profile, interacted, snapshot));
+            return rankCandidates(candidates);
+        }
         
-        List<ContentRecommendation> recommendations = new ArrayList<>();
+        // Run the five generator stages concurrently; each reads only immutable inputs
+        Map<String, Future<List<RecommendationCandidate>>> stages = new LinkedHashMap<>();
         
-        // 1. Profile-based recommendations (collaborative filtering)
-        recommendations.addAll(generateProfileBasedRecommendations(studentId, profile));
+        // 1. Item-to-item recommendations (collaborative filtering)
+        stages.put("collaborative", submitStage("collaborative",
+                () -> generateCollaborativeRecommendations(studentId, profile, history, interacted, null)));
         
         // 2. Content-based recommendations (similar content)
-        recommendations.addAll(generateContentBasedRecommendations(studentId, history));
+        stages.put("content", submitStage("content",
+                () -> generateContentBasedRecommendations(studentId, history, interacted, null)));
         
         // 3. Learning pattern recommendations
-        recommendations.addAll(generatePatternBasedRecommendations(studentId, history, profile));
+        stages.put("pattern", submitStage("pattern",
+                () -> generatePatternBasedRecommendations(studentId, history, profile, interacted, null)));
         
         // 4. Accessibility-focused recommendations
-        recommendations.addAll(generateAccessibilityBasedRecommendations(studentId, profile));
+        stages.put("accessibility", submitStage("accessibility",
+                () -> generateAccessibilityBasedRecommendations(studentId, profile, interacted, null)));
         
         // 5. Trending content recommendations
-        recommendations.addAll(generateTrendingRecommendations(studentId, profile));
+        stages.put("trending", submitStage("trending",
+                () -> generateTrendingRecommendations(studentId, profile, interacted, null)));
         
-        // Rank and filter recommendations
-        List<ContentRecommendation> finalRecommendations = rankAndFilterRecommendations(recommendations, profile);
+        candidates.addAll(collectStageResults(stages));
+        return rankCandidates(candidates);
+    }
+    
+    /**
+     * Capture the published catalog and trending candidates for a batch run
+     */
+    @Transactional(readOnly = true)
+    public CatalogSnapshot captureCatalogSnapshot() {
+        return new CatalogSnapshot(
+            contentRepository.findByStatusAndIsPublicTrue("published"),
+            trendingCounters.top(TrendingCounters.Window.DAY, TRENDING_CANDIDATES)
+        );
+    }
+    
+    /**
+     * Submit a generator stage to the stage executor, recording its latency.
+     * A saturated executor skips the stage rather than queueing the request behind it.
+     */
+    private Future<List<RecommendationCandidate>> submitStage(String name, Callable<List<RecommendationCandidate>> stage) {
+        try {
+            return stageExecutor.submit(() -> {
+                long start = System.nanoTime();
+                List<RecommendationCandidate> result = stage.call();
+                stageMetrics.recordCompleted(name, System.nanoTime() - start, result.size());
+                return result;
+            });
+        } catch (RejectedExecutionException e) {
+            stageMetrics.recordRejection(name);
+            logger.warn("Recommendation stage {} rejected; executor saturated", name);
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+    }
+    
+    /**
+     * Merge stage results, giving each stage until the shared deadline.
+     * Stages that time out or fail contribute nothing.
+     */
+    private List<RecommendationCandidate> collectStageResults(Map<String, Future<List<RecommendationCandidate>>> stages) {
+        List<RecommendationCandidate> candidates = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(stageTimeoutMillis);
+        
+        for (Map.Entry<String, Future<List<RecommendationCandidate>>> entry : stages.entrySet()) {
+            Future<List<RecommendationCandidate>> future = entry.getValue();
+            try {
+                long remaining = Math.max(0L, deadline - System.nanoTime());
+                candidates.addAll(future.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                stageMetrics.recordTimeout(entry.getKey());
+                logger.warn("Recommendation stage {} timed out after {} ms", entry.getKey(), stageTimeoutMillis);
+            } catch (ExecutionException e) {
+                stageMetrics.recordFailure(entry.getKey());
+                logger.error("Recommendation stage {} failed", entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                break;
+            }
+        }
         
-        // Save to database
-        return recommendationRepository.saveAll(finalRecommendations);
+        return candidates;
     }
     
     /**
-     * Generate recommendations based on similar user profiles (collaborative filtering)
+     * Generate collaborative filtering recommendations. Students with positive history get
+     * item-to-item neighbours of that history; students without it fall back to content that
+     * worked well for the nearest learning profiles.
      */
-    private List<ContentRecommendation> generateProfileBasedRecommendations(Long studentId, UserNeurodivergentProfile profile) {
-        List<ContentRecommendation> recommendations = new ArrayList<>();
-        
-        // Find similar users based on neurodivergent traits
-        List<UserNeurodivergentProfile> similarProfiles = findSimilarProfiles(profile);
-        
-        // Get content that worked well for similar users
-        for (UserNeurodivergentProfile similarProfile : similarProfiles.stream().limit(5).collect(Collectors.toList())) {
-            List<StudentContentInteraction> successfulInteractions = interactionRepository
-                    .findHelpfulContent(similarProfile.getUserId())
-                    .stream()
-                    .filter(interaction -> interaction.hadPositiveOutcome())
-                    .limit(3)
-                    .collect(Collectors.toList());
-            
-            for (StudentContentInteraction interaction : successfulInteractions) {
-                // Check if student hasn't already interacted with this content
-                if (!hasInteractedWith(studentId, interaction.getContent().getId())) {
-                    ContentRecommendation recommendation = createRecommendation(
-                        studentId,
-                        interaction.getContent(),
-                        "personalized",
-                        calculateCollaborativeScore(profile, similarProfile, interaction),
-                        "Content that worked well for users with similar learning profiles",
-                        List.of("collaborative_filtering", "similar_users", similarProfile.getId().toString())
-                    );
-                    recommendations.add(recommendation);
+    private List<RecommendationCandidate> generateCollaborativeRecommendations(Long studentId,
+                                                                            UserNeurodivergentProfile profile,
+                                                                            List<StudentContentInteraction> history,
+                                                                            ContentIdSet interacted,
+                                                                            CatalogSnapshot snapshot) {
+        // Seed with content the student had a positive outcome with
+        List<Long> seeds = history.stream()
+                .filter(StudentContentInteraction::hadPositiveOutcome)
+                .map(interaction -> interaction.getContent().getId())
+                .distinct()
+                .collect(Collectors.toList());
+        
+        if (seeds.isEmpty()) {
+            return generateProfileBasedRecommendations(studentId, profile, interacted, snapshot);
+        }
+        
+        List<RecommendationCandidate> recommendations = new ArrayList<>();
+        
+        // Content that students with the same positive items also found helpful
+        Map<Long, ItemCoOccurrenceModel.Neighbour> neighbours = new LinkedHashMap<>();
+        for (ItemCoOccurrenceModel.Neighbour neighbour : coOccurrenceModel.recommend(seeds, interacted, 20)) {
+            if (catalogIndex.isPublished(neighbour.getContentId()) && neighbours.size() < 5) {
+                neighbours.put(neighbour.getContentId(), neighbour);
+            }
+        }
+        
+        for (LearningContent content : loadContent(snapshot, new ArrayList<>(neighbours.keySet()))) {
+            ItemCoOccurrenceModel.Neighbour neighbour = neighbours.get(content.getId());
+            RecommendationCandidate recommendation = createCandidate(
+                studentId,
+                content,
+                "personalized",
+                RecommendationScoring.collaborative(neighbour.getSimilarity()),
+                "Learners who found the same content helpful also found this helpful",
+                List.of("collaborative_filtering", "item_item", "because_of:" + neighbour.getBecauseOf())
+            );
+            recommendations.add(recommendation);
+        }
+        
+        return recommendations;
+    }
+    
+    /**
+     * Generate recommendations from content that worked well for the nearest learning profiles
+     */
+    private List<RecommendationCandidate> generateProfileBasedRecommendations(Long studentId,
+                                                                           UserNeurodivergentProfile profile,
+                                                                           ContentIdSet interacted,
+                                                                           CatalogSnapshot snapshot) {
+        List<RecommendationCandidate> recommendations = new ArrayList<>();
+        
+        // Best profile similarity among the neighbours that liked each content item
+        Map<Long, ProfileSimilarityIndex.Match> bestMatchByContent = new LinkedHashMap<>();
+        for (ProfileSimilarityIndex.Match match : profileSimilarityIndex.nearest(profile, 5)) {
+            for (long contentId : coOccurrenceModel.positivesOf(match.getUserId())) {
+                if (!interacted.contains(contentId) && catalogIndex.isPublished(contentId)) {
+                    bestMatchByContent.putIfAbsent(contentId, match);
                 }
             }
         }
         
+        List<Long> contentIds = bestMatchByContent.keySet().stream().limit(5).collect(Collectors.toList());
+        for (LearningContent content : loadContent(snapshot, contentIds)) {
+            ProfileSimilarityIndex.Match match = bestMatchByContent.get(content.getId());
+            RecommendationCandidate recommendation = createCandidate(
+                studentId,
+                content,
+                "personalized",
+                RecommendationScoring.collaborative(match.getSimilarity()),
+                "Content that worked well for users with similar learning profiles",
+                List.of("collaborative_filtering", "similar_users", "profile_distance:" +
+                        String.format("%.2f", match.getDistance()))
+            );
+            recommendations.add(recommendation);
+        }
+        
         return recommendations;
     }
     
     /**
      * Generate recommendations based on content similarity to previously consumed content
      */
-    private List<ContentRecommendation> generateContentBasedRecommendations(Long studentId, List<StudentContentInteraction> history) {
-        List<ContentRecommendation> recommendations = new ArrayList<>();
+    private List<RecommendationCandidate> generateContentBasedRecommendations(Long studentId, List<StudentContentInteraction> history,
+                                                                           ContentIdSet interacted,
+                                                                           CatalogSnapshot snapshot) {
+        List<RecommendationCandidate> recommendations = new ArrayList<>();
         
         // Get content user liked/found helpful
         List<LearningContent> likedContent = history.stream()
@@ -123,10 +337,10 @@ public class ContentRecommendationEngine {
         
         for (LearningContent content : likedContent) {
             // Find similar content by subject, difficulty, and accessibility features
-            List<LearningContent> similarContent = findSimilarContent(content, studentId);
+            List<LearningContent> similarContent = findSimilarContent(content, interacted, snapshot);
             
             for (LearningContent similar : similarContent.stream().limit(2).collect(Collectors.toList())) {
-                ContentRecommendation recommendation = createRecommendation(
+                RecommendationCandidate recommendation = createCandidate(
                     studentId,
                     similar,
                     "similar_content",
@@ -144,10 +358,12 @@ public class ContentRecommendationEngine {
     /**
      * Generate recommendations based on learning patterns and optimal timing
      */
-    private List<ContentRecommendation> generatePatternBasedRecommendations(Long studentId, 
+    private List<RecommendationCandidate> generatePatternBasedRecommendations(Long studentId, 
                                                                            List<StudentContentInteraction> history,
-                                                                           UserNeurodivergentProfile profile) {
-        List<ContentRecommendation> recommendations = new ArrayList<>();
+                                                                           UserNeurodivergentProfile profile,
+                                                                           ContentIdSet interacted,
+                                                                           CatalogSnapshot snapshot) {
+        List<RecommendationCandidate> recommendations = new ArrayList<>();
         
         // Analyze when user is most successful
         Map<Integer, Double> hourlySuccess = calculateHourlySuccessRates(history);
@@ -157,17 +373,18 @@ public class ContentRecommendationEngine {
                 .orElse(10); // Default to 10 AM
         
         // Find content suitable for user's optimal learning time
-        List<LearningContent> timeAppropriateContent = contentRepository.findByStatusAndIsPublicTrue("published")
-                .stream()
-                .filter(content -> isAppropriateForTime(content, optimalHour, profile))
-                .filter(content -> !hasInteractedWith(studentId, content.getId()))
-                .limit(5)
-                .collect(Collectors.toList());
+        BitSet candidates = catalogIndex.published();
+        if (!isDaytimeHour(optimalHour)) {
+            candidates.and(catalogIndex.atDifficulty("beginner"));
+        }
+        candidates.andNot(catalogIndex.ordinalsOf(interacted));
+        List<LearningContent> timeAppropriateContent = loadContent(snapshot, 
+                catalogIndex.selectIds(candidates, null, 5));
         
         for (LearningContent content : timeAppropriateContent) {
-            BigDecimal patternScore = calculatePatternMatchScore(content, profile, hourlySuccess);
+            double patternScore = calculatePatternMatchScore(content, profile, hourlySuccess);
             
-            ContentRecommendation recommendation = createRecommendation(
+            RecommendationCandidate recommendation = createCandidate(
                 studentId,
                 content,
                 "optimal_timing",
@@ -185,38 +402,38 @@ public class ContentRecommendationEngine {
     /**
      * Generate recommendations focused on accessibility compatibility
      */
-    private List<ContentRecommendation> generateAccessibilityBasedRecommendations(Long studentId, UserNeurodivergentProfile profile) {
-        List<ContentRecommendation> recommendations = new ArrayList<>();
+    private List<RecommendationCandidate> generateAccessibilityBasedRecommendations(Long studentId, UserNeurodivergentProfile profile,
+                                                                                 ContentIdSet interacted,
+                                                                                 CatalogSnapshot snapshot) {
+        List<RecommendationCandidate> recommendations = new ArrayList<>();
         
         // Get content with high accessibility compatibility for user's needs
-        List<LearningContent> accessibleContent = new ArrayList<>();
+        BitSet candidates = new BitSet();
         
         // Dyslexia-friendly content
         if (profile.getHyperfocusIntensity() != null && profile.getHyperfocusIntensity() > 6) {
-            accessibleContent.addAll(contentRepository.findDyslexiaFriendlyContent(true));
+            candidates.or(catalogIndex.withFlag(ContentCatalogIndex.AccessibilityFlag.DYSLEXIA));
         }
         
         // ADHD-friendly content
         if (profile.needsExecutiveSupport()) {
-            accessibleContent.addAll(contentRepository.findADHDFriendlyContent(true));
+            candidates.or(catalogIndex.withFlag(ContentCatalogIndex.AccessibilityFlag.ADHD));
         }
         
         // Autism-friendly content
         if (profile.isSensoryProcessingHigh()) {
-            accessibleContent.addAll(contentRepository.findAutismFriendlyContent(true));
+            candidates.or(catalogIndex.withFlag(ContentCatalogIndex.AccessibilityFlag.AUTISM));
         }
         
         // Filter out already interacted content and limit results
-        accessibleContent = accessibleContent.stream()
-                .distinct()
-                .filter(content -> !hasInteractedWith(studentId, content.getId()))
-                .limit(8)
-                .collect(Collectors.toList());
+        candidates.andNot(catalogIndex.ordinalsOf(interacted));
+        List<LearningContent> accessibleContent = loadContent(snapshot, 
+                catalogIndex.selectIds(candidates, null, 8));
         
         for (LearningContent content : accessibleContent) {
-            BigDecimal accessibilityScore = calculateAccessibilityMatchScore(content, profile);
+            double accessibilityScore = calculateAccessibilityMatchScore(content, profile);
             
-            ContentRecommendation recommendation = createRecommendation(
+            RecommendationCandidate recommendation = createCandidate(
                 studentId,
                 content,
                 "accessibility_match",
@@ -233,23 +450,37 @@ public class ContentRecommendationEngine {
     /**
      * Generate recommendations for trending/popular content
      */
-    private List<ContentRecommendation> generateTrendingRecommendations(Long studentId, UserNeurodivergentProfile profile) {
-        List<ContentRecommendation> recommendations = new ArrayList<>();
+    private List<RecommendationCandidate> generateTrendingRecommendations(Long studentId, UserNeurodivergentProfile profile,
+                                                                       ContentIdSet interacted,
+                                                                       CatalogSnapshot snapshot) {
+        List<RecommendationCandidate> recommendations = new ArrayList<>();
+        
+        // Most interacted-with content over the last day, read from the maintained top-N
+        List<TrendingCounters.Trend> trends = trendingCandidates(snapshot);
+        if (trends.isEmpty()) {
+            return recommendations;
+        }
+        double topScore = trends.get(0).getScore();
+        
+        Map<Long, Double> scoreByContent = new LinkedHashMap<>();
+        for (TrendingCounters.Trend trend : trends) {
+            if (!interacted.contains(trend.getContentId()) && catalogIndex.isPublished(trend.getContentId())) {
+                scoreByContent.put(trend.getContentId(), trend.getScore());
+            }
+        }
         
-        // Get popular content that matches user's accessibility needs
-        List<LearningContent> trendingContent = contentRepository.findHighRatedContent(BigDecimal.valueOf(4.0))
+        // Keep highly rated content that matches user's accessibility needs
+        List<LearningContent> trendingContent = loadContent(snapshot, new ArrayList<>(scoreByContent.keySet()))
                 .stream()
-                .filter(content -> content.isPopular())
+                .filter(LearningContent::isHighlyRated)
                 .filter(content -> isAccessibleFor(content, profile))
-                .filter(content -> !hasInteractedWith(studentId, content.getId()))
                 .limit(3)
                 .collect(Collectors.toList());
         
         for (LearningContent content : trendingContent) {
-            BigDecimal trendingScore = BigDecimal.valueOf(0.75)
-                    .add(BigDecimal.valueOf(content.getViewCount() / 1000.0).min(BigDecimal.valueOf(0.2)));
+            double trendingScore = 0.75 + 0.2 * (scoreByContent.get(content.getId()) / topScore);
             
-            ContentRecommendation recommendation = createRecommendation(
+            RecommendationCandidate recommendation = createCandidate(
                 studentId,
                 content,
                 "trending",
@@ -264,67 +495,108 @@ public class ContentRecommendationEngine {
     }
     
     /**
-     * Rank recommendations by overall score and filter duplicates
+     * Rank candidates by overall score and filter duplicates, keeping the top candidates
      */
-    private List<ContentRecommendation> rankAndFilterRecommendations(List<ContentRecommendation> recommendations, 
-                                                                    UserNeurodivergentProfile profile) {
-        // Remove duplicates based on content ID
-        Map<Long, ContentRecommendation> uniqueRecommendations = new HashMap<>();
-        
-        for (ContentRecommendation rec : recommendations) {
-            Long contentId = rec.getContent().getId();
-            if (!uniqueRecommendations.containsKey(contentId) || 
-                rec.getConfidenceScore().compareTo(uniqueRecommendations.get(contentId).getConfidenceScore()) > 0) {
-                uniqueRecommendations.put(contentId, rec);
+    private List<RecommendationCandidate> rankCandidates(List<RecommendationCandidate> candidates) {
+        // Remove duplicates based on content ID, keeping the most confident candidate
+        Map<Long, RecommendationCandidate> uniqueCandidates = new LinkedHashMap<>();
+        for (RecommendationCandidate candidate : candidates) {
+            Long contentId = candidate.getContent().getId();
+            RecommendationCandidate existing = uniqueCandidates.get(contentId);
+            if (existing == null || candidate.getConfidence() > existing.getConfidence()) {
+                uniqueCandidates.put(contentId, candidate);
             }
         }
         
-        // Calculate final scores and rank
-        return uniqueRecommendations.values().stream()
-                .peek(this::calculateFinalScores)
-                .sorted((r1, r2) -> r2.calculateOverallScore().compareTo(r1.calculateOverallScore()))
-                .limit(15) // Top 15 recommendations
-                .collect(Collectors.toList());
+        // Calculate final scores and keep the top recommendations
+        List<RecommendationCandidate> unique = new ArrayList<>(uniqueCandidates.values());
+        TopKSelector top = new TopKSelector(MAX_RECOMMENDATIONS);
+        for (int i = 0; i < unique.size(); i++) {
+            top.offer(i, RecommendationScoring.scoreFinal(unique.get(i)));
+        }
+        
+        List<RecommendationCandidate> ranked = new ArrayList<>(top.size());
+        for (int index : top.drainDescending()) {
+            ranked.add(unique.get(index));
+        }
+        return ranked;
     }
     
     // Helper methods
     
-    private List<UserNeurodivergentProfile> findSimilarProfiles(UserNeurodivergentProfile profile) {
-        // This would implement profile similarity algorithm
-        // For now, return empty list - would integrate with profile service
-        return List.of();
+    /**
+     * Re-read cached recommendations with their content, in the cached order; inactive ones are left out
+     */
+    private List<ContentRecommendation> loadActiveInIdOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> rankById = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rankById.put(ids.get(i), i);
+        }
+        List<ContentRecommendation> active = recommendationRepository.findActiveWithContentByIdIn(ids);
+        active.sort(Comparator.comparingInt(r -> rankById.get(r.getId())));
+        return active;
     }
     
-    private boolean hasInteractedWith(Long studentId, Long contentId) {
-        return interactionRepository.findByStudentIdAndContentId(studentId, contentId).isPresent();
+    private List<ContentRecommendation> loadActiveInRankOrder(Long studentId, List<ContentRecommendation> ranked) {
+        Map<Long, Integer> rankByContent = new HashMap<>();
+        for (int i = 0; i < ranked.size(); i++) {
+            rankByContent.put(ranked.get(i).getContent().getId(), i);
+        }
+        List<ContentRecommendation> active = recommendationRepository.findActiveWithContent(studentId);
+        active.sort(Comparator.comparingInt(r -> rankByContent.getOrDefault(r.getContent().getId(), Integer.MAX_VALUE)));
+        return active;
     }
     
-    private BigDecimal calculateCollaborativeScore(UserNeurodivergentProfile profile, 
-                                                 UserNeurodivergentProfile similarProfile,
-                                                 StudentContentInteraction interaction) {
-        // Calculate similarity between profiles (0.5-1.0)
-        double profileSimilarity = 0.8; // Placeholder
+    private RecommendationContext loadContext(Long studentId, CatalogSnapshot snapshot) {
+        UserNeurodivergentProfile profile = profileService.getOrCreateProfile(studentId);
+        
+        // Content is fetched eagerly so stage and shadow threads never touch a lazy proxy of this session
+        List<StudentContentInteraction> history = interactionRepository.findByStudentIdWithContent(studentId);
         
-        // Factor in interaction success
-        double interactionSuccess = interaction.calculateOverallSuccess().doubleValue();
+        // Loaded once and shared by every stage instead of a lookup per candidate
+        ContentIdSet interacted = ContentIdSet.of(interactionRepository.findInteractedContentIds(studentId));
         
-        return BigDecimal.valueOf(profileSimilarity * 0.6 + interactionSuccess * 0.4)
-                .setScale(3, RoundingMode.HALF_UP);
+        return new RecommendationContext(studentId, profile, history, interacted, snapshot);
+    }
+    
+    private Set<String> subjectAreasOf(List<StudentContentInteraction> history, List<ContentRecommendation> recommendations) {
+        Set<String> subjects = new HashSet<>();
+        for (StudentContentInteraction interaction : history) {
+            subjects.add(interaction.getContent().getSubjectArea());
+        }
+        for (ContentRecommendation recommendation : recommendations) {
+            subjects.add(recommendation.getContent().getSubjectArea());
+        }
+        subjects.remove(null);
+        return subjects;
     }
     
-    private List<LearningContent> findSimilarContent(LearningContent content, Long studentId) {
+    private List<LearningContent> loadContent(CatalogSnapshot snapshot, List<Long> ids) {
+        // Batch runs resolve from the shared snapshot; on-demand requests load the current rows
+        return snapshot != null ? snapshot.load(ids) : catalogIndex.loadContent(ids);
+    }
+    
+    private List<TrendingCounters.Trend> trendingCandidates(CatalogSnapshot snapshot) {
+        return snapshot != null ? snapshot.trending() : trendingCounters.top(TrendingCounters.Window.DAY, TRENDING_CANDIDATES);
+    }
+    
+    private List<LearningContent> findSimilarContent(LearningContent content, ContentIdSet interacted,
+                                                     CatalogSnapshot snapshot) {
         // Find content with same subject area and similar accessibility features
-        return contentRepository.findBySubjectAreaAndStatusAndIsPublicTrue(
-                content.getSubjectArea(), "published")
-                .stream()
-                .filter(c -> !c.getId().equals(content.getId()))
-                .filter(c -> !hasInteractedWith(studentId, c.getId()))
-                .filter(c -> hasSimilarAccessibilityFeatures(content, c))
-                .limit(5)
-                .collect(Collectors.toList());
+        BitSet candidates = catalogIndex.inSubject(content.getSubjectArea());
+        candidates.and(catalogIndex.withSimilarAccessibility(content));
+        int self = catalogIndex.ordinalOf(content.getId());
+        if (self >= 0) {
+            candidates.clear(self);
+        }
+        candidates.andNot(catalogIndex.ordinalsOf(interacted));
+        return loadContent(snapshot, catalogIndex.selectIds(candidates, null, 5));
     }
     
-    private BigDecimal calculateContentSimilarityScore(LearningContent content1, LearningContent content2) {
+    private double calculateContentSimilarityScore(LearningContent content1, LearningContent content2) {
         double score = 0.5; // Base similarity
         
         // Same subject area
@@ -342,7 +614,7 @@ public class ContentRecommendationEngine {
             score += 0.15;
         }
         
-        return BigDecimal.valueOf(score).setScale(3, RoundingMode.HALF_UP);
+        return score;
     }
     
     private Map<Integer, Double> calculateHourlySuccessRates(List<StudentContentInteraction> history) {
@@ -354,15 +626,13 @@ public class ContentRecommendationEngine {
                 ));
     }
     
-    private boolean isAppropriateForTime(LearningContent content, int hour, UserNeurodivergentProfile profile) {
-        // Check if content difficulty matches user's energy levels at this time
-        if (hour < 9 || hour > 17) { // Early morning or evening
-            return "beginner".equals(content.getDifficultyLevel());
-        }
-        return true; // Daytime is good for any difficulty
+    private boolean isDaytimeHour(int hour) {
+        // Early morning or evening sessions are limited to beginner content;
+        // daytime is good for any difficulty
+        return hour >= 9 && hour <= 17;
     }
     
-    private BigDecimal calculatePatternMatchScore(LearningContent content, 
+    private double calculatePatternMatchScore(LearningContent content, 
                                                 UserNeurodivergentProfile profile,
                                                 Map<Integer, Double> hourlySuccess) {
         double score = 0.7; // Base score
@@ -377,10 +647,10 @@ public class ContentRecommendationEngine {
         double avgSuccess = hourlySuccess.values().stream().mapToDouble(Double::doubleValue).average().orElse(0.7);
         score = score * (0.8 + avgSuccess * 0.2);
         
-        return BigDecimal.valueOf(score).setScale(3, RoundingMode.HALF_UP);
+        return score;
     }
     
-    private BigDecimal calculateAccessibilityMatchScore(LearningContent content, UserNeurodivergentProfile profile) {
+    private double calculateAccessibilityMatchScore(LearningContent content, UserNeurodivergentProfile profile) {
         double score = 0.0;
         int matchCount = 0;
         int totalChecks = 0;
@@ -429,7 +699,7 @@ public class ContentRecommendationEngine {
             score = Math.max(score, 0.3); // Minimum score for any content
         }
         
-        return BigDecimal.valueOf(score).setScale(3, RoundingMode.HALF_UP);
+        return score;
     }
     
     private boolean isAccessibleFor(LearningContent content, UserNeurodivergentProfile profile) {
@@ -461,20 +731,36 @@ public class ContentRecommendationEngine {
         return matches >= 2; // At least 2 matching accessibility features
     }
     
-    private ContentRecommendation createRecommendation(Long studentId, LearningContent content, 
-                                                     String type, BigDecimal confidenceScore,
-                                                     String reasoning, List<String> factors) {
+    private RecommendationCandidate createCandidate(Long studentId, LearningContent content, 
+                                                    String type, double confidenceScore,
+                                                    String reasoning, List<String> factors) {
+        return new RecommendationCandidate(studentId, content, type, confidenceScore, reasoning, factors);
+    }
+    
+    private List<ContentRecommendation> toRecommendations(List<RecommendationCandidate> ranked, String algorithmVersion) {
+        List<ContentRecommendation> recommendations = new ArrayList<>(ranked.size());
+        for (RecommendationCandidate candidate : ranked) {
+            recommendations.add(toRecommendation(candidate, algorithmVersion));
+        }
+        return recommendations;
+    }
+    
+    private ContentRecommendation toRecommendation(RecommendationCandidate candidate, String algorithmVersion) {
         ContentRecommendation recommendation = new ContentRecommendation();
-        recommendation.setStudentId(studentId);
-        recommendation.setContent(content);
-        recommendation.setRecommendationType(type);
-        recommendation.setConfidenceScore(confidenceScore);
-        recommendation.setReasoning(reasoning);
+        recommendation.setStudentId(candidate.getStudentId());
+        recommendation.setContent(candidate.getContent());
+        recommendation.setRecommendationType(candidate.getType());
+        recommendation.setConfidenceScore(RecommendationScoring.toScore(candidate.getConfidence()));
+        recommendation.setRelevanceScore(RecommendationScoring.toScore(candidate.getRelevance()));
+        recommendation.setSuccessPredictionScore(RecommendationScoring.toScore(candidate.getSuccessPrediction()));
+        recommendation.setPriorityLevel(RecommendationScoring.priorityLevel(candidate.getConfidence()));
+        recommendation.setReasoning(candidate.getReasoning());
+        recommendation.setOptimalTiming(candidate.getOptimalTiming());
         recommendation.setRecommendationSource("hybrid_ml_engine");
-        recommendation.setAlgorithmVersion("2.0");
+        recommendation.setAlgorithmVersion(algorithmVersion);
         
         try {
-            recommendation.setMatchingFactors(objectMapper.writeValueAsString(factors));
+            recommendation.setMatchingFactors(objectMapper.writeValueAsString(candidate.getFactors()));
         } catch (JsonProcessingException e) {
             recommendation.setMatchingFactors("[]");
         }
@@ -484,31 +770,4 @@ public class ContentRecommendationEngine {
         
         return recommendation;
     }
-    
-    private void calculateFinalScores(ContentRecommendation recommendation) {
-        LearningContent content = recommendation.getContent();
-        
-        // Set relevance score based on content quality
-        BigDecimal relevanceScore = BigDecimal.valueOf(0.7);
-        if (content.getRatingAverage() != null) {
-            relevanceScore = content.getRatingAverage().divide(BigDecimal.valueOf(5), 3, RoundingMode.HALF_UP);
-        }
-        recommendation.setRelevanceScore(relevanceScore);
-        
-        // Set success prediction based on content effectiveness
-        BigDecimal successPrediction = BigDecimal.valueOf(0.75);
-        if (content.getSuccessRate() != null && content.getSuccessRate().compareTo(BigDecimal.ZERO) > 0) {
-            successPrediction = content.getSuccessRate().divide(BigDecimal.valueOf(100), 3, RoundingMode.HALF_UP);
-        }
-        recommendation.setSuccessPredictionScore(successPrediction);
-        
-        // Set priority based on confidence score
-        if (recommendation.getConfidenceScore().compareTo(BigDecimal.valueOf(0.85)) >= 0) {
-            recommendation.setPriorityLevel("high");
-        } else if (recommendation.getConfidenceScore().compareTo(BigDecimal.valueOf(0.65)) >= 0) {
-            recommendation.setPriorityLevel("medium");
-        } else {
-            recommendation.setPriorityLevel("low");
-        }
-    }
 }
@@ -0,0 +1,707 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.ContentSearchText;
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.repository.ContentSearchTextRepository;
+import com.thinkable.backend.repository.LearningContentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory inverted index over published content, ranked with BM25. The metadata field
+ * (title, topic tags and description, weighted in that order) and the body field (text
+ * extracted from the content file) are scored separately, each with its own length
+ * normalization. Body postings also keep term positions, used to pick highlighted snippets.
+ * Each indexed item gets a document number; postings are appended in document order so a
+ * query walks only the posting lists of its own terms, never the catalog. Re-indexed or
+ * removed items leave dead postings behind that are skipped at query time and compacted
+ * away once they make up a quarter of the index.
+ */
+@Service
+public class ContentSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double BODY_WEIGHT = 0.5;
+
+    /**
+     * Body terms beyond this position are not indexed
+     */
+    private static final int MAX_BODY_TERMS = 50000;
+
+    /**
+     * Terms the last, possibly unfinished, query token is expanded to, and their score weight
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 16;
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    private static final int MIN_COMPACTION_DEAD_DOCS = 1000;
+
+    private static final int SNIPPET_TERMS = 24;
+
+    /**
+     * Ranked page of search hits with their scores. totalHits counts every item that passed the filter,
+     * on any page; matchedIds holds every item matching the query before the filter, for faceting.
+     */
+    public static class SearchResult {
+        private final List<Long> contentIds;
+        private final double[] scores;
+        private final int totalHits;
+        private final long[] matchedIds;
+
+        public SearchResult(List<Long> contentIds, double[] scores, int totalHits, long[] matchedIds) {
+            this.contentIds = contentIds;
+            this.scores = scores;
+            this.totalHits = totalHits;
+            this.matchedIds = matchedIds;
+        }
+
+        public List<Long> getContentIds() { return contentIds; }
+        public double[] getScores() { return scores; }
+        public int getTotalHits() { return totalHits; }
+        public long[] getMatchedIds() { return matchedIds; }
+    }
+
+    /**
+     * Document numbers and term frequencies of one term, in increasing document order.
+     * Body lists also hold the term positions within each document.
+     */
+    private static final class PostingList {
+        final boolean body;
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int[][] positions;
+        int size;
+        int liveDocs;
+
+        PostingList(boolean body) {
+            this.body = body;
+            this.positions = body ? new int[4][] : null;
+        }
+
+        void add(int doc, int freq, int[] termPositions) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+                if (body) {
+                    positions = Arrays.copyOf(positions, size * 2);
+                }
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            if (body) {
+                positions[size] = termPositions;
+            }
+            size++;
+            liveDocs++;
+        }
+
+        int indexOf(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc);
+        }
+    }
+
+    /**
+     * Term frequencies of one document, with body term positions
+     */
+    private static final class DocTerms {
+        final Map<String, Integer> fields = new HashMap<>();
+        final Map<String, int[]> body = new HashMap<>();
+        int bodyLength;
+    }
+
+    @Autowired
+    private LearningContentRepository contentRepository;
+
+    @Autowired
+    private ContentSearchTextRepository searchTextRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final TreeMap<String, PostingList> bodyPostings = new TreeMap<>();
+    private final Map<Long, Integer> docsById = new HashMap<>();
+    private final BitSet liveDocs = new BitSet();
+    private long[] idsByDoc = new long[256];
+    private int[] lengthsByDoc = new int[256];
+    private int[] bodyLengthsByDoc = new int[256];
+    private String[][] termsByDoc = new String[256][];
+    private String[][] bodyTermsByDoc = new String[256][];
+    private int nextDoc = 0;
+    private int liveCount = 0;
+    private long liveLength = 0;
+    private int liveBodyCount = 0;
+    private long liveBodyLength = 0;
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build content search index", e);
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the published catalog and the stored extracted text
+     */
+    public void rebuild() {
+        List<LearningContent> catalog = contentRepository.findByStatusAndIsPublicTrue("published");
+        Map<Long, String> bodies = new HashMap<>();
+        for (ContentSearchText text : searchTextRepository.findAll()) {
+            bodies.put(text.getContentId(), text.getBodyText());
+        }
+
+        lock.writeLock().lock();
+        try {
+            clearLocked(Math.max(256, catalog.size()));
+            for (LearningContent content : catalog) {
+                indexLocked(content, analyzeDoc(content, bodies.get(content.getId())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Content search index built with {} items ({} with body text) and {} terms",
+                catalog.size(), liveBodyCount, postings.size() + bodyPostings.size());
+    }
+
+    /**
+     * Add or refresh a single content item, keeping its stored body text.
+     * Items that are not published and public are removed.
+     */
+    public void index(LearningContent content) {
+        if (content == null || content.getId() == null) {
+            return;
+        }
+        String body = searchTextRepository.findById(content.getId())
+                .map(ContentSearchText::getBodyText)
+                .orElse(null);
+        index(content, body);
+    }
+
+    /**
+     * Add or refresh a single content item with the given body text
+     */
+    public void index(LearningContent content, String body) {
+        if (content == null || content.getId() == null) {
+            return;
+        }
+        DocTerms terms = analyzeDoc(content, body);
+        lock.writeLock().lock();
+        try {
+            indexLocked(content, terms);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long contentId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsById.remove(contentId);
+            if (doc != null) {
+                retireLocked(doc);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Content IDs matching any query term and accepted by the filter (null for none), best BM25 score
+     * first with ties broken by ascending ID, up to {@code limit} items after the cursor (null for the
+     * first page). The last query token also matches indexed terms it is a prefix of, so partially
+     * typed words find results.
+     */
+    public SearchResult search(String query, LongPredicate filter, ContentCursor after, int limit) {
+        List<String> terms = queryTerms(query);
+        String prefix = SearchTextAnalyzer.trailingToken(query);
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            collectLists(postings, terms, prefix, 1.0, lists, weights);
+            collectLists(bodyPostings, terms, prefix, BODY_WEIGHT, lists, weights);
+            if (lists.isEmpty()) {
+                return new SearchResult(new ArrayList<>(), new double[0], 0, new long[0]);
+            }
+            return scoreLocked(lists, weights, filter, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Highlighted body text snippets for the given search hits, keyed by content ID. The snippet is
+     * the window of body text holding the most query term occurrences, found from the positional
+     * postings; only the stored text of the returned items is read. Query terms are wrapped in
+     * {@code <mark>} and the rest of the snippet is HTML-escaped. Items whose body does not match
+     * the query get no snippet.
+     */
+    public Map<Long, String> snippets(String query, List<Long> contentIds) {
+        List<String> terms = queryTerms(query);
+        String prefix = SearchTextAnalyzer.trailingToken(query);
+        Map<Long, int[]> windows = new HashMap<>();
+        Set<String> highlighted;
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            highlighted = new HashSet<>(collectLists(bodyPostings, terms, prefix, 1.0, lists, new ArrayList<>()));
+            for (Long contentId : contentIds) {
+                Integer doc = docsById.get(contentId);
+                if (doc != null) {
+                    int[] window = bestWindow(lists, doc);
+                    if (window != null) {
+                        windows.put(contentId, window);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, String> snippets = new HashMap<>();
+        if (windows.isEmpty()) {
+            return snippets;
+        }
+        for (ContentSearchText text : searchTextRepository.findAllById(windows.keySet())) {
+            int[] window = windows.get(text.getContentId());
+            snippets.put(text.getContentId(), cutSnippet(text.getBodyText(), window[0], window[1], highlighted));
+        }
+        return snippets;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper methods
+
+    private static List<String> queryTerms(String query) {
+        return new ArrayList<>(new LinkedHashSet<>(SearchTextAnalyzer.analyze(query)));
+    }
+
+    /**
+     * Add the posting lists of the exact query terms, then of up to MAX_PREFIX_EXPANSIONS terms the
+     * trailing token prefixes; returns the terms whose lists were added
+     */
+    private List<String> collectLists(TreeMap<String, PostingList> dictionary, List<String> terms, String prefix,
+                                      double fieldWeight, List<PostingList> lists, List<Double> weights) {
+        List<String> found = new ArrayList<>();
+        for (String term : terms) {
+            PostingList list = dictionary.get(term);
+            if (list != null && list.liveDocs > 0) {
+                lists.add(list);
+                weights.add(fieldWeight * idf(list));
+                found.add(term);
+            }
+        }
+        if (prefix.length() < 2) {
+            return found;
+        }
+        int expansions = 0;
+        for (Map.Entry<String, PostingList> entry : dictionary.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+            if (expansions >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            if (terms.contains(entry.getKey()) || entry.getValue().liveDocs == 0) {
+                continue;
+            }
+            lists.add(entry.getValue());
+            weights.add(fieldWeight * PREFIX_WEIGHT * idf(entry.getValue()));
+            found.add(entry.getKey());
+            expansions++;
+        }
+        return found;
+    }
+
+    /**
+     * Document-at-a-time merge of the posting lists: each step takes the lowest document number
+     * under any cursor and scores it across the lists positioned on it
+     */
+    private SearchResult scoreLocked(List<PostingList> lists, List<Double> weights, LongPredicate filter,
+                                     ContentCursor after, int limit) {
+        int n = lists.size();
+        int[] cursors = new int[n];
+        double averageLength = liveCount > 0 ? (double) liveLength / liveCount : 1.0;
+        double averageBodyLength = liveBodyCount > 0 ? (double) liveBodyLength / liveBodyCount : 1.0;
+        TopKSelector top = new TopKSelector(limit);
+        int totalHits = 0;
+        long[] matched = new long[16];
+        int matchedCount = 0;
+
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                PostingList list = lists.get(i);
+                if (cursors[i] < list.size && list.docs[cursors[i]] < doc) {
+                    doc = list.docs[cursors[i]];
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+
+            boolean live = liveDocs.get(doc);
+            if (live) {
+                if (matchedCount == matched.length) {
+                    matched = Arrays.copyOf(matched, matchedCount * 2);
+                }
+                matched[matchedCount++] = idsByDoc[doc];
+                live = filter == null || filter.test(idsByDoc[doc]);
+            }
+            double norm = K1 * (1 - B + B * lengthsByDoc[doc] / averageLength);
+            double bodyNorm = K1 * (1 - B + B * bodyLengthsByDoc[doc] / averageBodyLength);
+            double score = 0;
+            for (int i = 0; i < n; i++) {
+                PostingList list = lists.get(i);
+                if (cursors[i] < list.size && list.docs[cursors[i]] == doc) {
+                    if (live) {
+                        int freq = list.freqs[cursors[i]];
+                        score += weights.get(i) * freq * (K1 + 1) / (freq + (list.body ? bodyNorm : norm));
+                    }
+                    cursors[i]++;
+                }
+            }
+            if (live) {
+                totalHits++;
+                if (after == null || after.precedes(score, idsByDoc[doc])) {
+                    top.offer(doc, score, idsByDoc[doc]);
+                }
+            }
+        }
+
+        double[] scores = new double[top.size()];
+        int[] ranked = top.drainDescending(scores);
+        List<Long> ids = new ArrayList<>(ranked.length);
+        for (int doc : ranked) {
+            ids.add(idsByDoc[doc]);
+        }
+        return new SearchResult(ids, scores, totalHits, Arrays.copyOf(matched, matchedCount));
+    }
+
+    /**
+     * Term position range [first, last] of the SNIPPET_TERMS-wide window holding the most
+     * occurrences of the given body terms in the document, or null if none occur
+     */
+    private int[] bestWindow(List<PostingList> lists, int doc) {
+        int[] hits = new int[0];
+        for (PostingList list : lists) {
+            int index = list.indexOf(doc);
+            if (index >= 0) {
+                int[] termPositions = list.positions[index];
+                int offset = hits.length;
+                hits = Arrays.copyOf(hits, offset + termPositions.length);
+                System.arraycopy(termPositions, 0, hits, offset, termPositions.length);
+            }
+        }
+        if (hits.length == 0) {
+            return null;
+        }
+        Arrays.sort(hits);
+
+        int bestStart = 0;
+        int bestCount = 0;
+        int end = 0;
+        for (int start = 0; start < hits.length; start++) {
+            while (end < hits.length && hits[end] - hits[start] < SNIPPET_TERMS) {
+                end++;
+            }
+            if (end - start > bestCount) {
+                bestCount = end - start;
+                bestStart = start;
+            }
+        }
+        // Centre the window on the hits it covers
+        int first = hits[bestStart];
+        int last = hits[bestStart + bestCount - 1];
+        int slack = (SNIPPET_TERMS - (last - first + 1)) / 2;
+        first = Math.max(0, first - slack);
+        return new int[] {first, first + SNIPPET_TERMS - 1};
+    }
+
+    /**
+     * Cut the text between two term positions, re-analyzing only up to the last one
+     */
+    private static String cutSnippet(String text, int firstTerm, int lastTerm, Set<String> highlighted) {
+        List<int[]> marks = new ArrayList<>();
+        int[] range = {-1, -1};
+        int[] position = {0};
+        SearchTextAnalyzer.analyze(text, (term, start, end) -> {
+            int current = position[0]++;
+            if (current >= firstTerm) {
+                if (range[0] < 0) {
+                    range[0] = start;
+                }
+                range[1] = end;
+                if (highlighted.contains(term)) {
+                    marks.add(new int[] {start, end});
+                }
+            }
+            return current < lastTerm;
+        });
+        if (range[0] < 0) {
+            return "";
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (range[0] > 0) {
+            snippet.append("...");
+        }
+        int cursor = range[0];
+        for (int[] mark : marks) {
+            appendEscaped(snippet, text, cursor, mark[0]);
+            snippet.append("<mark>");
+            appendEscaped(snippet, text, mark[0], mark[1]);
+            snippet.append("</mark>");
+            cursor = mark[1];
+        }
+        appendEscaped(snippet, text, cursor, range[1]);
+        if (range[1] < text.length()) {
+            snippet.append("...");
+        }
+        return snippet.toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                default:
+                    out.append(Character.isWhitespace(c) ? ' ' : c);
+            }
+        }
+    }
+
+    private double idf(PostingList list) {
+        double df = list.liveDocs;
+        int documents = list.body ? liveBodyCount : liveCount;
+        return Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+    }
+
+    /**
+     * Tokenize a content item outside the lock; null if it should not be searchable
+     */
+    private static DocTerms analyzeDoc(LearningContent content, String body) {
+        if (!content.isPublished() || !Boolean.TRUE.equals(content.getIsPublic())) {
+            return null;
+        }
+        DocTerms terms = new DocTerms();
+        addField(terms.fields, content.getTitle(), TITLE_WEIGHT);
+        addField(terms.fields, content.getTopicTags(), TAG_WEIGHT);
+        addField(terms.fields, content.getDescription(), DESCRIPTION_WEIGHT);
+
+        Map<String, List<Integer>> positions = new HashMap<>();
+        SearchTextAnalyzer.analyze(body, (term, start, end) -> {
+            positions.computeIfAbsent(term, k -> new ArrayList<>()).add(terms.bodyLength++);
+            return terms.bodyLength < MAX_BODY_TERMS;
+        });
+        for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] termPositions = new int[list.size()];
+            for (int i = 0; i < termPositions.length; i++) {
+                termPositions[i] = list.get(i);
+            }
+            terms.body.put(entry.getKey(), termPositions);
+        }
+        return terms;
+    }
+
+    private void indexLocked(LearningContent content, DocTerms terms) {
+        Integer existing = docsById.remove(content.getId());
+        if (existing != null) {
+            retireLocked(existing);
+        }
+        if (terms == null) {
+            return;
+        }
+
+        int doc = nextDoc++;
+        if (doc >= idsByDoc.length) {
+            int capacity = idsByDoc.length * 2;
+            idsByDoc = Arrays.copyOf(idsByDoc, capacity);
+            lengthsByDoc = Arrays.copyOf(lengthsByDoc, capacity);
+            bodyLengthsByDoc = Arrays.copyOf(bodyLengthsByDoc, capacity);
+            termsByDoc = Arrays.copyOf(termsByDoc, capacity);
+            bodyTermsByDoc = Arrays.copyOf(bodyTermsByDoc, capacity);
+        }
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : terms.fields.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new PostingList(false)).add(doc, entry.getValue(), null);
+            length += entry.getValue();
+        }
+        for (Map.Entry<String, int[]> entry : terms.body.entrySet()) {
+            bodyPostings.computeIfAbsent(entry.getKey(), k -> new PostingList(true))
+                    .add(doc, entry.getValue().length, entry.getValue());
+        }
+
+        idsByDoc[doc] = content.getId();
+        lengthsByDoc[doc] = length;
+        bodyLengthsByDoc[doc] = terms.bodyLength;
+        termsByDoc[doc] = terms.fields.keySet().toArray(new String[0]);
+        bodyTermsByDoc[doc] = terms.body.keySet().toArray(new String[0]);
+        docsById.put(content.getId(), doc);
+        liveDocs.set(doc);
+        liveCount++;
+        liveLength += length;
+        if (terms.bodyLength > 0) {
+            liveBodyCount++;
+            liveBodyLength += terms.bodyLength;
+        }
+    }
+
+    /**
+     * Mark a document dead; its postings stay until compaction but no longer count towards statistics
+     */
+    private void retireLocked(int doc) {
+        if (!liveDocs.get(doc)) {
+            return;
+        }
+        liveDocs.clear(doc);
+        liveCount--;
+        liveLength -= lengthsByDoc[doc];
+        if (bodyLengthsByDoc[doc] > 0) {
+            liveBodyCount--;
+            liveBodyLength -= bodyLengthsByDoc[doc];
+        }
+        decrementLiveDocs(postings, termsByDoc[doc]);
+        decrementLiveDocs(bodyPostings, bodyTermsByDoc[doc]);
+    }
+
+    private static void decrementLiveDocs(Map<String, PostingList> dictionary, String[] terms) {
+        for (String term : terms) {
+            PostingList list = dictionary.get(term);
+            if (list != null) {
+                list.liveDocs--;
+            }
+        }
+    }
+
+    /**
+     * Renumber the live documents from zero in place once dead ones make up a quarter of the index.
+     * Live documents keep their relative order, so posting lists stay sorted.
+     */
+    private void compactIfNeeded() {
+        int dead = nextDoc - liveCount;
+        if (dead < MIN_COMPACTION_DEAD_DOCS || dead * 4 < nextDoc) {
+            return;
+        }
+
+        int[] remap = new int[nextDoc];
+        int next = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (!liveDocs.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            idsByDoc[next] = idsByDoc[doc];
+            lengthsByDoc[next] = lengthsByDoc[doc];
+            bodyLengthsByDoc[next] = bodyLengthsByDoc[doc];
+            termsByDoc[next] = termsByDoc[doc];
+            bodyTermsByDoc[next] = bodyTermsByDoc[doc];
+            next++;
+        }
+        Arrays.fill(termsByDoc, next, nextDoc, null);
+        Arrays.fill(bodyTermsByDoc, next, nextDoc, null);
+
+        compactPostings(postings, remap);
+        compactPostings(bodyPostings, remap);
+
+        docsById.clear();
+        for (int doc = 0; doc < next; doc++) {
+            docsById.put(idsByDoc[doc], doc);
+        }
+        liveDocs.clear();
+        liveDocs.set(0, next);
+        nextDoc = next;
+        logger.debug("Compacted content search index: dropped {} dead documents", dead);
+    }
+
+    private static void compactPostings(Map<String, PostingList> dictionary, int[] remap) {
+        Iterator<PostingList> lists = dictionary.values().iterator();
+        while (lists.hasNext()) {
+            PostingList list = lists.next();
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int doc = remap[list.docs[i]];
+                if (doc < 0) {
+                    continue;
+                }
+                list.docs[kept] = doc;
+                list.freqs[kept] = list.freqs[i];
+                if (list.body) {
+                    list.positions[kept] = list.positions[i];
+                }
+                kept++;
+            }
+            if (list.body) {
+                Arrays.fill(list.positions, kept, list.size, null);
+            }
+            list.size = kept;
+            if (kept == 0) {
+                lists.remove();
+            }
+        }
+    }
+
+    private void clearLocked(int capacity) {
+        postings.clear();
+        bodyPostings.clear();
+        docsById.clear();
+        liveDocs.clear();
+        idsByDoc = new long[capacity];
+        lengthsByDoc = new int[capacity];
+        bodyLengthsByDoc = new int[capacity];
+        termsByDoc = new String[capacity][];
+        bodyTermsByDoc = new String[capacity][];
+        nextDoc = 0;
+        liveCount = 0;
+        liveLength = 0;
+        liveBodyCount = 0;
+        liveBodyLength = 0;
+    }
+
+    private static void addField(Map<String, Integer> freqs, String text, int weight) {
+        for (String term : SearchTextAnalyzer.analyze(text)) {
+            freqs.merge(term, weight, Integer::sum);
+        }
+    }
+}
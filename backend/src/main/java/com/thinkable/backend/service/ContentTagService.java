@@ -0,0 +1,182 @@
+package com.thinkable.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkable.backend.entity.ContentTag;
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.entity.TagDictionaryEntry;
+import com.thinkable.backend.repository.ContentTagRepository;
+import com.thinkable.backend.repository.LearningContentRepository;
+import com.thinkable.backend.repository.TagDictionaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * Normalized topic tags and learning styles. The JSON columns on LearningContent stay the API
+ * representation; every write also mirrors them into tag_dictionary and content_tag, so filtering
+ * by a tag is an index lookup on content_tag instead of a LIKE inside JSON text. New dictionary
+ * entries are inserted in their own transactions, so two uploads introducing the same tag never
+ * roll each other back on the unique (kind, name) constraint.
+ */
+@Service
+public class ContentTagService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentTagService.class);
+
+    /**
+     * Tag filter value that matches no content, for names not in the dictionary
+     */
+    public static final long NO_MATCH = -1L;
+
+    @Autowired
+    private TagDictionaryRepository tagDictionaryRepository;
+
+    @Autowired
+    private ContentTagRepository contentTagRepository;
+
+    @Autowired
+    private LearningContentRepository contentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TransactionTemplate newTransaction;
+
+    /**
+     * Backfill the join table from the JSON columns when it is still empty, e.g. on a fresh H2
+     * database where the V17 migration has not run
+     */
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            if (contentTagRepository.count() > 0) {
+                return;
+            }
+            List<ContentTag> rows = new ArrayList<>();
+            for (LearningContent content : contentRepository.findAll()) {
+                rows.addAll(tagRows(content));
+            }
+            contentTagRepository.saveAll(rows);
+            if (!rows.isEmpty()) {
+                logger.info("Backfilled {} content tags from topic tag and learning style JSON", rows.size());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to backfill content tags", e);
+        }
+    }
+
+    /**
+     * Replace the content's tag rows with those of its current topicTags and learningStyles
+     */
+    @Transactional
+    public void syncTags(LearningContent content) {
+        contentTagRepository.deleteByContentId(content.getId());
+        contentTagRepository.saveAll(tagRows(content));
+    }
+
+    @Transactional
+    public void removeTags(Long contentId) {
+        contentTagRepository.deleteByContentId(contentId);
+    }
+
+    /**
+     * Dictionary ID of a tag, or {@link #NO_MATCH} if no content has ever used it
+     */
+    public long findTagId(String kind, String name) {
+        return tagDictionaryRepository.findByKindAndName(kind, normalize(name))
+                .map(TagDictionaryEntry::getId)
+                .orElse(NO_MATCH);
+    }
+
+    /**
+     * IDs of all content carrying the tag
+     */
+    public List<Long> findContentIds(long tagId) {
+        return tagId == NO_MATCH ? new ArrayList<>() : contentTagRepository.findContentIdsByTagId(tagId);
+    }
+
+    // Helper methods
+
+    private List<ContentTag> tagRows(LearningContent content) {
+        List<ContentTag> rows = new ArrayList<>();
+        for (Long tagId : resolve(TagDictionaryEntry.KIND_TOPIC, parseNames(content.getTopicTags()))) {
+            rows.add(new ContentTag(content.getId(), tagId));
+        }
+        for (Long tagId : resolve(TagDictionaryEntry.KIND_LEARNING_STYLE, parseNames(content.getLearningStyles()))) {
+            rows.add(new ContentTag(content.getId(), tagId));
+        }
+        return rows;
+    }
+
+    /**
+     * Dictionary IDs of the names, creating entries for names seen for the first time
+     */
+    private List<Long> resolve(String kind, Set<String> names) {
+        List<Long> ids = new ArrayList<>(names.size());
+        if (names.isEmpty()) {
+            return ids;
+        }
+        Set<String> missing = new LinkedHashSet<>(names);
+        for (TagDictionaryEntry entry : tagDictionaryRepository.findByKindAndNameIn(kind, names)) {
+            ids.add(entry.getId());
+            missing.remove(entry.getName());
+        }
+        for (String name : missing) {
+            ids.add(createEntry(kind, name));
+        }
+        return ids;
+    }
+
+    /**
+     * Insert a dictionary entry in a transaction of its own; if a concurrent upload inserted the
+     * same name first, only that insert fails and the other upload's entry is read back instead
+     */
+    private Long createEntry(String kind, String name) {
+        try {
+            return newTransaction.execute(status ->
+                    tagDictionaryRepository.saveAndFlush(new TagDictionaryEntry(null, kind, name)).getId());
+        } catch (DataIntegrityViolationException e) {
+            return newTransaction.execute(status -> tagDictionaryRepository.findByKindAndName(kind, name)
+                    .map(TagDictionaryEntry::getId)
+                    .orElseThrow(() -> e));
+        }
+    }
+
+    /**
+     * Distinct normalized names of a JSON array column; malformed JSON yields no names
+     */
+    private Set<String> parseNames(String json) {
+        Set<String> names = new LinkedHashSet<>();
+        if (json == null || json.trim().isEmpty()) {
+            return names;
+        }
+        try {
+            for (Object value : objectMapper.readValue(json, List.class)) {
+                String name = value != null ? normalize(value.toString()) : "";
+                if (!name.isEmpty() && name.length() <= 100) {
+                    names.add(name);
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Ignoring malformed tag JSON: {}", json);
+        }
+        return names;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,149 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.ContentSearchText;
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.repository.ContentSearchTextRepository;
+import com.thinkable.backend.repository.LearningContentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Extracts the body text of PDF and TXT content once, when it is published, stores it and adds it
+ * to the search index. Extraction runs in the background after the publishing transaction commits,
+ * so publishing never waits on a file download. Extractions dropped by a full queue or lost in a
+ * restart are picked up by a periodic sweep over published content with no stored text.
+ */
+@Service
+public class ContentTextIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentTextIndexer.class);
+
+    @Autowired
+    private TextExtractionService textExtractionService;
+
+    @Autowired
+    private ContentSearchTextRepository searchTextRepository;
+
+    @Autowired
+    private LearningContentRepository contentRepository;
+
+    @Autowired
+    private ContentSearchIndex searchIndex;
+
+    @Autowired
+    @Qualifier("contentTextExtractionExecutor")
+    private ThreadPoolExecutor extractionExecutor;
+
+    @Value("${search.extraction.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    /**
+     * Content whose file yielded no text or failed to extract, so sweeps do not retry it until restart
+     */
+    private final Set<Long> unindexable = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Schedule body text extraction for published content that has none stored yet
+     */
+    public void indexBodyAsync(LearningContent content) {
+        if (content == null || content.getId() == null || !content.isPublished()) {
+            return;
+        }
+        Long contentId = content.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    extractionExecutor.execute(() -> indexBody(contentId));
+                }
+            });
+        } else {
+            extractionExecutor.execute(() -> indexBody(contentId));
+        }
+    }
+
+    /**
+     * Extract, store and index the body text of one content item
+     */
+    public void indexBody(Long contentId) {
+        try {
+            if (searchTextRepository.existsById(contentId)) {
+                return;
+            }
+            LearningContent content = contentRepository.findById(contentId).orElse(null);
+            if (content == null || !content.isPublished()) {
+                return;
+            }
+            String text = textExtractionService.extractIndexableText(content);
+            if (text == null) {
+                unindexable.add(contentId);
+                logger.debug("No indexable text in content {} ({})", contentId, content.getFileName());
+                return;
+            }
+            searchTextRepository.save(new ContentSearchText(contentId, text, LocalDateTime.now()));
+            searchIndex.index(content, text);
+            logger.info("Indexed {} characters of body text for content {}", text.length(), contentId);
+        } catch (Exception e) {
+            unindexable.add(contentId);
+            logger.warn("Failed to index body text of content {}: {}", contentId, e.getMessage());
+        }
+    }
+
+    /**
+     * Queue extraction for published PDF and TXT content that has no stored text yet, as far as
+     * the extraction queue has room; whatever does not fit waits for the next sweep
+     */
+    @Scheduled(fixedDelayString = "${search.extraction.sweep-ms:600000}",
+            initialDelayString = "${search.extraction.sweep-initial-delay-ms:60000}")
+    public void sweepUnindexed() {
+        try {
+            int queued = 0;
+            long afterId = 0L;
+            while (extractionExecutor.getQueue().remainingCapacity() > 0) {
+                List<Long> ids = contentRepository.findPublishedIdsWithoutSearchText(afterId, PageRequest.of(0, sweepBatchSize));
+                for (Long contentId : ids) {
+                    if (extractionExecutor.getQueue().remainingCapacity() == 0) {
+                        break;
+                    }
+                    if (!unindexable.contains(contentId)) {
+                        extractionExecutor.execute(() -> indexBody(contentId));
+                        queued++;
+                    }
+                    afterId = contentId;
+                }
+                if (ids.size() < sweepBatchSize) {
+                    break;
+                }
+            }
+            if (queued > 0) {
+                logger.info("Queued body text extraction for {} unindexed content items", queued);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to sweep unindexed content", e);
+        }
+    }
+
+    /**
+     * Drop the stored body text of deleted content
+     */
+    public void remove(Long contentId) {
+        unindexable.remove(contentId);
+        if (searchTextRepository.existsById(contentId)) {
+            searchTextRepository.deleteById(contentId);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.thinkable.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.repository.LearningContentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * Prefix suggestions over published titles, subject areas and topic tags, weighted by popularity.
+ * Suggestions live in an immutable snapshot: keys sorted in one array so a prefix is a binary-searched
+ * range, plus a max segment tree over the weights so the best K entries of that range are found
+ * without scanning it. Every word of a title starts a key, so "frac" also suggests "Intro to Fractions".
+ * A background job rebuilds the snapshot when the catalog index changes and swaps it in atomically.
+ */
+@Service
+public class ContentTypeaheadIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentTypeaheadIndex.class);
+
+    /**
+     * Title words after this many do not start a suggestion key
+     */
+    private static final int MAX_TITLE_WORDS = 8;
+
+    public enum SuggestionType {
+        TITLE, SUBJECT, TAG
+    }
+
+    public static class Suggestion {
+        private final String text;
+        private final SuggestionType type;
+        private final Long contentId;
+
+        public Suggestion(String text, SuggestionType type, Long contentId) {
+            this.text = text;
+            this.type = type;
+            this.contentId = contentId;
+        }
+
+        public String getText() { return text; }
+        public SuggestionType getType() { return type; }
+        public Long getContentId() { return contentId; }
+    }
+
+    /**
+     * Sorted keys with parallel suggestion arrays and the weight tree; never modified once built
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new byte[0], new long[0], new double[0]);
+
+        final String[] keys;
+        final String[] texts;
+        final byte[] types;
+        final long[] contentIds;
+        final double[] weights;
+        final int[] maxTree;
+
+        Snapshot(String[] keys, String[] texts, byte[] types, long[] contentIds, double[] weights) {
+            this.keys = keys;
+            this.texts = texts;
+            this.types = types;
+            this.contentIds = contentIds;
+            this.weights = weights;
+            int n = keys.length;
+            this.maxTree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                maxTree[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                maxTree[i] = better(maxTree[2 * i], maxTree[2 * i + 1]);
+            }
+        }
+
+        /**
+         * Index of the heaviest entry in [from, to)
+         */
+        int argMax(int from, int to) {
+            int n = keys.length;
+            int best = from;
+            for (int lo = from + n, hi = to + n; lo < hi; lo >>= 1, hi >>= 1) {
+                if ((lo & 1) == 1) {
+                    best = better(best, maxTree[lo++]);
+                }
+                if ((hi & 1) == 1) {
+                    best = better(best, maxTree[--hi]);
+                }
+            }
+            return best;
+        }
+
+        int better(int a, int b) {
+            if (weights[a] != weights[b]) {
+                return weights[a] > weights[b] ? a : b;
+            }
+            return a < b ? a : b;
+        }
+
+        /**
+         * First key not less than the prefix
+         */
+        int lowerBound(String prefix) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * First key past the range starting with the prefix
+         */
+        int upperBound(String prefix) {
+            return lowerBound(prefix + Character.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Mutable entry used while building a snapshot
+     */
+    private static final class Entry {
+        final String key;
+        final String text;
+        final SuggestionType type;
+        final long contentId;
+        double weight;
+
+        Entry(String key, String text, SuggestionType type, long contentId, double weight) {
+            this.key = key;
+            this.text = text;
+            this.type = type;
+            this.contentId = contentId;
+            this.weight = weight;
+        }
+    }
+
+    @Autowired
+    private LearningContentRepository contentRepository;
+
+    @Autowired
+    private ContentCatalogIndex catalogIndex;
+
+    @Value("${search.typeahead.max-age-ms:600000}")
+    private long maxAgeMs;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long builtVersion = -1;
+    private volatile long builtAt = 0;
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build content typeahead index", e);
+        }
+    }
+
+    /**
+     * Rebuild when the catalog changed since the last build, or when popularity weights are older than max-age-ms
+     */
+    @Scheduled(fixedDelayString = "${search.typeahead.refresh-ms:30000}", initialDelayString = "${search.typeahead.refresh-ms:30000}")
+    public void refreshIfChanged() {
+        try {
+            if (catalogIndex.version() != builtVersion || System.currentTimeMillis() - builtAt > maxAgeMs) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to refresh content typeahead index", e);
+        }
+    }
+
+    /**
+     * Build a new snapshot from the published catalog and swap it in
+     */
+    public void rebuild() {
+        long version = catalogIndex.version();
+        long started = System.currentTimeMillis();
+        List<LearningContent> catalog = contentRepository.findByStatusAndIsPublicTrue("published");
+
+        List<Entry> entries = new ArrayList<>();
+        Map<String, Entry> subjects = new HashMap<>();
+        Map<String, Entry> tags = new HashMap<>();
+        for (LearningContent content : catalog) {
+            double popularity = popularity(content);
+            if (content.getTitle() != null && !content.getTitle().trim().isEmpty()) {
+                String title = content.getTitle().trim();
+                String key = normalize(title);
+                int words = 0;
+                for (int start = 0; start < key.length() && words < MAX_TITLE_WORDS; words++) {
+                    entries.add(new Entry(key.substring(start), title, SuggestionType.TITLE, content.getId(), popularity));
+                    int space = key.indexOf(' ', start);
+                    if (space < 0) {
+                        break;
+                    }
+                    start = space + 1;
+                }
+            }
+            if (content.getSubjectArea() != null) {
+                addWeight(subjects, content.getSubjectArea(), SuggestionType.SUBJECT, popularity);
+            }
+            for (String tag : parseTags(content.getTopicTags())) {
+                addWeight(tags, tag, SuggestionType.TAG, popularity);
+            }
+        }
+        entries.addAll(subjects.values());
+        entries.addAll(tags.values());
+        entries.removeIf(entry -> entry.key.isEmpty());
+        entries.sort(Comparator.comparing(entry -> entry.key));
+
+        int n = entries.size();
+        String[] keys = new String[n];
+        String[] texts = new String[n];
+        byte[] types = new byte[n];
+        long[] contentIds = new long[n];
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            Entry entry = entries.get(i);
+            keys[i] = entry.key;
+            texts[i] = entry.text;
+            types[i] = (byte) entry.type.ordinal();
+            contentIds[i] = entry.contentId;
+            weights[i] = entry.weight;
+        }
+
+        snapshot = new Snapshot(keys, texts, types, contentIds, weights);
+        builtVersion = version;
+        builtAt = System.currentTimeMillis();
+        logger.info("Content typeahead index built with {} keys from {} items in {} ms",
+                n, catalog.size(), builtAt - started);
+    }
+
+    /**
+     * Up to {@code limit} distinct suggestions whose key starts with the prefix, most popular first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        String key = normalize(prefix);
+        Snapshot current = snapshot;
+        if (key.isEmpty() || limit <= 0) {
+            return suggestions;
+        }
+        int from = current.lowerBound(key);
+        int to = current.upperBound(key);
+        if (from >= to) {
+            return suggestions;
+        }
+
+        // Best-first over sub-ranges: pop the range whose maximum is heaviest, emit it, split around it
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> Double.compare(current.weights[b[2]], current.weights[a[2]]));
+        ranges.add(new int[] {from, to, current.argMax(from, to)});
+        Set<String> seen = new HashSet<>();
+        SuggestionType[] typeValues = SuggestionType.values();
+        while (!ranges.isEmpty() && suggestions.size() < limit) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            SuggestionType type = typeValues[current.types[best]];
+            if (seen.add(type + ":" + current.texts[best].toLowerCase())) {
+                suggestions.add(new Suggestion(current.texts[best], type,
+                        type == SuggestionType.TITLE ? current.contentIds[best] : null));
+            }
+            if (range[0] < best) {
+                ranges.add(new int[] {range[0], best, current.argMax(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[] {best + 1, range[1], current.argMax(best + 1, range[1])});
+            }
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return snapshot.keys.length;
+    }
+
+    // Helper methods
+
+    private static void addWeight(Map<String, Entry> entries, String value, SuggestionType type, double weight) {
+        String key = normalize(value);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entries.put(key, new Entry(key, value.trim(), type, 0L, weight));
+        } else {
+            entry.weight += weight;
+        }
+    }
+
+    /**
+     * Views and ratings on a log scale, so a few very popular items do not drown everything else
+     */
+    private static double popularity(LearningContent content) {
+        int views = content.getViewCount() != null ? content.getViewCount() : 0;
+        int ratings = content.getRatingCount() != null ? content.getRatingCount() : 0;
+        return 1.0 + Math.log1p(views) + 2.0 * Math.log1p(ratings);
+    }
+
+    private List<String> parseTags(String topicTags) {
+        if (topicTags == null || topicTags.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            List<?> values = objectMapper.readValue(topicTags, List.class);
+            List<String> tags = new ArrayList<>(values.size());
+            for (Object value : values) {
+                if (value != null && !value.toString().trim().isEmpty()) {
+                    tags.add(value.toString());
+                }
+            }
+            return tags;
+        } catch (Exception e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Lowercase, with every run of non-alphanumeric characters collapsed to a single space
+     */
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,529 @@
+package com.thinkable.backend.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkable.backend.repository.InteractionIdempotencyKeyRepository;
+import com.thinkable.backend.service.TutorContentService.InteractionRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local log of student content interactions.
+ * The interact endpoint only appends one JSON line to the current segment file and returns;
+ * a consumer on its own thread reads new lines in batches and materializes them (interaction rows,
+ * counters, study sessions) through {@link TutorContentService#recordInteractionBatch} on a thread pool.
+ * Events of one student always go to the same lane, so they are applied in the order they arrived.
+ * <p>
+ * Segments roll at a fixed size and are deleted once consumed. The consumer position is checkpointed
+ * after each batch, so delivery is at-least-once: a crash between applying a batch and checkpointing
+ * replays that batch, and the events' idempotency keys keep the replay from being applied twice.
+ * Only unreadable lines and events rejected as invalid are skipped; any other failure, such as the
+ * database being down, leaves the position where it is and the batch is retried with a growing backoff.
+ * Appends reach the OS page cache at once and are forced to disk on every poll.
+ */
+@Service
+public class InteractionEventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(InteractionEventLog.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String POSITION_FILE = "consumer.position";
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * Longest accepted idempotency key
+     */
+    public static final int MAX_KEY_LENGTH = 64;
+
+    /**
+     * One logged interaction. Every event carries an idempotency key (the client's, or a generated
+     * one) so that replaying a batch after a crash does not apply it twice.
+     */
+    public static class InteractionEvent {
+        private Long studentId;
+        private Long contentId;
+        private String idempotencyKey;
+        private long recordedAt;
+        private InteractionRequest request;
+
+        public InteractionEvent() {
+        }
+
+        public InteractionEvent(Long studentId, Long contentId, String idempotencyKey, InteractionRequest request) {
+            this.studentId = studentId;
+            this.contentId = contentId;
+            this.idempotencyKey = idempotencyKey;
+            this.request = request;
+        }
+
+        public Long getStudentId() { return studentId; }
+        public void setStudentId(Long studentId) { this.studentId = studentId; }
+        public Long getContentId() { return contentId; }
+        public void setContentId(Long contentId) { this.contentId = contentId; }
+        public String getIdempotencyKey() { return idempotencyKey; }
+        public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+        public long getRecordedAt() { return recordedAt; }
+        public void setRecordedAt(long recordedAt) { this.recordedAt = recordedAt; }
+        public InteractionRequest getRequest() { return request; }
+        public void setRequest(InteractionRequest request) { this.request = request; }
+    }
+
+    @Autowired
+    private TutorContentService contentService;
+
+    @Autowired
+    @Qualifier("interactionMaterializerExecutor")
+    private ThreadPoolExecutor materializerExecutor;
+
+    @Autowired
+    @Qualifier("interactionConsumerExecutor")
+    private ScheduledExecutorService consumerExecutor;
+
+    @Value("${content.events.poll-ms:200}")
+    private long pollMillis;
+
+    @Value("${content.events.max-batches-per-poll:10}")
+    private int maxBatchesPerPoll;
+
+    @Value("${content.events.max-retry-backoff-ms:30000}")
+    private long maxRetryBackoffMillis;
+
+    @Value("${content.events.dir:data/interaction-log}")
+    private String directory;
+
+    @Value("${content.events.segment-bytes:16777216}")
+    private long segmentBytes;
+
+    @Value("${content.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${content.events.threads:4}")
+    private int lanes;
+
+    @Value("${content.events.key-retention-days:7}")
+    private int keyRetentionDays;
+
+    @Autowired
+    private InteractionIdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private Path logDirectory;
+
+    // Writer state, guarded by this
+    private FileChannel writer;
+    private volatile long writerSegment;
+
+    // Consumer state, only changed inside drain(int)
+    private volatile long readSegment;
+    private volatile long readPosition;
+    private final Object drainLock = new Object();
+
+    // Retry state after a failed batch, only used on the consumer thread
+    private long retryBackoffMillis;
+    private long retryAt;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder materialized = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    public void init() throws IOException {
+        logDirectory = Paths.get(directory);
+        Files.createDirectories(logDirectory);
+        List<Long> segments = listSegments();
+        writerSegment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        writer = openForAppend(writerSegment);
+        truncateTornRecord(writer);
+
+        long[] position = loadPosition();
+        if (position != null && Files.exists(segmentPath(position[0]))) {
+            readSegment = position[0];
+            readPosition = position[1];
+        } else {
+            readSegment = segments.isEmpty() ? writerSegment : segments.get(0);
+            readPosition = 0;
+        }
+        logger.info("Interaction event log opened in {} at segment {} (consumer at {}:{})",
+                logDirectory.toAbsolutePath(), writerSegment, readSegment, readPosition);
+
+        consumerExecutor.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Append an interaction to the log; it is materialized asynchronously
+     */
+    public void append(Long studentId, Long contentId, InteractionRequest request) throws IOException {
+        appendAll(Collections.singletonList(new InteractionEvent(studentId, contentId, null, request)));
+    }
+
+    /**
+     * Append a batch of interactions with a single write, so none of them is applied without the others
+     * having been logged. Events without an idempotency key get a generated one.
+     */
+    public void appendAll(List<InteractionEvent> events) throws IOException {
+        long now = System.currentTimeMillis();
+        StringBuilder lines = new StringBuilder();
+        for (InteractionEvent event : events) {
+            if (event.getIdempotencyKey() == null || event.getIdempotencyKey().trim().isEmpty()) {
+                event.setIdempotencyKey(UUID.randomUUID().toString());
+            } else if (event.getIdempotencyKey().length() > MAX_KEY_LENGTH) {
+                throw new IllegalArgumentException("Idempotency key longer than " + MAX_KEY_LENGTH + " characters");
+            }
+            event.setRecordedAt(now);
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+        byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > READ_BUFFER_BYTES) {
+            throw new IllegalArgumentException("Interaction events too large");
+        }
+        synchronized (this) {
+            if (writer.size() > 0 && writer.size() + bytes.length > segmentBytes) {
+                roll();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                writer.write(buffer);
+            }
+        }
+        appended.add(events.size());
+    }
+
+    /**
+     * One consumer tick on the dedicated consumer thread: force appended events to disk, then
+     * materialize at most max-batches-per-poll batches so each tick is bounded under steady traffic.
+     * While backing off after a failed batch, ticks only force.
+     */
+    void poll() {
+        drain(System.currentTimeMillis() < retryAt ? 0 : maxBatchesPerPoll);
+    }
+
+    /**
+     * Force appended events to disk, then materialize up to maxBatches batches; returns the events read
+     */
+    public int drain(int maxBatches) {
+        int drained = 0;
+        try {
+            synchronized (this) {
+                writer.force(false);
+            }
+            synchronized (drainLock) {
+                for (int i = 0; i < maxBatches; i++) {
+                    int read = drainBatch();
+                    if (read == 0) {
+                        break;
+                    }
+                    drained += read;
+                    retryBackoffMillis = 0;
+                }
+            }
+        } catch (Exception e) {
+            retryBackoffMillis = retryBackoffMillis == 0 ? pollMillis : Math.min(retryBackoffMillis * 2, maxRetryBackoffMillis);
+            retryAt = System.currentTimeMillis() + retryBackoffMillis;
+            logger.error("Failed to drain interaction event log at {}:{}, retrying in {} ms",
+                    readSegment, readPosition, retryBackoffMillis, e);
+        }
+        return drained;
+    }
+
+    /**
+     * Drop idempotency keys older than the retention period; replays and client retries happen long before
+     */
+    @Scheduled(cron = "${content.events.key-purge-cron:0 15 4 * * *}")
+    public void purgeIdempotencyKeys() {
+        try {
+            int purged = idempotencyKeyRepository.deleteRecordedBefore(LocalDateTime.now().minusDays(keyRetentionDays));
+            logger.info("Purged {} interaction idempotency keys older than {} days", purged, keyRetentionDays);
+        } catch (Exception e) {
+            logger.error("Failed to purge interaction idempotency keys", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Appends have stopped; catch the log up before the materializer pool goes away
+        consumerExecutor.shutdown();
+        drain(Integer.MAX_VALUE);
+        synchronized (this) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close interaction event log", e);
+            }
+        }
+    }
+
+    /**
+     * Appended, materialized and failed event counts plus the consumer's lag in bytes. Failed events
+     * include unreadable lines and interactions dropped for unknown content.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("appended", appended.sum());
+        snapshot.put("materialized", materialized.sum());
+        snapshot.put("failed", failed.sum());
+        snapshot.put("lagBytes", lagBytes());
+        snapshot.put("writerSegment", writerSegment);
+        snapshot.put("readSegment", readSegment);
+        return snapshot;
+    }
+
+    // Helper methods
+
+    /**
+     * Read and apply up to batch-size complete lines from the consumer position; returns the number read
+     */
+    private int drainBatch() throws Exception {
+        List<String> lines = new ArrayList<>();
+        long nextPosition = readPosition;
+        try (FileChannel reader = FileChannel.open(segmentPath(readSegment), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            reader.position(readPosition);
+            int read = reader.read(buffer);
+            if (read > 0) {
+                byte[] bytes = buffer.array();
+                int lineStart = 0;
+                for (int i = 0; i < read && lines.size() < batchSize; i++) {
+                    if (bytes[i] == '\n') {
+                        lines.add(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                        lineStart = i + 1;
+                    }
+                }
+                nextPosition = readPosition + lineStart;
+            }
+        }
+
+        if (lines.isEmpty()) {
+            // Nothing complete left here; move past a finished segment
+            boolean finished;
+            synchronized (this) {
+                finished = readSegment < writerSegment;
+            }
+            if (finished && nextPosition >= Files.size(segmentPath(readSegment))) {
+                Files.deleteIfExists(segmentPath(readSegment));
+                readSegment++;
+                readPosition = 0;
+                writePosition();
+                return 1;
+            }
+            return 0;
+        }
+
+        materialize(lines);
+        readPosition = nextPosition;
+        writePosition();
+        return lines.size();
+    }
+
+    /**
+     * Apply a batch across the lanes of the materializer pool and wait for all of them. Throws the
+     * first lane failure once every lane has finished, so the batch is retried as a whole.
+     */
+    private void materialize(List<String> lines) throws Exception {
+        List<List<InteractionEvent>> laneEvents = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, lanes); i++) {
+            laneEvents.add(new ArrayList<>());
+        }
+        List<String> unreadable = new ArrayList<>();
+        for (String line : lines) {
+            try {
+                InteractionEvent event = objectMapper.readValue(line, InteractionEvent.class);
+                laneEvents.get((int) Math.floorMod(event.getStudentId(), (long) laneEvents.size())).add(event);
+            } catch (Exception e) {
+                unreadable.add(line);
+            }
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<InteractionEvent> events : laneEvents) {
+            if (!events.isEmpty()) {
+                futures.add(materializerExecutor.submit(() -> applyInOrder(events)));
+            }
+        }
+        ExecutionException firstFailure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+            }
+        }
+        if (firstFailure != null) {
+            throw firstFailure;
+        }
+
+        // Counted only once the batch is through, so retries of a failed batch do not count them again
+        for (String line : unreadable) {
+            failed.increment();
+            logger.error("Skipping unreadable interaction event: {}", line);
+        }
+    }
+
+    /**
+     * Apply a lane's events one student at a time, each student's events as one batch transaction.
+     * If a batch is rejected as invalid, its events are retried one by one so a bad event cannot hold
+     * back the rest; only events rejected on their own are skipped. Any other failure is rethrown.
+     */
+    private void applyInOrder(List<InteractionEvent> events) {
+        Map<Long, List<InteractionEvent>> byStudent = new LinkedHashMap<>();
+        for (InteractionEvent event : events) {
+            byStudent.computeIfAbsent(event.getStudentId(), k -> new ArrayList<>()).add(event);
+        }
+        for (Map.Entry<Long, List<InteractionEvent>> entry : byStudent.entrySet()) {
+            try {
+                int dropped = contentService.recordInteractionBatch(entry.getKey(), entry.getValue());
+                materialized.add(entry.getValue().size() - dropped);
+                failed.add(dropped);
+            } catch (RuntimeException batchFailure) {
+                if (!isInvalidEvent(batchFailure)) {
+                    throw batchFailure;
+                }
+                for (InteractionEvent event : entry.getValue()) {
+                    try {
+                        int dropped = contentService.recordInteractionBatch(entry.getKey(), Collections.singletonList(event));
+                        materialized.add(1 - dropped);
+                        failed.add(dropped);
+                    } catch (RuntimeException e) {
+                        if (!isInvalidEvent(e)) {
+                            throw e;
+                        }
+                        failed.increment();
+                        logger.error("Failed to materialize interaction of student {} with content {}",
+                                event.getStudentId(), event.getContentId(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether a failure is caused by the event itself, so replaying it can never succeed
+     */
+    private static boolean isInvalidEvent(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalArgumentException || cause instanceof NullPointerException
+                    || cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void roll() throws IOException {
+        writer.force(false);
+        writer.close();
+        writerSegment++;
+        writer = openForAppend(writerSegment);
+    }
+
+    private FileChannel openForAppend(long segment) throws IOException {
+        return FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Drop a partial last line left by a crash in the middle of an append
+     */
+    private void truncateTornRecord(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return;
+        }
+        try (FileChannel reader = FileChannel.open(segmentPath(writerSegment), StandardOpenOption.READ)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            for (long end = size; end > 0; end--) {
+                one.clear();
+                reader.read(one, end - 1);
+                if (one.get(0) == '\n') {
+                    if (end < size) {
+                        logger.warn("Truncating {} bytes of a torn interaction event", size - end);
+                        channel.truncate(end);
+                    }
+                    return;
+                }
+            }
+            channel.truncate(0);
+        }
+    }
+
+    private long lagBytes() {
+        long lag = 0;
+        try {
+            for (long segment : listSegments()) {
+                if (segment >= readSegment) {
+                    lag += Files.size(segmentPath(segment));
+                }
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return Math.max(0, lag - readPosition);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            files.map(path -> path.getFileName().toString())
+                 .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                 .forEach(name -> segments.add(Long.parseLong(
+                         name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private Path segmentPath(long segment) {
+        return logDirectory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private long[] loadPosition() {
+        try {
+            Path file = logDirectory.resolve(POSITION_FILE);
+            if (!Files.exists(file)) {
+                return null;
+            }
+            String[] parts = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim().split(":");
+            return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable interaction log position", e);
+            return null;
+        }
+    }
+
+    /**
+     * Checkpoint the consumer position atomically via a temporary file
+     */
+    private void writePosition() throws IOException {
+        Path temp = logDirectory.resolve(POSITION_FILE + ".tmp");
+        Files.write(temp, (readSegment + ":" + readPosition).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, logDirectory.resolve(POSITION_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,225 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.repository.StudentContentInteractionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Item-to-item collaborative filtering model.
+ * Keeps a sparse co-occurrence matrix of content that the same student had a positive
+ * outcome with, updated incrementally as interactions are recorded. Similarity between
+ * two items is the cosine of their co-occurrence vectors: co(i, j) / sqrt(n(i) * n(j)).
+ */
+@Service
+public class ItemCoOccurrenceModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemCoOccurrenceModel.class);
+
+    @Autowired
+    private StudentContentInteractionRepository interactionRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // contentId -> (co-occurring contentId -> number of students positive on both)
+    private final Map<Long, LongIntHashMap> coOccurrences = new HashMap<>();
+
+    // contentId -> number of students with a positive outcome
+    private final LongIntHashMap itemCounts = new LongIntHashMap(1024);
+
+    // studentId -> content with a positive outcome (value unused)
+    private final Map<Long, LongIntHashMap> positivesByStudent = new HashMap<>();
+
+    public static class Neighbour {
+        private final long contentId;
+        private final double similarity;
+        private final long becauseOf;
+
+        public Neighbour(long contentId, double similarity, long becauseOf) {
+            this.contentId = contentId;
+            this.similarity = similarity;
+            this.becauseOf = becauseOf;
+        }
+
+        public long getContentId() { return contentId; }
+        public double getSimilarity() { return similarity; }
+        public long getBecauseOf() { return becauseOf; }
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build item co-occurrence model", e);
+        }
+    }
+
+    /**
+     * Rebuild the matrix from every stored positive interaction
+     */
+    public void rebuild() {
+        List<Object[]> pairs = interactionRepository.findPositiveOutcomePairs();
+
+        lock.writeLock().lock();
+        try {
+            coOccurrences.clear();
+            itemCounts.clear();
+            positivesByStudent.clear();
+            for (Object[] pair : pairs) {
+                recordPositiveLocked((Long) pair[0], (Long) pair[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Item co-occurrence model built from {} positive interactions across {} items",
+                pairs.size(), itemCounts.size());
+    }
+
+    /**
+     * Register a positive outcome; cost is proportional to the student's own positive history
+     */
+    public void recordPositive(Long studentId, Long contentId) {
+        if (studentId == null || contentId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            recordPositiveLocked(studentId, contentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Top-N most similar items to a single content item
+     */
+    public List<Neighbour> topNeighbours(Long contentId, int limit) {
+        lock.readLock().lock();
+        try {
+            LongIntHashMap row = coOccurrences.get(contentId);
+            if (row == null || limit <= 0) {
+                return new ArrayList<>();
+            }
+            PriorityQueue<Neighbour> heap = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Neighbour::getSimilarity));
+            double itemCount = itemCounts.get(contentId);
+            row.forEach((other, count) -> {
+                offer(heap, new Neighbour(other, cosine(count, itemCount, itemCounts.get(other)), contentId), limit);
+            });
+            return drain(heap);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score items by summed similarity to the given seed items, excluding content the student
+     * already interacted with. Each result remembers the seed that contributed the most.
+     */
+    public List<Neighbour> recommend(Collection<Long> seedContentIds, ContentIdSet exclude, int limit) {
+        if (seedContentIds.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        Map<Long, double[]> scores = new HashMap<>(); // {summed similarity, best similarity, best seed}
+
+        lock.readLock().lock();
+        try {
+            for (Long seed : seedContentIds) {
+                LongIntHashMap row = coOccurrences.get(seed);
+                if (row == null) {
+                    continue;
+                }
+                double seedCount = itemCounts.get(seed);
+                row.forEach((other, count) -> {
+                    if (exclude.contains(other)) {
+                        return;
+                    }
+                    double similarity = cosine(count, seedCount, itemCounts.get(other));
+                    double[] score = scores.computeIfAbsent(other, k -> new double[3]);
+                    score[0] += similarity;
+                    if (similarity > score[1]) {
+                        score[1] = similarity;
+                        score[2] = seed;
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        PriorityQueue<Neighbour> heap = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Neighbour::getSimilarity));
+        double seeds = seedContentIds.size();
+        for (Map.Entry<Long, double[]> entry : scores.entrySet()) {
+            double[] score = entry.getValue();
+            offer(heap, new Neighbour(entry.getKey(), score[0] / seeds, (long) score[2]), limit);
+        }
+        return drain(heap);
+    }
+
+    /**
+     * Content the student had a positive outcome with
+     */
+    public long[] positivesOf(Long studentId) {
+        lock.readLock().lock();
+        try {
+            LongIntHashMap positives = positivesByStudent.get(studentId);
+            return positives != null ? positives.keys() : new long[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int itemCount() {
+        lock.readLock().lock();
+        try {
+            return itemCounts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper methods
+
+    private void recordPositiveLocked(Long studentId, Long contentId) {
+        LongIntHashMap positives = positivesByStudent.computeIfAbsent(studentId, k -> new LongIntHashMap());
+        if (positives.containsKey(contentId)) {
+            return;
+        }
+        LongIntHashMap row = coOccurrences.computeIfAbsent(contentId, k -> new LongIntHashMap());
+        for (long other : positives.keys()) {
+            row.addTo(other, 1);
+            coOccurrences.computeIfAbsent(other, k -> new LongIntHashMap()).addTo(contentId, 1);
+        }
+        positives.put(contentId, 1);
+        itemCounts.addTo(contentId, 1);
+    }
+
+    private static double cosine(int coCount, double countA, double countB) {
+        if (countA <= 0 || countB <= 0) {
+            return 0.0;
+        }
+        return coCount / Math.sqrt(countA * countB);
+    }
+
+    private static void offer(PriorityQueue<Neighbour> heap, Neighbour candidate, int limit) {
+        if (heap.size() < limit) {
+            heap.offer(candidate);
+        } else if (candidate.getSimilarity() > heap.peek().getSimilarity()) {
+            heap.poll();
+            heap.offer(candidate);
+        }
+    }
+
+    private static List<Neighbour> drain(PriorityQueue<Neighbour> heap) {
+        List<Neighbour> result = new ArrayList<>(heap);
+        result.sort((a, b) -> Double.compare(b.getSimilarity(), a.getSimilarity()));
+        return result;
+    }
+}
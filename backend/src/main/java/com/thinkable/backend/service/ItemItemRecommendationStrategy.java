@@ -0,0 +1,81 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.entity.StudentContentInteraction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Item-to-item only recommendation strategy.
+ * Ranks the co-occurrence neighbours of the student's positive content and nothing else, which
+ * needs no profile lookup and no per-stage executor hop. Intended to run in shadow mode against
+ * the hybrid engine to see whether the cheaper ranking agrees with it closely enough to serve.
+ */
+@Service
+public class ItemItemRecommendationStrategy implements RecommendationStrategy {
+
+    public static final String VERSION = "2.1-item-item";
+
+    private static final int MAX_RECOMMENDATIONS = 15;
+
+    @Autowired
+    private ItemCoOccurrenceModel coOccurrenceModel;
+
+    @Autowired
+    private ContentCatalogIndex catalogIndex;
+
+    @Override
+    public String getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public List<RecommendationCandidate> recommend(RecommendationContext context) {
+        List<Long> seeds = context.getHistory().stream()
+                .filter(StudentContentInteraction::hadPositiveOutcome)
+                .map(interaction -> interaction.getContent().getId())
+                .distinct()
+                .collect(Collectors.toList());
+        if (seeds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, ItemCoOccurrenceModel.Neighbour> neighbours = new LinkedHashMap<>();
+        for (ItemCoOccurrenceModel.Neighbour neighbour :
+                coOccurrenceModel.recommend(seeds, context.getInteracted(), MAX_RECOMMENDATIONS * 2)) {
+            if (catalogIndex.isPublished(neighbour.getContentId()) && neighbours.size() < MAX_RECOMMENDATIONS) {
+                neighbours.put(neighbour.getContentId(), neighbour);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(neighbours.keySet());
+        List<LearningContent> contents = context.isBatch()
+                ? context.getSnapshot().load(ids)
+                : catalogIndex.loadContent(ids);
+
+        List<RecommendationCandidate> candidates = new ArrayList<>(contents.size());
+        TopKSelector top = new TopKSelector(MAX_RECOMMENDATIONS);
+        for (LearningContent content : contents) {
+            ItemCoOccurrenceModel.Neighbour neighbour = neighbours.get(content.getId());
+            RecommendationCandidate candidate = new RecommendationCandidate(
+                context.getStudentId(),
+                content,
+                "personalized",
+                RecommendationScoring.collaborative(neighbour.getSimilarity()),
+                "Learners who found the same content helpful also found this helpful",
+                List.of("collaborative_filtering", "item_item", "because_of:" + neighbour.getBecauseOf())
+            );
+            top.offer(candidates.size(), RecommendationScoring.scoreFinal(candidate));
+            candidates.add(candidate);
+        }
+
+        List<RecommendationCandidate> ranked = new ArrayList<>(top.size());
+        for (int index : top.drainDescending()) {
+            ranked.add(candidates.get(index));
+        }
+        return ranked;
+    }
+}
@@ -2,7 +2,6 @@ package com.thinkable.backend.service;
 
 import com.thinkable.backend.entity.UserAdaptiveInsight;
 import com.thinkable.backend.entity.UserNeurodivergentProfile;
-import com.thinkable.backend.entity.UserToolUsage;
 import com.thinkable.backend.repository.UserAdaptiveInsightRepository;
 import com.thinkable.backend.repository.UserToolUsageRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -15,7 +14,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.Comparator;
 
 /**
  * Service for personal pattern recognition and adaptive insights
@@ -42,22 +40,27 @@ public class PersonalPatternRecognitionService {
     public List<UserAdaptiveInsight> analyzeAndGenerateInsights(Long userId) {
         List<UserAdaptiveInsight> newInsights = new ArrayList<>();
         
+        // Two weeks of usage, loaded once and shared by all analyzers
+        LocalDateTime now = LocalDateTime.now();
+        ToolUsageSnapshot usage = new ToolUsageSnapshot(
+            toolUsageRepository.findRecentUsageByUserId(userId, now.minusWeeks(2)), now.minusWeeks(1));
+        
         // Basic pattern analysis
-        newInsights.addAll(analyzeFocusPatterns(userId));
-        newInsights.addAll(analyzeEnergyPatterns(userId));
+        newInsights.addAll(analyzeFocusPatterns(userId, usage));
+        newInsights.addAll(analyzeEnergyPatterns(userId, usage));
         newInsights.addAll(analyzeToolEffectiveness(userId));
         newInsights.addAll(analyzeTemporalPatterns(userId));
         
         // Advanced pattern analysis
-        newInsights.addAll(analyzeProductivityRhythms(userId));
-        newInsights.addAll(analyzeStressPatterns(userId));
-        newInsights.addAll(analyzeFlowStateDetection(userId));
-        newInsights.addAll(analyzeLearningVelocity(userId));
-        newInsights.addAll(analyzeContextualEffectiveness(userId));
-        newInsights.addAll(analyzeAdaptationPatterns(userId));
+        newInsights.addAll(analyzeProductivityRhythms(userId, usage));
+        newInsights.addAll(analyzeStressPatterns(userId, usage));
+        newInsights.addAll(analyzeFlowStateDetection(userId, usage));
+        newInsights.addAll(analyzeLearningVelocity(userId, usage));
+        newInsights.addAll(analyzeContextualEffectiveness(userId, usage));
+        newInsights.addAll(analyzeAdaptationPatterns(userId, usage));
         
         // Predictive insights
-        newInsights.addAll(generatePredictiveRecommendations(userId));
+        newInsights.addAll(generatePredictiveRecommendations(userId, usage, now));
         
         // Save insights that don't already exist
         return saveUniqueInsights(userId, newInsights);
@@ -127,18 +130,24 @@ public class PersonalPatternRecognitionService {
     
     // Private analysis methods
     
-    private List<UserAdaptiveInsight> analyzeFocusPatterns(Long userId) {
+    private List<UserAdaptiveInsight> analyzeFocusPatterns(Long userId, ToolUsageSnapshot usage) {
         List<UserAdaptiveInsight> insights = new ArrayList<>();
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
         
-        List<UserToolUsage> recentUsage = toolUsageRepository.findRecentUsageByUserId(userId, oneWeekAgo);
-        
-        if (recentUsage.size() < 10) return insights; // Need sufficient data
+        if (usage.weekSize() < 10) return insights; // Need sufficient data
         
         // Analyze optimal focus times
-        Map<String, Long> timeSlotSuccess = recentUsage.stream()
-                .filter(usage -> usage.isSuccessful())
-                .collect(Collectors.groupingBy(UserToolUsage::getTimeSlot, Collectors.counting()));
+        long[] successesBySlot = new long[ToolUsageSnapshot.TIME_SLOTS.length];
+        for (int i = usage.weekStart(); i < usage.size(); i++) {
+            if (usage.isSuccessful(i)) {
+                successesBySlot[usage.timeSlot(i)]++;
+            }
+        }
+        Map<String, Long> timeSlotSuccess = new HashMap<>();
+        for (int slot = 0; slot < successesBySlot.length; slot++) {
+            if (successesBySlot[slot] > 0) {
+                timeSlotSuccess.put(ToolUsageSnapshot.TIME_SLOTS[slot], successesBySlot[slot]);
+            }
+        }
         
         if (!timeSlotSuccess.isEmpty()) {
             String optimalTime = Collections.max(timeSlotSuccess.entrySet(), Map.Entry.comparingByValue()).getKey();
@@ -148,7 +157,7 @@ public class PersonalPatternRecognitionService {
                 Map<String, Object> insightData = Map.of(
                     "discovered", optimalTime,
                     "current", profile.getNaturalRhythm(),
-                    "successRate", calculateSuccessRate(recentUsage, optimalTime)
+                    "successRate", calculateSuccessRate(usage, optimalTime)
                 );
                 
                 UserAdaptiveInsight insight = createInsight(
@@ -168,19 +177,24 @@ public class PersonalPatternRecognitionService {
         return insights;
     }
     
-    private List<UserAdaptiveInsight> analyzeEnergyPatterns(Long userId) {
+    private List<UserAdaptiveInsight> analyzeEnergyPatterns(Long userId, ToolUsageSnapshot usage) {
         List<UserAdaptiveInsight> insights = new ArrayList<>();
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        
-        List<UserToolUsage> recentUsage = toolUsageRepository.findRecentUsageByUserId(userId, oneWeekAgo);
         
-        // Analyze energy level patterns
-        Map<Integer, Double> energySuccessRate = recentUsage.stream()
-                .filter(usage -> usage.getUserEnergyLevel() != null)
-                .collect(Collectors.groupingBy(
-                    UserToolUsage::getUserEnergyLevel,
-                    Collectors.averagingInt(usage -> usage.isSuccessful() ? 1 : 0)
-                ));
+        // Analyze energy level patterns: sessions and successes per energy level
+        Map<Integer, long[]> energyCounts = new HashMap<>();
+        for (int i = usage.weekStart(); i < usage.size(); i++) {
+            if (usage.energy[i] != ToolUsageSnapshot.NONE) {
+                long[] counts = energyCounts.computeIfAbsent(usage.energy[i], k -> new long[2]);
+                counts[0]++;
+                if (usage.isSuccessful(i)) {
+                    counts[1]++;
+                }
+            }
+        }
+        Map<Integer, Double> energySuccessRate = new HashMap<>();
+        for (Map.Entry<Integer, long[]> entry : energyCounts.entrySet()) {
+            energySuccessRate.put(entry.getKey(), (double) entry.getValue()[1] / entry.getValue()[0]);
+        }
         
         if (energySuccessRate.size() >= 3) {
             OptionalInt bestEnergyLevel = energySuccessRate.entrySet().stream()
@@ -340,18 +354,21 @@ public class PersonalPatternRecognitionService {
         return insight;
     }
     
-    private double calculateSuccessRate(List<UserToolUsage> usage, String timeSlot) {
-        List<UserToolUsage> timeSlotUsage = usage.stream()
-                .filter(u -> timeSlot.equals(u.getTimeSlot()))
-                .collect(Collectors.toList());
-        
-        if (timeSlotUsage.isEmpty()) return 0.0;
+    private double calculateSuccessRate(ToolUsageSnapshot usage, String timeSlot) {
+        int total = 0;
+        int successCount = 0;
+        for (int i = usage.weekStart(); i < usage.size(); i++) {
+            if (timeSlot.equals(ToolUsageSnapshot.TIME_SLOTS[usage.timeSlot(i)])) {
+                total++;
+                if (usage.isSuccessful(i)) {
+                    successCount++;
+                }
+            }
+        }
         
-        long successCount = timeSlotUsage.stream()
-                .mapToLong(u -> u.isSuccessful() ? 1 : 0)
-                .sum();
+        if (total == 0) return 0.0;
         
-        return (double) successCount / timeSlotUsage.size();
+        return (double) successCount / total;
     }
     
     private List<String> generateEnergyRecommendations(int optimalEnergyLevel) {
@@ -376,35 +393,39 @@ public class PersonalPatternRecognitionService {
     /**
      * Analyze productivity rhythms - when user is most productive
      */
-    private List<UserAdaptiveInsight> analyzeProductivityRhythms(Long userId) {
+    private List<UserAdaptiveInsight> analyzeProductivityRhythms(Long userId, ToolUsageSnapshot usage) {
         List<UserAdaptiveInsight> insights = new ArrayList<>();
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        
-        List<UserToolUsage> recentUsage = toolUsageRepository.findRecentUsageByUserId(userId, oneWeekAgo);
-        
-        if (recentUsage.size() < 20) return insights; // Need more data
         
-        // Group by hour and calculate productivity score
-        Map<Integer, List<UserToolUsage>> hourlyUsage = recentUsage.stream()
-                .collect(Collectors.groupingBy(usage -> usage.getUsageTimestamp().getHour()));
+        if (usage.weekSize() < 20) return insights; // Need more data
+        
+        // Per-hour sums of success ratings and session durations
+        int[] sessions = new int[24];
+        long[] ratingSum = new long[24];
+        int[] ratingCount = new int[24];
+        long[] durationSum = new long[24];
+        int[] durationCount = new int[24];
+        for (int i = usage.weekStart(); i < usage.size(); i++) {
+            int hour = usage.hours[i];
+            sessions[hour]++;
+            if (usage.ratings[i] != ToolUsageSnapshot.NONE) {
+                ratingSum[hour] += usage.ratings[i];
+                ratingCount[hour]++;
+            }
+            if (usage.durations[i] != ToolUsageSnapshot.NONE) {
+                durationSum[hour] += usage.durations[i];
+                durationCount[hour]++;
+            }
+        }
         
         Map<Integer, Double> productivityByHour = new HashMap<>();
-        for (Map.Entry<Integer, List<UserToolUsage>> entry : hourlyUsage.entrySet()) {
-            List<UserToolUsage> hourUsage = entry.getValue();
-            double avgSuccess = hourUsage.stream()
-                    .filter(u -> u.getSuccessRating() != null)
-                    .mapToInt(UserToolUsage::getSuccessRating)
-                    .average()
-                    .orElse(0.0);
-            double avgDuration = hourUsage.stream()
-                    .filter(u -> u.getSessionDurationMinutes() != null)
-                    .mapToInt(UserToolUsage::getSessionDurationMinutes)
-                    .average()
-                    .orElse(0.0);
+        for (int hour = 0; hour < 24; hour++) {
+            if (sessions[hour] == 0) continue;
+            double avgSuccess = ratingCount[hour] > 0 ? (double) ratingSum[hour] / ratingCount[hour] : 0.0;
+            double avgDuration = durationCount[hour] > 0 ? (double) durationSum[hour] / durationCount[hour] : 0.0;
             
             // Productivity score combines success and sustained focus
             double productivityScore = (avgSuccess * 0.7) + (Math.min(avgDuration / 60.0, 1.0) * 0.3) * 10;
-            productivityByHour.put(entry.getKey(), productivityScore);
+            productivityByHour.put(hour, productivityScore);
         }
         
         // Find peak productivity hours
@@ -441,25 +462,27 @@ public class PersonalPatternRecognitionService {
     /**
      * Detect stress patterns and overwhelm indicators
      */
-    private List<UserAdaptiveInsight> analyzeStressPatterns(Long userId) {
+    private List<UserAdaptiveInsight> analyzeStressPatterns(Long userId, ToolUsageSnapshot usage) {
         List<UserAdaptiveInsight> insights = new ArrayList<>();
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        
-        List<UserToolUsage> recentUsage = toolUsageRepository.findRecentUsageByUserId(userId, oneWeekAgo);
         
         // Look for stress indicators: escape hatch usage, low success ratings, short sessions
-        long escapeHatchUsage = recentUsage.stream()
-                .filter(u -> "escape_hatch".equals(u.getToolName()))
-                .count();
-        
-        double avgSuccessRate = recentUsage.stream()
-                .filter(u -> u.getSuccessRating() != null)
-                .mapToInt(UserToolUsage::getSuccessRating)
-                .average()
-                .orElse(7.0);
+        int escapeHatch = usage.toolId("escape_hatch");
+        long escapeHatchUsage = 0;
+        long ratingSum = 0;
+        int ratingCount = 0;
+        for (int i = usage.weekStart(); i < usage.size(); i++) {
+            if (escapeHatch >= 0 && usage.toolIds[i] == escapeHatch) {
+                escapeHatchUsage++;
+            }
+            if (usage.ratings[i] != ToolUsageSnapshot.NONE) {
+                ratingSum += usage.ratings[i];
+                ratingCount++;
+            }
+        }
+        double avgSuccessRate = ratingCount > 0 ? (double) ratingSum / ratingCount : 7.0;
         
         // Detect stress patterns
-        boolean highEscapeUsage = escapeHatchUsage > recentUsage.size() * 0.3;
+        boolean highEscapeUsage = escapeHatchUsage > usage.weekSize() * 0.3;
         boolean lowSuccessRate = avgSuccessRate < 6.0;
         
         if (highEscapeUsage || lowSuccessRate) {
@@ -504,37 +527,37 @@ public class PersonalPatternRecognitionService {
     /**
      * Detect flow state patterns - when user enters deep focus
      */
-    private List<UserAdaptiveInsight> analyzeFlowStateDetection(Long userId) {
+    private List<UserAdaptiveInsight> analyzeFlowStateDetection(Long userId, ToolUsageSnapshot usage) {
         List<UserAdaptiveInsight> insights = new ArrayList<>();
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        
-        List<UserToolUsage> focusUsage = toolUsageRepository.findRecentUsageByUserId(userId, oneWeekAgo)
-                .stream()
-                .filter(u -> "focus_timer".equals(u.getToolName()))
-                .filter(u -> u.getSessionDurationMinutes() != null && u.getSuccessRating() != null)
-                .collect(Collectors.toList());
-        
-        if (focusUsage.size() < 10) return insights;
+        int focusTimer = usage.toolId("focus_timer");
+        if (focusTimer < 0) return insights;
+        
+        // Rated, timed focus sessions; flow state: sessions > 45 minutes with high success (8+)
+        int focusSessions = 0;
+        int flowSessionCount = 0;
+        long flowDurationSum = 0;
+        Map<String, Long> energyLevelsInFlow = new HashMap<>();
+        Map<String, Long> timeSlotsInFlow = new HashMap<>();
+        for (int i = usage.weekStart(); i < usage.size(); i++) {
+            if (usage.toolIds[i] != focusTimer
+                    || usage.durations[i] == ToolUsageSnapshot.NONE || usage.ratings[i] == ToolUsageSnapshot.NONE) {
+                continue;
+            }
+            focusSessions++;
+            if (usage.durations[i] > 45 && usage.ratings[i] >= 8) {
+                flowSessionCount++;
+                flowDurationSum += usage.durations[i];
+                if (usage.energy[i] != ToolUsageSnapshot.NONE) {
+                    energyLevelsInFlow.merge(Integer.toString(usage.energy[i]), 1L, Long::sum);
+                }
+                timeSlotsInFlow.merge(ToolUsageSnapshot.TIME_SLOTS[usage.timeSlot(i)], 1L, Long::sum);
+            }
+        }
         
-        // Detect flow state: sessions > 45 minutes with high success (8+)
-        List<UserToolUsage> flowSessions = focusUsage.stream()
-                .filter(u -> u.getSessionDurationMinutes() > 45 && u.getSuccessRating() >= 8)
-                .collect(Collectors.toList());
+        if (focusSessions < 10) return insights;
         
-        if (flowSessions.size() >= 3) {
+        if (flowSessionCount >= 3) {
             // Analyze conditions that lead to flow
-            Map<String, Long> energyLevelsInFlow = flowSessions.stream()
-                    .filter(u -> u.getUserEnergyLevel() != null)
-                    .collect(Collectors.groupingBy(
-                        u -> u.getUserEnergyLevel().toString(),
-                        Collectors.counting()
-                    ));
-            
-            Map<String, Long> timeSlotsInFlow = flowSessions.stream()
-                    .collect(Collectors.groupingBy(
-                        UserToolUsage::getTimeSlot,
-                        Collectors.counting()
-                    ));
             
             String optimalEnergyForFlow = energyLevelsInFlow.entrySet().stream()
                     .max(Map.Entry.comparingByValue())
@@ -547,10 +570,10 @@ public class PersonalPatternRecognitionService {
                     .orElse("unknown");
             
             Map<String, Object> insightData = Map.of(
-                "flowSessionCount", flowSessions.size(),
+                "flowSessionCount", flowSessionCount,
                 "optimalEnergyForFlow", optimalEnergyForFlow,
                 "optimalTimeForFlow", optimalTimeForFlow,
-                "avgFlowDuration", flowSessions.stream().mapToInt(UserToolUsage::getSessionDurationMinutes).average().orElse(0),
+                "avgFlowDuration", (double) flowDurationSum / flowSessionCount,
                 "flowTriggers", Map.of(
                     "energyLevels", energyLevelsInFlow,
                     "timeSlots", timeSlotsInFlow
@@ -576,40 +599,32 @@ public class PersonalPatternRecognitionService {
     /**
      * Analyze learning velocity - how quickly user adapts and improves
      */
-    private List<UserAdaptiveInsight> analyzeLearningVelocity(Long userId) {
+    private List<UserAdaptiveInsight> analyzeLearningVelocity(Long userId, ToolUsageSnapshot usage) {
         List<UserAdaptiveInsight> insights = new ArrayList<>();
-        LocalDateTime twoWeeksAgo = LocalDateTime.now().minusWeeks(2);
         
-        List<UserToolUsage> allUsage = toolUsageRepository.findRecentUsageByUserId(userId, twoWeeksAgo)
-                .stream()
-                .filter(u -> u.getSuccessRating() != null)
-                .sorted(Comparator.comparing(UserToolUsage::getUsageTimestamp))
-                .collect(Collectors.toList());
+        // Prefix sums of the two weeks' success ratings in time order
+        long[] ratingPrefix = new long[usage.size() + 1];
+        int rated = 0;
+        for (int i = 0; i < usage.size(); i++) {
+            if (usage.ratings[i] != ToolUsageSnapshot.NONE) {
+                ratingPrefix[rated + 1] = ratingPrefix[rated] + usage.ratings[i];
+                rated++;
+            }
+        }
         
-        if (allUsage.size() < 20) return insights;
+        if (rated < 20) return insights;
         
         // Calculate rolling average success rate
-        List<Double> rollingAverages = new ArrayList<>();
         int windowSize = 5;
-        
-        for (int i = windowSize; i <= allUsage.size(); i++) {
-            double avg = allUsage.subList(i - windowSize, i).stream()
-                    .mapToInt(UserToolUsage::getSuccessRating)
-                    .average()
-                    .orElse(0.0);
-            rollingAverages.add(avg);
+        double[] rollingAverages = new double[rated - windowSize + 1];
+        for (int i = windowSize; i <= rated; i++) {
+            rollingAverages[i - windowSize] = (double) (ratingPrefix[i] - ratingPrefix[i - windowSize]) / windowSize;
         }
         
         // Calculate trend
-        double firstHalfAvg = rollingAverages.subList(0, rollingAverages.size() / 2).stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
-        
-        double secondHalfAvg = rollingAverages.subList(rollingAverages.size() / 2, rollingAverages.size()).stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        int half = rollingAverages.length / 2;
+        double firstHalfAvg = average(rollingAverages, 0, half);
+        double secondHalfAvg = average(rollingAverages, half, rollingAverages.length);
         
         double improvement = secondHalfAvg - firstHalfAvg;
         
@@ -648,34 +663,38 @@ public class PersonalPatternRecognitionService {
     /**
      * Generate predictive recommendations based on patterns
      */
-    private List<UserAdaptiveInsight> generatePredictiveRecommendations(Long userId) {
+    private List<UserAdaptiveInsight> generatePredictiveRecommendations(Long userId, ToolUsageSnapshot usage,
+                                                                        LocalDateTime now) {
         List<UserAdaptiveInsight> insights = new ArrayList<>();
         
         UserNeurodivergentProfile profile = profileService.getOrCreateProfile(userId);
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        List<UserToolUsage> recentUsage = toolUsageRepository.findRecentUsageByUserId(userId, oneWeekAgo);
         
-        if (recentUsage.size() < 20) return insights;
+        if (usage.weekSize() < 20) return insights;
         
         // Predict optimal next actions based on current patterns
-        LocalDateTime now = LocalDateTime.now();
+        int currentSlot = ToolUsageSnapshot.timeSlotOfHour(now.getHour());
         String currentTimeSlot = getTimeSlotFromHour(now.getHour());
         int currentDayOfWeek = now.getDayOfWeek().getValue() % 7;
         
-        // Find similar historical contexts
-        List<UserToolUsage> similarContextUsage = recentUsage.stream()
-                .filter(u -> currentTimeSlot.equals(u.getTimeSlot()))
-                .filter(u -> u.getDayOfWeek() != null && u.getDayOfWeek().equals(currentDayOfWeek))
-                .collect(Collectors.toList());
+        // Find similar historical contexts: rating sums per tool in the current slot and weekday
+        long[] ratingSum = new long[usage.toolCount()];
+        int[] ratingCount = new int[usage.toolCount()];
+        for (int i = usage.weekStart(); i < usage.size(); i++) {
+            if (usage.timeSlot(i) == currentSlot && usage.daysOfWeek[i] == currentDayOfWeek
+                    && usage.ratings[i] != ToolUsageSnapshot.NONE && usage.toolIds[i] >= 0) {
+                ratingSum[usage.toolIds[i]] += usage.ratings[i];
+                ratingCount[usage.toolIds[i]]++;
+            }
+        }
+        Map<String, Double> toolEffectiveness = new HashMap<>();
+        for (int tool = 0; tool < ratingCount.length; tool++) {
+            if (ratingCount[tool] > 0) {
+                toolEffectiveness.put(usage.toolName(tool), (double) ratingSum[tool] / ratingCount[tool]);
+            }
+        }
         
-        if (!similarContextUsage.isEmpty()) {
+        if (!toolEffectiveness.isEmpty()) {
             // Find most effective tool in this context
-            Map<String, Double> toolEffectiveness = similarContextUsage.stream()
-                    .filter(u -> u.getSuccessRating() != null)
-                    .collect(Collectors.groupingBy(
-                        UserToolUsage::getToolName,
-                        Collectors.averagingInt(UserToolUsage::getSuccessRating)
-                    ));
             
             String recommendedTool = toolEffectiveness.entrySet().stream()
                     .max(Map.Entry.comparingByValue())
@@ -715,21 +734,26 @@ public class PersonalPatternRecognitionService {
     /**
      * Analyze how environmental context affects performance
      */
-    private List<UserAdaptiveInsight> analyzeContextualEffectiveness(Long userId) {
+    private List<UserAdaptiveInsight> analyzeContextualEffectiveness(Long userId, ToolUsageSnapshot usage) {
         List<UserAdaptiveInsight> insights = new ArrayList<>();
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        
-        List<UserToolUsage> recentUsage = toolUsageRepository.findRecentUsageByUserId(userId, oneWeekAgo);
         
-        if (recentUsage.size() < 15) return insights;
+        if (usage.weekSize() < 15) return insights;
         
         // Analyze effectiveness by activity context
-        Map<String, Double> contextEffectiveness = recentUsage.stream()
-                .filter(u -> u.getActivityContext() != null && u.getSuccessRating() != null)
-                .collect(Collectors.groupingBy(
-                    UserToolUsage::getActivityContext,
-                    Collectors.averagingInt(UserToolUsage::getSuccessRating)
-                ));
+        long[] ratingSum = new long[usage.contextCount()];
+        int[] ratingCount = new int[usage.contextCount()];
+        for (int i = usage.weekStart(); i < usage.size(); i++) {
+            if (usage.contextIds[i] >= 0 && usage.ratings[i] != ToolUsageSnapshot.NONE) {
+                ratingSum[usage.contextIds[i]] += usage.ratings[i];
+                ratingCount[usage.contextIds[i]]++;
+            }
+        }
+        Map<String, Double> contextEffectiveness = new HashMap<>();
+        for (int context = 0; context < ratingCount.length; context++) {
+            if (ratingCount[context] > 0) {
+                contextEffectiveness.put(usage.contextName(context), (double) ratingSum[context] / ratingCount[context]);
+            }
+        }
         
         if (contextEffectiveness.size() >= 2) {
             String mostEffectiveContext = contextEffectiveness.entrySet().stream()
@@ -775,7 +799,7 @@ public class PersonalPatternRecognitionService {
     /**
      * Analyze how well user adapts to recommendations over time
      */
-    private List<UserAdaptiveInsight> analyzeAdaptationPatterns(Long userId) {
+    private List<UserAdaptiveInsight> analyzeAdaptationPatterns(Long userId, ToolUsageSnapshot usage) {
         List<UserAdaptiveInsight> insights = new ArrayList<>();
         
         // Get accepted insights from the past
@@ -783,8 +807,10 @@ public class PersonalPatternRecognitionService {
         
         if (acceptedInsights.size() < 3) return insights;
         
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        List<UserToolUsage> recentUsage = toolUsageRepository.findRecentUsageByUserId(userId, oneWeekAgo);
+        long[] usageBySlot = new long[ToolUsageSnapshot.TIME_SLOTS.length];
+        for (int i = usage.weekStart(); i < usage.size(); i++) {
+            usageBySlot[usage.timeSlot(i)]++;
+        }
         
         // Analyze if user is following through on accepted recommendations
         int implementedRecommendations = 0;
@@ -798,11 +824,10 @@ public class PersonalPatternRecognitionService {
                     Object discoveredTime = insightData.get("discovered");
                     
                     if (discoveredTime != null) {
-                        long optimalUsage = recentUsage.stream()
-                                .filter(u -> discoveredTime.toString().equals(u.getTimeSlot()))
-                                .count();
+                        int slot = Arrays.asList(ToolUsageSnapshot.TIME_SLOTS).indexOf(discoveredTime.toString());
+                        long optimalUsage = slot >= 0 ? usageBySlot[slot] : 0;
                         
-                        if (optimalUsage > recentUsage.size() * 0.3) {
+                        if (optimalUsage > usage.weekSize() * 0.3) {
                             implementedRecommendations++;
                         }
                     }
@@ -872,12 +897,15 @@ public class PersonalPatternRecognitionService {
     }
     
     private String getTimeSlotFromHour(int hour) {
-        if (hour < 6) return "late_night";
-        if (hour < 9) return "early_morning";
-        if (hour < 12) return "late_morning";
-        if (hour < 15) return "early_afternoon";
-        if (hour < 18) return "late_afternoon";
-        if (hour < 21) return "early_evening";
-        return "late_evening";
+        return ToolUsageSnapshot.TIME_SLOTS[ToolUsageSnapshot.timeSlotOfHour(hour)];
+    }
+    
+    private static double average(double[] values, int from, int to) {
+        if (from >= to) return 0.0;
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
     }
 }
@@ -0,0 +1,208 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.UserNeurodivergentProfile;
+import com.thinkable.backend.repository.UserNeurodivergentProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory k-nearest-neighbour index over neurodivergent trait vectors.
+ * The ten 0-10 trait scores of each profile are packed into a flat float array and indexed
+ * by a vantage-point tree. Profiles updated since the last build are kept in a small pending
+ * map, searched linearly and merged with the tree results; the tree is rebuilt from memory
+ * once the pending set grows past a fraction of the index.
+ */
+@Service
+public class ProfileSimilarityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileSimilarityIndex.class);
+
+    public static final int DIMENSIONS = 10;
+    private static final int DEFAULT_TRAIT = 5;
+    private static final double MAX_DISTANCE = Math.sqrt(DIMENSIONS * 100.0);
+    private static final int MIN_REBUILD_THRESHOLD = 256;
+
+    @Autowired
+    private UserNeurodivergentProfileRepository profileRepository;
+
+    private volatile Snapshot snapshot = Snapshot.empty();
+    private final Map<Long, float[]> pending = new ConcurrentHashMap<>();
+    private final Object rebuildLock = new Object();
+
+    public static class Match {
+        private final Long userId;
+        private final double distance;
+
+        public Match(Long userId, double distance) {
+            this.userId = userId;
+            this.distance = distance;
+        }
+
+        public Long getUserId() { return userId; }
+        public double getDistance() { return distance; }
+
+        /**
+         * Distance mapped onto 0 (opposite corners of the trait space) to 1 (identical traits)
+         */
+        public double getSimilarity() {
+            return 1.0 - distance / MAX_DISTANCE;
+        }
+    }
+
+    private static final class Snapshot {
+        private final long[] userIds;
+        private final float[] vectors;
+        private final VantagePointTree tree;
+
+        private Snapshot(long[] userIds, float[] vectors) {
+            this.userIds = userIds;
+            this.vectors = vectors;
+            int[] items = new int[userIds.length];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = i;
+            }
+            this.tree = new VantagePointTree(vectors, DIMENSIONS, items);
+        }
+
+        static Snapshot empty() {
+            return new Snapshot(new long[0], new float[0]);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuildFromDatabase();
+        } catch (Exception e) {
+            logger.error("Failed to build profile similarity index", e);
+        }
+    }
+
+    /**
+     * Load every profile's trait vector and build a fresh tree
+     */
+    public void rebuildFromDatabase() {
+        List<Object[]> rows = profileRepository.findAllTraitVectors();
+        long[] userIds = new long[rows.size()];
+        float[] vectors = new float[rows.size() * DIMENSIONS];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            userIds[i] = (Long) row[0];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                Object value = row[d + 1];
+                vectors[i * DIMENSIONS + d] = value != null ? ((Number) value).floatValue() : DEFAULT_TRAIT;
+            }
+        }
+        synchronized (rebuildLock) {
+            snapshot = new Snapshot(userIds, vectors);
+            pending.clear();
+        }
+        logger.info("Profile similarity index built with {} profiles", userIds.length);
+    }
+
+    /**
+     * Record a profile's current traits; visible to queries immediately
+     */
+    public void update(UserNeurodivergentProfile profile) {
+        if (profile == null || profile.getUserId() == null) {
+            return;
+        }
+        pending.put(profile.getUserId(), toVector(profile));
+        if (pending.size() > Math.max(MIN_REBUILD_THRESHOLD, snapshot.userIds.length / 20)) {
+            rebuildFromMemory();
+        }
+    }
+
+    /**
+     * Top-k profiles nearest to the given one, excluding the profile's own user
+     */
+    public List<Match> nearest(UserNeurodivergentProfile profile, int k) {
+        float[] query = toVector(profile);
+        Long excludeUserId = profile.getUserId();
+        Snapshot current = snapshot;
+
+        List<Match> candidates = new ArrayList<>(k * 2);
+        for (VantagePointTree.Neighbour neighbour : current.tree.nearest(query, k, slot -> {
+            long userId = current.userIds[slot];
+            return !pending.containsKey(userId) && (excludeUserId == null || userId != excludeUserId);
+        })) {
+            candidates.add(new Match(current.userIds[neighbour.getItem()], neighbour.getDistance()));
+        }
+
+        for (Map.Entry<Long, float[]> entry : pending.entrySet()) {
+            if (!entry.getKey().equals(excludeUserId)) {
+                candidates.add(new Match(entry.getKey(), VantagePointTree.distance(entry.getValue(), 0, query, DIMENSIONS)));
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble(Match::getDistance));
+        return candidates.size() > k ? new ArrayList<>(candidates.subList(0, k)) : candidates;
+    }
+
+    // Helper methods
+
+    private void rebuildFromMemory() {
+        synchronized (rebuildLock) {
+            Snapshot current = snapshot;
+            Map<Long, float[]> updates = new HashMap<>(pending);
+            if (updates.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Integer> slots = new HashMap<>();
+            for (int i = 0; i < current.userIds.length; i++) {
+                slots.put(current.userIds[i], i);
+            }
+            int added = 0;
+            for (Long userId : updates.keySet()) {
+                if (!slots.containsKey(userId)) {
+                    added++;
+                }
+            }
+
+            int size = current.userIds.length + added;
+            long[] userIds = Arrays.copyOf(current.userIds, size);
+            float[] vectors = Arrays.copyOf(current.vectors, size * DIMENSIONS);
+            int next = current.userIds.length;
+            for (Map.Entry<Long, float[]> entry : updates.entrySet()) {
+                Integer slot = slots.get(entry.getKey());
+                int target = slot != null ? slot : next++;
+                userIds[target] = entry.getKey();
+                System.arraycopy(entry.getValue(), 0, vectors, target * DIMENSIONS, DIMENSIONS);
+            }
+
+            snapshot = new Snapshot(userIds, vectors);
+            // Only drop entries that were folded in; newer updates stay pending
+            for (Map.Entry<Long, float[]> entry : updates.entrySet()) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+            logger.debug("Profile similarity index rebuilt with {} profiles", size);
+        }
+    }
+
+    private static float[] toVector(UserNeurodivergentProfile profile) {
+        Integer[] traits = {
+            profile.getHyperfocusIntensity(),
+            profile.getAttentionFlexibility(),
+            profile.getSensoryProcessing(),
+            profile.getExecutiveFunction(),
+            profile.getSocialBattery(),
+            profile.getChangeAdaptability(),
+            profile.getEmotionalRegulation(),
+            profile.getInformationProcessing(),
+            profile.getCreativityExpression(),
+            profile.getStructurePreference()
+        };
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = traits[d] != null ? traits[d] : DEFAULT_TRAIT;
+        }
+        return vector;
+    }
+}
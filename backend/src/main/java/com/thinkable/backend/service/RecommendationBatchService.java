@@ -0,0 +1,207 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.ContentRecommendation;
+import com.thinkable.backend.entity.RecommendationBatchRun;
+import com.thinkable.backend.repository.RecommendationBatchRunRepository;
+import com.thinkable.backend.repository.RecommendationBatchWriter;
+import com.thinkable.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Batch precomputation of recommendations for every student.
+ * Walks students in keyset-ordered chunks, computes each chunk on the batch worker pool
+ * against a single catalog snapshot, and writes the chunk with JDBC batch statements.
+ * The run row is checkpointed after every chunk so an interrupted run resumes where it stopped.
+ */
+@Service
+public class RecommendationBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationBatchService.class);
+
+    @Autowired
+    private ContentRecommendationEngine recommendationEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecommendationBatchRunRepository runRepository;
+
+    @Autowired
+    private RecommendationBatchWriter batchWriter;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    @Qualifier("recommendationBatchExecutor")
+    private ExecutorService batchExecutor;
+
+    @Value("${recommendation.batch.chunk-size:500}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private static class ChunkResult {
+        private final List<Long> succeeded = new ArrayList<>();
+        private final List<ContentRecommendation> recommendations = new ArrayList<>();
+        private int failed;
+    }
+
+    /**
+     * Nightly trigger; only hands the run off so the shared scheduler thread is not held for the whole batch
+     */
+    @Scheduled(cron = "${recommendation.batch.cron:0 0 2 * * *}")
+    public void runNightly() {
+        if (!runAsync()) {
+            logger.warn("Skipping nightly recommendation batch: a run is already in progress");
+        }
+    }
+
+    /**
+     * Start a run on a background thread. Returns false if a run is already in progress.
+     */
+    public boolean runAsync() {
+        if (running.get()) {
+            return false;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                logger.error("Recommendation batch failed", e);
+            }
+        }, "recommendation-batch");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Optional<RecommendationBatchRun> getLatestRun() {
+        return runRepository.findTopByOrderByStartedAtDesc();
+    }
+
+    /**
+     * Precompute recommendations for every student, resuming the latest run if it did not complete
+     */
+    public RecommendationBatchRun run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A recommendation batch run is already in progress");
+        }
+        try {
+            return execute();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Helper methods
+
+    private RecommendationBatchRun execute() {
+        RecommendationBatchRun batchRun = runRepository.findTopByOrderByStartedAtDesc()
+                .filter(previous -> !previous.isCompleted())
+                .orElseGet(RecommendationBatchRun::new);
+        if (batchRun.getId() != null) {
+            logger.info("Resuming recommendation batch run {} after student {}",
+                    batchRun.getId(), batchRun.getLastStudentId());
+        }
+        batchRun.setStatus("running");
+        batchRun.setErrorMessage(null);
+        batchRun = runRepository.save(batchRun);
+
+        CatalogSnapshot snapshot = recommendationEngine.captureCatalogSnapshot();
+        logger.info("Recommendation batch run {} started with a snapshot of {} published items",
+                batchRun.getId(), snapshot.size());
+
+        long start = System.nanoTime();
+        long attempted = 0;
+        try {
+            while (true) {
+                List<Long> studentIds = userRepository.findStudentIdsAfter(
+                        batchRun.getLastStudentId(), PageRequest.of(0, chunkSize));
+                if (studentIds.isEmpty()) {
+                    break;
+                }
+
+                ChunkResult chunk = processChunk(studentIds, snapshot);
+                int written = batchWriter.upsertRecommendations(chunk.succeeded, chunk.recommendations);
+                recommendationCache.invalidateAll(chunk.succeeded, RecommendationCache.REASON_REGENERATED);
+
+                attempted += studentIds.size();
+                batchRun.recordChunk(studentIds.get(studentIds.size() - 1), chunk.succeeded.size(), chunk.failed, written);
+                batchRun.setStudentsPerSecond(throughput(attempted, start));
+                batchRun = runRepository.save(batchRun);
+            }
+
+            batchRun.setStatus("completed");
+            batchRun.setFinishedAt(LocalDateTime.now());
+            batchRun = runRepository.save(batchRun);
+            logger.info("Recommendation batch run {} completed: {} students ({} failed), {} recommendations, {} students/s",
+                    batchRun.getId(), batchRun.getStudentsProcessed(), batchRun.getStudentsFailed(),
+                    batchRun.getRecommendationsWritten(), String.format("%.1f", batchRun.getStudentsPerSecond()));
+            return batchRun;
+
+        } catch (RuntimeException e) {
+            batchRun.setStatus("failed");
+            batchRun.setErrorMessage(truncate(e.getMessage(), 500));
+            batchRun.setStudentsPerSecond(throughput(attempted, start));
+            runRepository.save(batchRun);
+            throw e;
+        }
+    }
+
+    private ChunkResult processChunk(List<Long> studentIds, CatalogSnapshot snapshot) {
+        Map<Long, Future<List<ContentRecommendation>>> futures = new LinkedHashMap<>();
+        for (Long studentId : studentIds) {
+            futures.put(studentId, batchExecutor.submit(() ->
+                    recommendationEngine.computeRecommendations(studentId, snapshot)));
+        }
+
+        ChunkResult chunk = new ChunkResult();
+        for (Map.Entry<Long, Future<List<ContentRecommendation>>> entry : futures.entrySet()) {
+            try {
+                chunk.recommendations.addAll(entry.getValue().get());
+                chunk.succeeded.add(entry.getKey());
+            } catch (ExecutionException e) {
+                // A failed student keeps their previous recommendations
+                chunk.failed++;
+                logger.warn("Failed to compute recommendations for student {}", entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Recommendation batch run interrupted", e);
+            }
+        }
+        return chunk;
+    }
+
+    private static double throughput(long students, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        return seconds > 0 ? students / seconds : 0.0;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,186 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.ContentRecommendation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-student cache of generated recommendations.
+ * Entries hold only the recommendation IDs in rank order; callers re-read the rows per request,
+ * so no entity is shared between requests or kept alive outside its session.
+ * An entry lives until the earliest expiresAt of its recommendations (capped by a maximum TTL)
+ * and is dropped early only when something relevant changes: a new interaction by the student,
+ * a response to one of the recommendations, a profile update, or newly published content in one
+ * of the entry's subject areas.
+ */
+@Service
+public class RecommendationCache {
+
+    public static final String REASON_INTERACTION = "interaction";
+    public static final String REASON_PROFILE = "profile";
+    public static final String REASON_CONTENT = "content";
+    public static final String REASON_REGENERATED = "regenerated";
+    public static final String REASON_RESPONSE = "response";
+    public static final String REASON_STALE = "stale";
+    private static final String REASON_EXPIRED = "expired";
+    private static final String REASON_CAPACITY = "capacity";
+
+    @Value("${recommendation.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${recommendation.cache.max-ttl-minutes:1440}")
+    private long maxTtlMinutes;
+
+    // Access-ordered so the least recently served student is evicted first when full
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Map<String, LongAdder> evictions = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        private final List<Long> recommendationIds;
+        private final Set<String> subjects;
+        private final LocalDateTime expiresAt;
+
+        private Entry(List<Long> recommendationIds, Set<String> subjects, LocalDateTime expiresAt) {
+            this.recommendationIds = recommendationIds;
+            this.subjects = subjects;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * IDs of the student's cached recommendations in rank order, or empty if absent or expired
+     */
+    public Optional<List<Long>> get(Long studentId) {
+        synchronized (entries) {
+            Entry entry = entries.get(studentId);
+            if (entry != null && LocalDateTime.now().isBefore(entry.expiresAt)) {
+                hits.increment();
+                return Optional.of(entry.recommendationIds);
+            }
+            if (entry != null) {
+                entries.remove(studentId);
+                countEviction(REASON_EXPIRED, 1);
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Cache a student's recommendations together with the subject areas that should invalidate them
+     */
+    public void put(Long studentId, List<ContentRecommendation> recommendations, Collection<String> subjectAreas) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(maxTtlMinutes);
+        List<Long> recommendationIds = new ArrayList<>(recommendations.size());
+        for (ContentRecommendation recommendation : recommendations) {
+            recommendationIds.add(recommendation.getId());
+            if (recommendation.getExpiresAt() != null && recommendation.getExpiresAt().isBefore(expiresAt)) {
+                expiresAt = recommendation.getExpiresAt();
+            }
+        }
+        Set<String> subjects = new HashSet<>();
+        for (String subjectArea : subjectAreas) {
+            if (subjectArea != null) {
+                subjects.add(normalize(subjectArea));
+            }
+        }
+
+        Entry entry = new Entry(Collections.unmodifiableList(recommendationIds), subjects, expiresAt);
+        synchronized (entries) {
+            entries.put(studentId, entry);
+            Iterator<Long> eldest = entries.keySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                countEviction(REASON_CAPACITY, 1);
+            }
+        }
+    }
+
+    public void invalidate(Long studentId, String reason) {
+        if (studentId == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(studentId) != null) {
+                countEviction(reason, 1);
+            }
+        }
+    }
+
+    public void invalidateAll(Collection<Long> studentIds, String reason) {
+        synchronized (entries) {
+            int removed = 0;
+            for (Long studentId : studentIds) {
+                if (entries.remove(studentId) != null) {
+                    removed++;
+                }
+            }
+            countEviction(reason, removed);
+        }
+    }
+
+    /**
+     * Drop every entry whose subject areas include the given one
+     */
+    public void invalidateSubject(String subjectArea) {
+        if (subjectArea == null) {
+            return;
+        }
+        String subject = normalize(subjectArea);
+        synchronized (entries) {
+            int removed = 0;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().subjects.contains(subject)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            countEviction(REASON_CONTENT, removed);
+        }
+    }
+
+    /**
+     * Hit rate, size and eviction counts by reason
+     */
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+
+        Map<String, Long> evictionCounts = new TreeMap<>();
+        evictions.forEach((reason, count) -> evictionCounts.put(reason, count.sum()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        synchronized (entries) {
+            snapshot.put("size", entries.size());
+        }
+        snapshot.put("maxEntries", maxEntries);
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", missCount);
+        snapshot.put("hitRate", lookups > 0 ? (double) hitCount / lookups : 0.0);
+        snapshot.put("evictions", evictionCounts);
+        return snapshot;
+    }
+
+    // Helper methods
+
+    private void countEviction(String reason, int count) {
+        if (count > 0) {
+            evictions.computeIfAbsent(reason, k -> new LongAdder()).add(count);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase();
+    }
+}
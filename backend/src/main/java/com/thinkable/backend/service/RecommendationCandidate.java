@@ -0,0 +1,55 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.LearningContent;
+
+import java.util.List;
+
+/**
+ * Recommendation candidate produced by a generator stage.
+ * Scores stay primitive doubles through deduplication and ranking; only the selected
+ * candidates are converted into ContentRecommendation entities for persistence.
+ */
+public class RecommendationCandidate {
+
+    private final Long studentId;
+    private final LearningContent content;
+    private final String type;
+    private final double confidence;
+    private final String reasoning;
+    private final List<String> factors;
+    private String optimalTiming;
+
+    // Filled in by RecommendationScoring.scoreFinal during ranking
+    private double relevance;
+    private double successPrediction;
+    private double overallScore;
+
+    public RecommendationCandidate(Long studentId, LearningContent content, String type, double confidence,
+                                   String reasoning, List<String> factors) {
+        this.studentId = studentId;
+        this.content = content;
+        this.type = type;
+        this.confidence = confidence;
+        this.reasoning = reasoning;
+        this.factors = factors;
+    }
+
+    public Long getStudentId() { return studentId; }
+    public LearningContent getContent() { return content; }
+    public String getType() { return type; }
+    public double getConfidence() { return confidence; }
+    public String getReasoning() { return reasoning; }
+    public List<String> getFactors() { return factors; }
+
+    public String getOptimalTiming() { return optimalTiming; }
+    public void setOptimalTiming(String optimalTiming) { this.optimalTiming = optimalTiming; }
+
+    public double getRelevance() { return relevance; }
+    public void setRelevance(double relevance) { this.relevance = relevance; }
+
+    public double getSuccessPrediction() { return successPrediction; }
+    public void setSuccessPrediction(double successPrediction) { this.successPrediction = successPrediction; }
+
+    public double getOverallScore() { return overallScore; }
+    public void setOverallScore(double overallScore) { this.overallScore = overallScore; }
+}
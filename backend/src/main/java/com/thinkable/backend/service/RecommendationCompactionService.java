@@ -0,0 +1,163 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.repository.ContentRecommendationRepository;
+import com.thinkable.backend.repository.RecommendationCompactionWriter;
+import com.thinkable.backend.repository.RecommendationHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Background expiry and compaction of content_recommendations.
+ * Walks the table in primary-key chunks issuing bulk statements only: active rows past their
+ * expiry are deactivated, responded rows older than the retention window are archived into
+ * recommendation_history, and unresponded inactive rows past the window are deleted.
+ */
+@Service
+public class RecommendationCompactionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationCompactionService.class);
+
+    @Autowired
+    private RecommendationCompactionWriter compactionWriter;
+
+    @Autowired
+    @Qualifier("recommendationCompactionExecutor")
+    private ThreadPoolExecutor compactionExecutor;
+
+    @Autowired
+    private ContentRecommendationRepository recommendationRepository;
+
+    @Autowired
+    private RecommendationHistoryRepository historyRepository;
+
+    @Value("${recommendation.compaction.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${recommendation.compaction.retention-days:30}")
+    private int retentionDays;
+
+    private volatile CompactionReport lastReport;
+
+    public static class CompactionReport {
+        private final int expired;
+        private final int archived;
+        private final int deleted;
+        private final long elapsedMillis;
+        private final LocalDateTime finishedAt = LocalDateTime.now();
+
+        public CompactionReport(int expired, int archived, int deleted, long elapsedMillis) {
+            this.expired = expired;
+            this.archived = archived;
+            this.deleted = deleted;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getExpired() { return expired; }
+        public int getArchived() { return archived; }
+        public int getDeleted() { return deleted; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+
+        public int getRowsAffected() {
+            return expired + archived + deleted;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis > 0 ? getRowsAffected() * 1000.0 / elapsedMillis : getRowsAffected();
+        }
+    }
+
+    /**
+     * Scheduled trigger; the bulk statements run on the compaction executor, not the shared scheduler thread
+     */
+    @Scheduled(cron = "${recommendation.compaction.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        try {
+            compactionExecutor.execute(() -> {
+                try {
+                    compact();
+                } catch (Exception e) {
+                    logger.error("Recommendation compaction failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Skipping scheduled recommendation compaction: one is already pending");
+        }
+    }
+
+    /**
+     * Expire, archive and delete in one pass over the table
+     */
+    public synchronized CompactionReport compact() {
+        return run(true);
+    }
+
+    /**
+     * Only deactivate expired recommendations
+     */
+    public synchronized CompactionReport expireNow() {
+        return run(false);
+    }
+
+    public CompactionReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Average feedback rating for an algorithm version across live and archived recommendations
+     */
+    public Double getAverageFeedbackRating(String algorithmVersion) {
+        long[] live = totals(recommendationRepository.getFeedbackTotalsForAlgorithm(algorithmVersion));
+        long[] archived = totals(historyRepository.getFeedbackTotalsForAlgorithm(algorithmVersion));
+        long count = live[1] + archived[1];
+        return count > 0 ? (double) (live[0] + archived[0]) / count : null;
+    }
+
+    // Helper methods
+
+    private CompactionReport run(boolean compactInactive) {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(retentionDays);
+        int expired = 0;
+        int archived = 0;
+        int deleted = 0;
+
+        long[] range = compactionWriter.idRange();
+        if (range != null) {
+            for (long fromId = range[0]; fromId <= range[1]; fromId += chunkSize) {
+                long toId = fromId + chunkSize;
+                expired += compactionWriter.expireRange(fromId, toId, now);
+                if (compactInactive) {
+                    archived += compactionWriter.archiveRespondedRange(fromId, toId, cutoff, now);
+                    deleted += compactionWriter.deleteStaleRange(fromId, toId, cutoff);
+                }
+            }
+        }
+
+        CompactionReport report = new CompactionReport(expired, archived, deleted,
+                (System.nanoTime() - start) / 1_000_000);
+        lastReport = report;
+        logger.info("Recommendation compaction: {} expired, {} archived, {} deleted in {} ms ({} rows/s)",
+                expired, archived, deleted, report.getElapsedMillis(), String.format("%.0f", report.getRowsPerSecond()));
+        return report;
+    }
+
+    private static long[] totals(List<Object[]> rows) {
+        if (rows.isEmpty() || rows.get(0)[0] == null) {
+            return new long[] {0L, 0L};
+        }
+        Object[] row = rows.get(0);
+        return new long[] {((Number) row[0]).longValue(), ((Number) row[1]).longValue()};
+    }
+}
@@ -0,0 +1,44 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.StudentContentInteraction;
+import com.thinkable.backend.entity.UserNeurodivergentProfile;
+
+import java.util.List;
+
+/**
+ * Inputs loaded once per recommendation request and shared by every strategy that runs on it,
+ * so primary and shadow strategies are compared on identical data.
+ * History is loaded with its content fetched, so strategies may read it from any thread.
+ */
+public final class RecommendationContext {
+
+    private final Long studentId;
+    private final UserNeurodivergentProfile profile;
+    private final List<StudentContentInteraction> history;
+    private final ContentIdSet interacted;
+    private final CatalogSnapshot snapshot;
+
+    public RecommendationContext(Long studentId, UserNeurodivergentProfile profile,
+                                 List<StudentContentInteraction> history, ContentIdSet interacted,
+                                 CatalogSnapshot snapshot) {
+        this.studentId = studentId;
+        this.profile = profile;
+        this.history = history;
+        this.interacted = interacted;
+        this.snapshot = snapshot;
+    }
+
+    public Long getStudentId() { return studentId; }
+    public UserNeurodivergentProfile getProfile() { return profile; }
+    public List<StudentContentInteraction> getHistory() { return history; }
+    public ContentIdSet getInteracted() { return interacted; }
+
+    /**
+     * Catalog snapshot of a batch run, or null for on-demand requests that read the live catalog
+     */
+    public CatalogSnapshot getSnapshot() { return snapshot; }
+
+    public boolean isBatch() {
+        return snapshot != null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.LearningContent;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Primitive scoring kernel for recommendation ranking.
+ * Mirrors ContentRecommendation.calculateOverallScore and the engine's final score rules on
+ * doubles; BigDecimal is only produced by {@link #toScore(double)} at the persistence boundary.
+ */
+public final class RecommendationScoring {
+
+    private static final double DEFAULT_RELEVANCE = 0.7;
+    private static final double DEFAULT_SUCCESS_PREDICTION = 0.75;
+
+    private RecommendationScoring() {
+    }
+
+    /**
+     * Map an item-to-item cosine similarity (0-1) onto a 0.5-1.0 confidence range
+     */
+    public static double collaborative(double itemSimilarity) {
+        return 0.5 + 0.5 * Math.min(1.0, itemSimilarity);
+    }
+
+    /**
+     * Relevance from content quality: average rating on a 0-1 scale
+     */
+    public static double relevance(LearningContent content) {
+        return content.getRatingAverage() != null
+                ? content.getRatingAverage().doubleValue() / 5.0
+                : DEFAULT_RELEVANCE;
+    }
+
+    /**
+     * Success prediction from content effectiveness: success rate on a 0-1 scale
+     */
+    public static double successPrediction(LearningContent content) {
+        if (content.getSuccessRate() != null) {
+            double successRate = content.getSuccessRate().doubleValue();
+            if (successRate > 0) {
+                return successRate / 100.0;
+            }
+        }
+        return DEFAULT_SUCCESS_PREDICTION;
+    }
+
+    /**
+     * Weighted overall score, same weights as ContentRecommendation.calculateOverallScore
+     * for recommendations without an accessibility match score
+     */
+    public static double overall(double confidence, double relevance, double successPrediction) {
+        return confidence * 0.3 + relevance * 0.2 + successPrediction * 0.25;
+    }
+
+    public static String priorityLevel(double confidence) {
+        if (confidence >= 0.85) {
+            return "high";
+        } else if (confidence >= 0.65) {
+            return "medium";
+        }
+        return "low";
+    }
+
+    /**
+     * Compute the final scores of a candidate in place and return its overall score
+     */
+    public static double scoreFinal(RecommendationCandidate candidate) {
+        double relevance = relevance(candidate.getContent());
+        double successPrediction = successPrediction(candidate.getContent());
+        double overall = overall(candidate.getConfidence(), relevance, successPrediction);
+        candidate.setRelevance(relevance);
+        candidate.setSuccessPrediction(successPrediction);
+        candidate.setOverallScore(overall);
+        return overall;
+    }
+
+    /**
+     * Convert a score to the three-decimal BigDecimal stored on ContentRecommendation
+     */
+    public static BigDecimal toScore(double score) {
+        return BigDecimal.valueOf(score).setScale(3, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,95 @@
+package com.thinkable.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for the recommendation generator stages,
+ * plus the state of the executor they run on
+ */
+@Service
+public class RecommendationStageMetrics {
+
+    @Autowired
+    @Qualifier("recommendationStageExecutor")
+    private ThreadPoolExecutor stageExecutor;
+
+    private final Map<String, StageStats> stages = new ConcurrentHashMap<>();
+
+    private static class StageStats {
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder candidates = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+    }
+
+    public void recordCompleted(String stage, long elapsedNanos, int candidateCount) {
+        StageStats stats = stats(stage);
+        stats.completed.increment();
+        stats.totalNanos.add(elapsedNanos);
+        stats.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        stats.candidates.add(candidateCount);
+    }
+
+    public void recordTimeout(String stage) {
+        stats(stage).timeouts.increment();
+    }
+
+    public void recordFailure(String stage) {
+        stats(stage).failures.increment();
+    }
+
+    public void recordRejection(String stage) {
+        stats(stage).rejections.increment();
+    }
+
+    /**
+     * Per-stage averages and counts in milliseconds, keyed by stage name
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stageSnapshots = new LinkedHashMap<>();
+        stages.forEach((name, stats) -> {
+            long completed = stats.completed.sum();
+            Map<String, Object> stage = new LinkedHashMap<>();
+            stage.put("completed", completed);
+            stage.put("averageMillis", completed > 0 ? nanosToMillis(stats.totalNanos.sum() / (double) completed) : 0.0);
+            stage.put("maxMillis", nanosToMillis(stats.maxNanos.get()));
+            stage.put("averageCandidates", completed > 0 ? stats.candidates.sum() / (double) completed : 0.0);
+            stage.put("timeouts", stats.timeouts.sum());
+            stage.put("failures", stats.failures.sum());
+            stage.put("rejections", stats.rejections.sum());
+            stageSnapshots.put(name, stage);
+        });
+
+        Map<String, Object> executor = new LinkedHashMap<>();
+        executor.put("poolSize", stageExecutor.getPoolSize());
+        executor.put("activeThreads", stageExecutor.getActiveCount());
+        executor.put("queuedTasks", stageExecutor.getQueue().size());
+        executor.put("completedTasks", stageExecutor.getCompletedTaskCount());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("stages", stageSnapshots);
+        snapshot.put("executor", executor);
+        return snapshot;
+    }
+
+    private StageStats stats(String stage) {
+        return stages.computeIfAbsent(stage, k -> new StageStats());
+    }
+
+    private static double nanosToMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
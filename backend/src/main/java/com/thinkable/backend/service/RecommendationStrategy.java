@@ -0,0 +1,21 @@
+package com.thinkable.backend.service;
+
+import java.util.List;
+
+/**
+ * A recommendation algorithm, identified by the version stored on the recommendations it produces.
+ * Implementations are Spring beans; one serves traffic as the primary and others may run as
+ * shadows on sampled requests (see RecommendationStrategyRunner).
+ */
+public interface RecommendationStrategy {
+
+    /**
+     * Algorithm version recorded in ContentRecommendation.algorithmVersion
+     */
+    String getVersion();
+
+    /**
+     * Ranked candidates for the student, best first, with final scores computed
+     */
+    List<RecommendationCandidate> recommend(RecommendationContext context);
+}
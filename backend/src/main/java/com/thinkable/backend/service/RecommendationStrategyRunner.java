@@ -0,0 +1,207 @@
+package com.thinkable.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shadow-mode A/B runner for recommendation strategies.
+ * The configured primary strategy serves every request. On a sampled fraction of requests the
+ * shadow strategies run asynchronously on the same inputs; their results are never persisted,
+ * only their latency, candidate counts and overlap@k with the primary ranking are recorded,
+ * so a cheaper strategy can be promoted once the numbers support it.
+ */
+@Service
+public class RecommendationStrategyRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationStrategyRunner.class);
+
+    private static final int OVERLAP_K = 10;
+
+    // Resolved lazily: the engine is itself a strategy and depends on this runner
+    @Autowired
+    private ObjectProvider<RecommendationStrategy> strategies;
+
+    @Autowired
+    @Qualifier("recommendationShadowExecutor")
+    private ExecutorService shadowExecutor;
+
+    @Value("${recommendation.strategy.primary:" + ContentRecommendationEngine.ALGORITHM_VERSION + "}")
+    private String primaryVersion;
+
+    @Value("${recommendation.strategy.shadows:}")
+    private String shadowVersions;
+
+    @Value("${recommendation.strategy.shadow-sample-rate:0.1}")
+    private double shadowSampleRate;
+
+    private final Map<String, StrategyStats> stats = new ConcurrentHashMap<>();
+
+    private static class StrategyStats {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder candidates = new LongAdder();
+        private final DoubleAdder overlapSum = new DoubleAdder();
+        private final LongAdder overlapSamples = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+    }
+
+    /**
+     * The strategy serving traffic; falls back to the built-in engine if the configured version is unknown
+     */
+    public RecommendationStrategy getPrimary() {
+        RecommendationStrategy primary = find(primaryVersion);
+        if (primary == null) {
+            logger.warn("Primary recommendation strategy {} not found, using {}",
+                    primaryVersion, ContentRecommendationEngine.ALGORITHM_VERSION);
+            primary = find(ContentRecommendationEngine.ALGORITHM_VERSION);
+        }
+        return primary;
+    }
+
+    /**
+     * Run the primary strategy on the calling thread, record it, and start the shadows if the request is sampled
+     */
+    public List<RecommendationCandidate> runPrimary(RecommendationStrategy primary, RecommendationContext context) {
+        long start = System.nanoTime();
+        List<RecommendationCandidate> ranked = primary.recommend(context);
+        recordRun(primary.getVersion(), System.nanoTime() - start, ranked.size(), -1.0);
+
+        if (shadowSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < shadowSampleRate) {
+            startShadows(primary.getVersion(), context, topContentIds(ranked));
+        }
+        return ranked;
+    }
+
+    /**
+     * Per-version latency, candidate counts, overlap@k with the primary and shadow failures
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> versions = new TreeMap<>();
+        stats.forEach((version, s) -> {
+            long runs = s.runs.sum();
+            long overlapSamples = s.overlapSamples.sum();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("runs", runs);
+            entry.put("avgMillis", runs > 0 ? s.totalNanos.sum() / 1_000_000.0 / runs : 0.0);
+            entry.put("maxMillis", s.maxNanos.get() / 1_000_000.0);
+            entry.put("avgCandidates", runs > 0 ? (double) s.candidates.sum() / runs : 0.0);
+            entry.put("overlapAtK", overlapSamples > 0 ? s.overlapSum.sum() / overlapSamples : null);
+            entry.put("failures", s.failures.sum());
+            entry.put("dropped", s.dropped.sum());
+            versions.put(version, entry);
+        });
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("primary", primaryVersion);
+        snapshot.put("shadows", shadowVersionList());
+        snapshot.put("sampleRate", shadowSampleRate);
+        snapshot.put("overlapK", OVERLAP_K);
+        snapshot.put("versions", versions);
+        return snapshot;
+    }
+
+    // Helper methods
+
+    private void startShadows(String primaryVersion, RecommendationContext context, Set<Long> primaryTop) {
+        for (String version : shadowVersionList()) {
+            if (version.equals(primaryVersion)) {
+                continue;
+            }
+            RecommendationStrategy shadow = find(version);
+            if (shadow == null) {
+                continue;
+            }
+            try {
+                shadowExecutor.execute(() -> runShadow(shadow, context, primaryTop));
+            } catch (RejectedExecutionException e) {
+                stats(version).dropped.increment();
+            }
+        }
+    }
+
+    private void runShadow(RecommendationStrategy shadow, RecommendationContext context, Set<Long> primaryTop) {
+        long start = System.nanoTime();
+        try {
+            List<RecommendationCandidate> ranked = shadow.recommend(context);
+            long elapsed = System.nanoTime() - start;
+            recordRun(shadow.getVersion(), elapsed, ranked.size(), overlapAtK(primaryTop, topContentIds(ranked)));
+        } catch (Exception e) {
+            stats(shadow.getVersion()).failures.increment();
+            logger.debug("Shadow recommendation strategy {} failed for student {}",
+                    shadow.getVersion(), context.getStudentId(), e);
+        }
+    }
+
+    private void recordRun(String version, long elapsedNanos, int candidateCount, double overlap) {
+        StrategyStats s = stats(version);
+        s.runs.increment();
+        s.totalNanos.add(elapsedNanos);
+        s.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        s.candidates.add(candidateCount);
+        if (overlap >= 0) {
+            s.overlapSum.add(overlap);
+            s.overlapSamples.increment();
+        }
+    }
+
+    /**
+     * Share of the primary's top-k content that also appears in the shadow's top-k
+     */
+    private static double overlapAtK(Set<Long> primaryTop, Set<Long> shadowTop) {
+        if (primaryTop.isEmpty()) {
+            return shadowTop.isEmpty() ? 1.0 : 0.0;
+        }
+        int shared = 0;
+        for (Long contentId : shadowTop) {
+            if (primaryTop.contains(contentId)) {
+                shared++;
+            }
+        }
+        return (double) shared / primaryTop.size();
+    }
+
+    private static Set<Long> topContentIds(List<RecommendationCandidate> ranked) {
+        Set<Long> top = new HashSet<>();
+        for (int i = 0; i < ranked.size() && i < OVERLAP_K; i++) {
+            top.add(ranked.get(i).getContent().getId());
+        }
+        return top;
+    }
+
+    private RecommendationStrategy find(String version) {
+        return strategies.stream()
+                .filter(strategy -> strategy.getVersion().equals(version))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private List<String> shadowVersionList() {
+        List<String> versions = new ArrayList<>();
+        for (String version : shadowVersions.split(",")) {
+            if (!version.trim().isEmpty()) {
+                versions.add(version.trim());
+            }
+        }
+        return versions;
+    }
+
+    private StrategyStats stats(String version) {
+        return stats.computeIfAbsent(version, k -> new StrategyStats());
+    }
+}
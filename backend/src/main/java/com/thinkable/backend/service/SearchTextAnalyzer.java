@@ -0,0 +1,164 @@
+package com.thinkable.backend.service;
+
+import java.util.*;
+
+/**
+ * Tokenizer and light English stemmer shared by the content search index and its queries.
+ * Text is lowercased, split on anything that is not a letter or digit, stripped of stopwords
+ * and reduced to a stem, so "Fractions", "fraction's" and "fraction" all index as "fraction".
+ */
+public final class SearchTextAnalyzer {
+
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOPWORDS = new HashSet<>(Arrays.asList(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "in",
+        "into", "is", "it", "its", "of", "on", "or", "that", "the", "their", "then", "there", "these",
+        "this", "to", "was", "were", "will", "with", "you", "your"
+    ));
+
+    /**
+     * Receives each analyzed term with the character range [start, end) it came from.
+     * Return false to stop the analysis early.
+     */
+    public interface TermSink {
+        boolean accept(String term, int start, int end);
+    }
+
+    private SearchTextAnalyzer() {
+    }
+
+    /**
+     * Analyzed terms of the text in order of appearance, duplicates included
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        analyze(text, (term, start, end) -> terms.add(term));
+        return terms;
+    }
+
+    /**
+     * Feed the analyzed terms of the text to the sink in order of appearance.
+     * The n-th term passed is term position n of the text.
+     */
+    public static void analyze(String text, TermSink sink) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (token.length() == 0) {
+                    start = i;
+                }
+                token.append(Character.toLowerCase(c));
+            } else if (c == '\'' && token.length() > 0) {
+                // Possessives and contractions: keep reading, the apostrophe itself is dropped
+                continue;
+            } else if (token.length() > 0) {
+                String term = term(token.toString());
+                token.setLength(0);
+                if (term != null && !sink.accept(term, start, i)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Normalize a single raw token; null if it is a stopword or outside the indexed length range
+     */
+    public static String term(String token) {
+        String lower = token.toLowerCase(Locale.ROOT);
+        if (lower.length() < MIN_TERM_LENGTH || lower.length() > MAX_TERM_LENGTH || STOPWORDS.contains(lower)) {
+            return null;
+        }
+        return stem(lower);
+    }
+
+    /**
+     * Lowercased last token of a query as typed, unstemmed, for prefix expansion;
+     * empty if the query ends on a separator
+     */
+    public static String trailingToken(String query) {
+        if (query == null) {
+            return "";
+        }
+        int end = query.length();
+        int start = end;
+        while (start > 0 && Character.isLetterOrDigit(query.charAt(start - 1))) {
+            start--;
+        }
+        return query.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Suffix-stripping stemmer covering plurals, -ing/-ed, -ly and the common derivational endings.
+     * It is deliberately conservative: stems are only used for matching, never shown.
+     */
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String w = word;
+
+        // Plurals
+        if (w.endsWith("sses")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("ies") && w.length() > 4) {
+            w = w.substring(0, w.length() - 3) + "y";
+        } else if (w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us") && !w.endsWith("is")) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        // Verb forms
+        if (w.endsWith("ing") && hasVowel(w, w.length() - 3) && w.length() > 5) {
+            w = undouble(w.substring(0, w.length() - 3));
+        } else if (w.endsWith("ed") && hasVowel(w, w.length() - 2) && w.length() > 4) {
+            w = undouble(w.substring(0, w.length() - 2));
+        }
+
+        // Derivational endings
+        w = replaceSuffix(w, "ational", "ate");
+        w = replaceSuffix(w, "ization", "ize");
+        w = replaceSuffix(w, "fulness", "ful");
+        w = replaceSuffix(w, "iveness", "ive");
+        w = replaceSuffix(w, "ousness", "ous");
+        w = replaceSuffix(w, "ation", "ate");
+        w = replaceSuffix(w, "ement", "e");
+        w = replaceSuffix(w, "ness", "");
+        w = replaceSuffix(w, "ment", "");
+        w = replaceSuffix(w, "ally", "al");
+        w = replaceSuffix(w, "ly", "");
+        return w;
+    }
+
+    // Helper methods
+
+    private static String replaceSuffix(String word, String suffix, String replacement) {
+        if (word.endsWith(suffix) && word.length() - suffix.length() >= 3) {
+            return word.substring(0, word.length() - suffix.length()) + replacement;
+        }
+        return word;
+    }
+
+    private static String undouble(String word) {
+        int n = word.length();
+        if (n >= 2 && word.charAt(n - 1) == word.charAt(n - 2) && "lsz".indexOf(word.charAt(n - 1)) < 0) {
+            return word.substring(0, n - 1);
+        }
+        return word;
+    }
+
+    private static boolean hasVowel(String word, int end) {
+        for (int i = 0; i < end; i++) {
+            if ("aeiouy".indexOf(word.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -34,22 +34,9 @@ public class TextExtractionService {
      */
     public String extractTextFromFile(String filePath, String fileName) {
         try {
-            // Construct full path - files are stored in uploads/content (relative to backend directory)
-            Path fullPath = Paths.get("uploads/content/" + filePath);
-            
-            logger.info("Looking for file at: {}", fullPath.toAbsolutePath());
-            
-            if (!Files.exists(fullPath)) {
-                logger.error("File not found: {}", fullPath.toAbsolutePath());
-                // Try alternative path
-                Path altPath = Paths.get("uploads/" + filePath);
-                logger.info("Trying alternative path: {}", altPath.toAbsolutePath());
-                if (Files.exists(altPath)) {
-                    fullPath = altPath;
-                    logger.info("Found file at alternative path: {}", fullPath.toAbsolutePath());
-                } else {
-                    return "Error: File not found.";
-                }
+            Path fullPath = resolveLocalFile(filePath);
+            if (fullPath == null) {
+                return "Error: File not found.";
             }
             
             // Get file extension to determine extraction method
@@ -289,32 +276,7 @@ public class TextExtractionService {
      */
     private String extractTextFromCloudinaryFile(String cloudinaryUrl, String fileName) {
         try {
-            // Check if this is a GCS URL and generate signed URL if needed
-            String downloadUrl = cloudinaryUrl;
-            if (cloudinaryUrl.contains("storage.googleapis.com")) {
-                logger.info("Detected GCS file, generating signed URL for: {}", cloudinaryUrl);
-                
-                // Extract object name from GCS media link
-                // Format: https://storage.googleapis.com/download/storage/v1/b/bucket-name/o/object-name?...
-                String objectName = extractGCSObjectName(cloudinaryUrl);
-                if (objectName != null) {
-                    downloadUrl = gcsService.generateSignedUrl(objectName, 60);
-                    logger.info("Generated GCS signed URL for text extraction");
-                } else {
-                    logger.warn("Could not extract object name from GCS URL: {}", cloudinaryUrl);
-                }
-            }
-            
-            logger.info("Downloading file for text extraction from: {}", downloadUrl.substring(0, Math.min(100, downloadUrl.length())) + "...");
-            
-            // Download the file
-            URL url = new URL(downloadUrl);
-            URLConnection connection = url.openConnection();
-            
-            // Set user agent to avoid 401 errors
-            connection.setRequestProperty("User-Agent", "ThinkAble-TextExtractor/1.0");
-            
-            try (InputStream inputStream = connection.getInputStream()) {
+            try (InputStream inputStream = openRemoteFile(cloudinaryUrl)) {
                 // Get file extension to determine extraction method
                 String extension = getFileExtension(fileName).toLowerCase();
                 
@@ -337,6 +299,96 @@ public class TextExtractionService {
         }
     }
     
+    /**
+     * Body text of a PDF or TXT content file for the search index. Returns null for other formats and
+     * for files without extractable text; unlike extractTextFromContent it never returns placeholder text.
+     */
+    public String extractIndexableText(LearningContent content) throws IOException {
+        String extension = getFileExtension(content.getFileName()).toLowerCase();
+        if (!extension.equals("pdf") && !extension.equals("txt")) {
+            return null;
+        }
+        
+        InputStream inputStream;
+        if (content.getCloudinarySecureUrl() != null && !content.getCloudinarySecureUrl().isEmpty()) {
+            inputStream = openRemoteFile(content.getCloudinarySecureUrl());
+        } else {
+            Path path = content.getFilePath() != null ? resolveLocalFile(content.getFilePath()) : null;
+            if (path == null) {
+                return null;
+            }
+            inputStream = Files.newInputStream(path);
+        }
+        
+        try (InputStream in = inputStream) {
+            String text;
+            if (extension.equals("pdf")) {
+                try (PDDocument document = PDDocument.load(in)) {
+                    PDFTextStripper textStripper = new PDFTextStripper();
+                    textStripper.setSortByPosition(true);
+                    text = textStripper.getText(document);
+                }
+            } else {
+                text = extractTextFromTXTStream(in);
+            }
+            return text == null || text.trim().isEmpty() ? null : text.trim();
+        }
+    }
+    
+    /**
+     * Locate an uploaded file under uploads/content, falling back to uploads (relative to the backend directory)
+     */
+    private Path resolveLocalFile(String filePath) {
+        Path fullPath = Paths.get("uploads/content/" + filePath);
+        
+        logger.info("Looking for file at: {}", fullPath.toAbsolutePath());
+        
+        if (!Files.exists(fullPath)) {
+            logger.error("File not found: {}", fullPath.toAbsolutePath());
+            // Try alternative path
+            Path altPath = Paths.get("uploads/" + filePath);
+            logger.info("Trying alternative path: {}", altPath.toAbsolutePath());
+            if (!Files.exists(altPath)) {
+                return null;
+            }
+            fullPath = altPath;
+            logger.info("Found file at alternative path: {}", fullPath.toAbsolutePath());
+        }
+        return fullPath;
+    }
+    
+    /**
+     * Open a stored file for download, signing GCS media links first
+     */
+    private InputStream openRemoteFile(String fileUrl) throws IOException {
+        // Check if this is a GCS URL and generate signed URL if needed
+        String downloadUrl = fileUrl;
+        if (fileUrl.contains("storage.googleapis.com")) {
+            logger.info("Detected GCS file, generating signed URL for: {}", fileUrl);
+            
+            // Extract object name from GCS media link
+            // Format: https://storage.googleapis.com/download/storage/v1/b/bucket-name/o/object-name?...
+            String objectName = extractGCSObjectName(fileUrl);
+            if (objectName != null) {
+                downloadUrl = gcsService.generateSignedUrl(objectName, 60);
+                logger.info("Generated GCS signed URL for text extraction");
+            } else {
+                logger.warn("Could not extract object name from GCS URL: {}", fileUrl);
+            }
+        }
+        
+        logger.info("Downloading file for text extraction from: {}", downloadUrl.substring(0, Math.min(100, downloadUrl.length())) + "...");
+        
+        // Download the file
+        URL url = new URL(downloadUrl);
+        URLConnection connection = url.openConnection();
+        
+        // Set user agent to avoid 401 errors
+        connection.setRequestProperty("User-Agent", "ThinkAble-TextExtractor/1.0");
+        
+        return connection.getInputStream();
+    }
+    
     /**
      * Extract text from PDF using InputStream
      */
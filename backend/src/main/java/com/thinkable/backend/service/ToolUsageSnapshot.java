@@ -0,0 +1,167 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.UserToolUsage;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Columnar copy of one user's recent tool usage for pattern analysis.
+ * Loaded once per analysis run and read by every analyzer, so the usage is queried and walked
+ * as primitive arrays instead of each analyzer re-querying and streaming over entities.
+ * Rows are sorted by timestamp; rows from {@link #weekStart()} on fall in the last week.
+ * Missing integer values are stored as {@link #NONE}; tool and context names are dictionary IDs.
+ */
+public final class ToolUsageSnapshot {
+
+    /**
+     * Stored in place of a null rating, energy level, duration or day of week
+     */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    /**
+     * Time slot names by slot ID, matching {@link UserToolUsage#getTimeSlot()}
+     */
+    public static final String[] TIME_SLOTS = {
+        "late_night", "early_morning", "late_morning", "early_afternoon",
+        "late_afternoon", "early_evening", "late_evening"
+    };
+
+    final long[] timestamps;
+    final int[] hours;
+    final int[] energy;
+    final int[] ratings;
+    final int[] durations;
+    final int[] daysOfWeek;
+    final int[] toolIds;
+    final int[] contextIds;
+
+    private final String[] toolNames;
+    private final String[] contextNames;
+    private final int size;
+    private final int weekStart;
+
+    /**
+     * @param usage the user's usage since the start of the analysed period, in any order
+     * @param weekAgo start of the last week; earlier rows only count for long-window analyzers
+     */
+    public ToolUsageSnapshot(List<UserToolUsage> usage, LocalDateTime weekAgo) {
+        List<UserToolUsage> rows = new ArrayList<>(usage.size());
+        for (UserToolUsage row : usage) {
+            if (row.getUsageTimestamp() != null) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparing(UserToolUsage::getUsageTimestamp));
+
+        size = rows.size();
+        timestamps = new long[size];
+        hours = new int[size];
+        energy = new int[size];
+        ratings = new int[size];
+        durations = new int[size];
+        daysOfWeek = new int[size];
+        toolIds = new int[size];
+        contextIds = new int[size];
+
+        Map<String, Integer> tools = new LinkedHashMap<>();
+        Map<String, Integer> contexts = new LinkedHashMap<>();
+        long weekAgoSecond = weekAgo.toEpochSecond(ZoneOffset.UTC);
+        int firstInWeek = size;
+        for (int i = 0; i < size; i++) {
+            UserToolUsage row = rows.get(i);
+            timestamps[i] = row.getUsageTimestamp().toEpochSecond(ZoneOffset.UTC);
+            hours[i] = row.getUsageTimestamp().getHour();
+            energy[i] = valueOrNone(row.getUserEnergyLevel());
+            ratings[i] = valueOrNone(row.getSuccessRating());
+            durations[i] = valueOrNone(row.getSessionDurationMinutes());
+            daysOfWeek[i] = valueOrNone(row.getDayOfWeek());
+            toolIds[i] = row.getToolName() == null ? -1 : tools.computeIfAbsent(row.getToolName(), k -> tools.size());
+            contextIds[i] = row.getActivityContext() == null ? -1
+                    : contexts.computeIfAbsent(row.getActivityContext(), k -> contexts.size());
+            if (firstInWeek == size && timestamps[i] >= weekAgoSecond) {
+                firstInWeek = i;
+            }
+        }
+        weekStart = firstInWeek;
+        toolNames = tools.keySet().toArray(new String[0]);
+        contextNames = contexts.keySet().toArray(new String[0]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Index of the first row of the last week
+     */
+    public int weekStart() {
+        return weekStart;
+    }
+
+    /**
+     * Number of rows in the last week
+     */
+    public int weekSize() {
+        return size - weekStart;
+    }
+
+    /**
+     * Dictionary ID of a tool name, or -1 if the user did not use it
+     */
+    public int toolId(String toolName) {
+        for (int i = 0; i < toolNames.length; i++) {
+            if (toolNames[i].equals(toolName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String toolName(int toolId) {
+        return toolNames[toolId];
+    }
+
+    public int toolCount() {
+        return toolNames.length;
+    }
+
+    public String contextName(int contextId) {
+        return contextNames[contextId];
+    }
+
+    public int contextCount() {
+        return contextNames.length;
+    }
+
+    /**
+     * Time slot ID of row i
+     */
+    public int timeSlot(int i) {
+        return timeSlotOfHour(hours[i]);
+    }
+
+    /**
+     * Same rule as UserToolUsage.isSuccessful(): a rating of 7 or more
+     */
+    public boolean isSuccessful(int i) {
+        return ratings[i] != NONE && ratings[i] >= 7;
+    }
+
+    public static int timeSlotOfHour(int hour) {
+        if (hour < 6) return 0;
+        if (hour < 9) return 1;
+        if (hour < 12) return 2;
+        if (hour < 15) return 3;
+        if (hour < 18) return 4;
+        if (hour < 21) return 5;
+        return 6;
+    }
+
+    // Helper methods
+
+    private static int valueOrNone(Integer value) {
+        return value == null ? NONE : value;
+    }
+}
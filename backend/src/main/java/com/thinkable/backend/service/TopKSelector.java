@@ -0,0 +1,148 @@
+package com.thinkable.backend.service;
+
+/**
+ * Bounded top-K selection over primitive (item, score) pairs.
+ * Keeps a binary min-heap of the K best scores seen so far in parallel arrays, so each offer
+ * is O(log K) with no allocation. Equal scores keep the item with the lower tie key,
+ * which defaults to the item itself, so by default the earlier item wins.
+ */
+public final class TopKSelector {
+
+    private final int capacity;
+    private final int[] items;
+    private final double[] scores;
+    private final long[] tieKeys;
+    private int size;
+
+    public TopKSelector(int k) {
+        this.capacity = Math.max(0, k);
+        this.items = new int[capacity];
+        this.scores = new double[capacity];
+        this.tieKeys = new long[capacity];
+    }
+
+    /**
+     * Offer an item; returns true if it is currently among the top K
+     */
+    public boolean offer(int item, double score) {
+        return offer(item, score, item);
+    }
+
+    /**
+     * Offer an item that loses ties to items with a lower tie key
+     */
+    public boolean offer(int item, double score, long tieKey) {
+        if (size < capacity) {
+            items[size] = item;
+            scores[size] = score;
+            tieKeys[size] = tieKey;
+            siftUp(size++);
+            return true;
+        }
+        if (capacity == 0 || !worse(scores[0], tieKeys[0], score, tieKey)) {
+            return false;
+        }
+        items[0] = item;
+        scores[0] = score;
+        tieKeys[0] = tieKey;
+        siftDown(0);
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Lowest score currently kept, or negative infinity while fewer than K items were offered
+     */
+    public double threshold() {
+        return size < capacity ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /**
+     * Remove all kept items and return them ordered best first
+     */
+    public int[] drainDescending() {
+        return drainDescending(null);
+    }
+
+    /**
+     * Remove all kept items and return them ordered best first, writing their scores
+     * to {@code orderedScores} when it is not null
+     */
+    public int[] drainDescending(double[] orderedScores) {
+        int[] ordered = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ordered[i] = items[0];
+            if (orderedScores != null) {
+                orderedScores[i] = scores[0];
+            }
+            size--;
+            items[0] = items[size];
+            scores[0] = scores[size];
+            tieKeys[0] = tieKeys[size];
+            siftDown(0);
+        }
+        return ordered;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Helper methods
+
+    private void siftUp(int index) {
+        int item = items[index];
+        double score = scores[index];
+        long tieKey = tieKeys[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!worse(score, tieKey, scores[parent], tieKeys[parent])) {
+                break;
+            }
+            items[index] = items[parent];
+            scores[index] = scores[parent];
+            tieKeys[index] = tieKeys[parent];
+            index = parent;
+        }
+        items[index] = item;
+        scores[index] = score;
+        tieKeys[index] = tieKey;
+    }
+
+    private void siftDown(int index) {
+        if (size == 0) {
+            return;
+        }
+        int item = items[index];
+        double score = scores[index];
+        long tieKey = tieKeys[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && worse(scores[right], tieKeys[right], scores[child], tieKeys[child])) {
+                child = right;
+            }
+            if (!worse(scores[child], tieKeys[child], score, tieKey)) {
+                break;
+            }
+            items[index] = items[child];
+            scores[index] = scores[child];
+            tieKeys[index] = tieKeys[child];
+            index = child;
+        }
+        items[index] = item;
+        scores[index] = score;
+        tieKeys[index] = tieKey;
+    }
+
+    /**
+     * Heap order: lower score first; among equal scores the higher tie key ranks worse
+     */
+    private static boolean worse(double scoreA, long tieKeyA, double scoreB, long tieKeyB) {
+        return scoreA < scoreB || (scoreA == scoreB && tieKeyA > tieKeyB);
+    }
+}
@@ -0,0 +1,338 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.ContentTrendingCounter;
+import com.thinkable.backend.repository.ContentTrendingCounterRepository;
+import com.thinkable.backend.repository.TrendingCounterWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Time-decayed trending counters per content item over 1h, 24h and 7d windows.
+ * Every interaction adds exp(-age / window) to each window, so a window's score approximates
+ * the number of interactions within that window and old activity fades instead of counting forever.
+ * Scores are kept forward-decayed against a shared landmark time: they only grow between events
+ * and decay uniformly, so the ranking never changes by itself and a bounded top-N per window stays
+ * exact when updated on each event. Counters are checkpointed to content_trending_counters.
+ */
+@Service
+public class TrendingCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingCounters.class);
+
+    public enum Window {
+        HOUR("1h", Duration.ofHours(1)),
+        DAY("24h", Duration.ofHours(24)),
+        WEEK("7d", Duration.ofDays(7));
+
+        private final String label;
+        private final double millis;
+
+        Window(String label, Duration length) {
+            this.label = label;
+            this.millis = length.toMillis();
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Window fromLabel(String label) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(label)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Unknown trending window: " + label);
+        }
+    }
+
+    private static final Window[] WINDOWS = Window.values();
+
+    // Counters whose weekly score has decayed below this are dropped at checkpoint
+    private static final double PRUNE_BELOW = 0.01;
+
+    // Forward-decayed hourly scores grow by e every hour; rebase long before a double could overflow
+    private static final long REBASE_AFTER_MILLIS = Duration.ofHours(24).toMillis();
+
+    private static final Comparator<Ranked> RANK_ORDER =
+            Comparator.comparingDouble((Ranked r) -> r.forward).thenComparingLong(r -> r.contentId);
+
+    @Autowired
+    private ContentTrendingCounterRepository counterRepository;
+
+    @Autowired
+    private TrendingCounterWriter counterWriter;
+
+    @Value("${recommendation.trending.top-size:200}")
+    private int topSize;
+
+    // All state below is guarded by this
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final EnumMap<Window, TopN> tops = new EnumMap<>(Window.class);
+    private long landmarkMillis = System.currentTimeMillis();
+
+    private volatile LocalDateTime lastCheckpointAt;
+
+    public static class Trend {
+        private final long contentId;
+        private final double score;
+
+        public Trend(long contentId, double score) {
+            this.contentId = contentId;
+            this.score = score;
+        }
+
+        public long getContentId() { return contentId; }
+        public double getScore() { return score; }
+    }
+
+    private static final class Counter {
+        private final double[] forward = new double[WINDOWS.length];
+        private boolean dirty;
+    }
+
+    private static final class Ranked {
+        private final long contentId;
+        private double forward;
+
+        private Ranked(long contentId, double forward) {
+            this.contentId = contentId;
+            this.forward = forward;
+        }
+    }
+
+    /**
+     * The highest forward-decayed scores of one window, lowest first
+     */
+    private static final class TopN {
+        private final int capacity;
+        private final TreeSet<Ranked> ranked = new TreeSet<>(RANK_ORDER);
+        private final Map<Long, Ranked> members = new HashMap<>();
+
+        private TopN(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void update(long contentId, double forward) {
+            Ranked member = members.get(contentId);
+            if (member != null) {
+                ranked.remove(member);
+                member.forward = forward;
+                ranked.add(member);
+                return;
+            }
+            if (ranked.size() >= capacity) {
+                if (forward <= ranked.first().forward) {
+                    return;
+                }
+                members.remove(ranked.pollFirst().contentId);
+            }
+            member = new Ranked(contentId, forward);
+            ranked.add(member);
+            members.put(contentId, member);
+        }
+
+        private void clear() {
+            ranked.clear();
+            members.clear();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        for (Window window : WINDOWS) {
+            tops.put(window, new TopN(topSize));
+        }
+        try {
+            load();
+        } catch (Exception e) {
+            logger.error("Failed to load trending counters", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    /**
+     * Count one interaction with the content now
+     */
+    public void record(Long contentId) {
+        if (contentId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (now - landmarkMillis > REBASE_AFTER_MILLIS) {
+                rebaseLocked(now);
+            }
+            Counter counter = counters.computeIfAbsent(contentId, k -> new Counter());
+            for (Window window : WINDOWS) {
+                int w = window.ordinal();
+                counter.forward[w] += Math.exp((now - landmarkMillis) / window.millis);
+                tops.get(window).update(contentId, counter.forward[w]);
+            }
+            counter.dirty = true;
+        }
+    }
+
+    /**
+     * Most trending content of a window, highest score first
+     */
+    public List<Trend> top(Window window, int limit) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            List<Trend> trends = new ArrayList<>(Math.min(limit, topSize));
+            Iterator<Ranked> iterator = tops.get(window).ranked.descendingIterator();
+            while (iterator.hasNext() && trends.size() < limit) {
+                Ranked ranked = iterator.next();
+                trends.add(new Trend(ranked.contentId, decayLocked(ranked.forward, window, now)));
+            }
+            return trends;
+        }
+    }
+
+    /**
+     * Current decayed score of a content item in a window
+     */
+    public double score(Window window, long contentId) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Counter counter = counters.get(contentId);
+            return counter != null ? decayLocked(counter.forward[window.ordinal()], window, now) : 0.0;
+        }
+    }
+
+    public LocalDateTime getLastCheckpointAt() {
+        return lastCheckpointAt;
+    }
+
+    /**
+     * Write counters changed since the last checkpoint and drop those that have decayed away
+     */
+    @Scheduled(fixedDelayString = "${recommendation.trending.checkpoint-ms:60000}",
+               initialDelayString = "${recommendation.trending.checkpoint-ms:60000}")
+    public void checkpoint() {
+        long now = System.currentTimeMillis();
+        LocalDateTime updatedAt = toLocalDateTime(now);
+        List<ContentTrendingCounter> changed = new ArrayList<>();
+        List<Long> pruned = new ArrayList<>();
+
+        synchronized (this) {
+            Iterator<Map.Entry<Long, Counter>> iterator = counters.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Counter> entry = iterator.next();
+                Counter counter = entry.getValue();
+                if (decayLocked(counter.forward[Window.WEEK.ordinal()], Window.WEEK, now) < PRUNE_BELOW) {
+                    iterator.remove();
+                    pruned.add(entry.getKey());
+                } else if (counter.dirty) {
+                    changed.add(toRow(entry.getKey(), counter, now, updatedAt));
+                    counter.dirty = false;
+                }
+            }
+            if (!pruned.isEmpty()) {
+                rebuildTopsLocked();
+            }
+        }
+
+        try {
+            counterWriter.upsertCounters(changed);
+            if (!pruned.isEmpty()) {
+                counterRepository.deleteAllByIdInBatch(pruned);
+            }
+            lastCheckpointAt = updatedAt;
+        } catch (Exception e) {
+            logger.error("Failed to checkpoint {} trending counters", changed.size(), e);
+            synchronized (this) {
+                for (ContentTrendingCounter row : changed) {
+                    Counter counter = counters.get(row.getContentId());
+                    if (counter != null) {
+                        counter.dirty = true;
+                    }
+                }
+            }
+        }
+    }
+
+    // Helper methods
+
+    private void load() {
+        List<ContentTrendingCounter> rows = counterRepository.findAll();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            counters.clear();
+            landmarkMillis = now;
+            for (ContentTrendingCounter row : rows) {
+                long age = Math.max(0, now - toEpochMillis(row.getUpdatedAt()));
+                Counter counter = new Counter();
+                counter.forward[Window.HOUR.ordinal()] = decay(row.getScore1h(), Window.HOUR, age);
+                counter.forward[Window.DAY.ordinal()] = decay(row.getScore24h(), Window.DAY, age);
+                counter.forward[Window.WEEK.ordinal()] = decay(row.getScore7d(), Window.WEEK, age);
+                counters.put(row.getContentId(), counter);
+            }
+            rebuildTopsLocked();
+        }
+        logger.info("Trending counters loaded for {} content items", rows.size());
+    }
+
+    /**
+     * Move the landmark to now, scaling every score down by the same factor per window
+     */
+    private void rebaseLocked(long now) {
+        long shift = now - landmarkMillis;
+        for (Counter counter : counters.values()) {
+            for (Window window : WINDOWS) {
+                counter.forward[window.ordinal()] = decay(counter.forward[window.ordinal()], window, shift);
+            }
+        }
+        landmarkMillis = now;
+        rebuildTopsLocked();
+    }
+
+    private void rebuildTopsLocked() {
+        for (Window window : WINDOWS) {
+            TopN top = tops.get(window);
+            top.clear();
+            counters.forEach((contentId, counter) -> top.update(contentId, counter.forward[window.ordinal()]));
+        }
+    }
+
+    private double decayLocked(double forward, Window window, long now) {
+        return decay(forward, window, now - landmarkMillis);
+    }
+
+    private ContentTrendingCounter toRow(Long contentId, Counter counter, long now, LocalDateTime updatedAt) {
+        return new ContentTrendingCounter(
+                contentId,
+                decayLocked(counter.forward[Window.HOUR.ordinal()], Window.HOUR, now),
+                decayLocked(counter.forward[Window.DAY.ordinal()], Window.DAY, now),
+                decayLocked(counter.forward[Window.WEEK.ordinal()], Window.WEEK, now),
+                updatedAt);
+    }
+
+    private static double decay(double value, Window window, long elapsedMillis) {
+        return value * Math.exp(-elapsedMillis / window.millis);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -3,15 +3,20 @@ package com.thinkable.backend.service;
 import com.thinkable.backend.entity.*;
 import com.thinkable.backend.repository.*;
 import com.thinkable.backend.model.User;
+import com.thinkable.backend.dto.ContentListItem;
 import com.thinkable.backend.dto.H5PContentRequest;
 import com.thinkable.backend.enums.ContentType;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -19,6 +24,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.math.BigDecimal;
@@ -35,6 +41,8 @@ import java.nio.charset.StandardCharsets;
 @Transactional
 public class TutorContentService {
     
+    private static final Logger logger = LoggerFactory.getLogger(TutorContentService.class);
+    
     @Autowired
     private LearningContentRepository contentRepository;
     
@@ -68,7 +76,52 @@ public class TutorContentService {
     @Autowired
     private ActivityTrackingService activityTrackingService;
 
+    @Autowired
+    private ContentCatalogIndex catalogIndex;
+
+    @Autowired
+    private ContentSearchIndex searchIndex;
+
+    @Autowired
+    private ContentTextIndexer contentTextIndexer;
+
+    @Autowired
+    private ContentFullTextSearchRepository fullTextSearchRepository;
+
+    @Autowired
+    private ContentTagService contentTagService;
+
+    /**
+     * "index" ranks text queries with the in-memory BM25 index; "database" uses PostgreSQL ts_rank
+     * and falls back to the index when the database does not support it (e.g. H2)
+     */
+    @Value("${search.mode:index}")
+    private String searchMode;
+
+    @Autowired
+    private ItemCoOccurrenceModel coOccurrenceModel;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+    
+    @Autowired
+    private TrendingCounters trendingCounters;
+    
+    @Autowired
+    private ContentCounterBuffer counterBuffer;
+    
+    @Autowired
+    private InteractionIdempotencyKeyRepository idempotencyKeyRepository;
+    
+    @Autowired
+    private InteractionIdempotencyKeyWriter idempotencyKeyWriter;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    /**
+     * Cursor position before the newest possible row, used for the first page of a listing
+     */
+    private static final LocalDateTime LISTING_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
     private final String UPLOAD_DIR = "uploads/content/"; // Kept for backward compatibility with existing files
     
     /**
@@ -147,6 +200,7 @@ public class TutorContentService {
         
         content.setStatus("draft");
         content = contentRepository.save(content);
+        contentTagService.syncTags(content);
         
         // Create accessibility tags
         createAccessibilityTags(content, request);
@@ -220,6 +274,7 @@ public class TutorContentService {
         
         content.setStatus("draft");
         content = contentRepository.save(content);
+        contentTagService.syncTags(content);
         
         // Set H5P embed URL now that we have the content ID
         content.setH5pEmbedUrl("/api/h5p/player/" + content.getId());
@@ -458,7 +513,48 @@ public class TutorContentService {
         }
         
         content.publish();
-        return contentRepository.save(content);
+        LearningContent published = contentRepository.save(content);
+        afterCommit(() -> {
+            catalogIndex.index(published);
+            searchIndex.index(published);
+            recommendationCache.invalidateSubject(published.getSubjectArea());
+        });
+        contentTextIndexer.indexBodyAsync(published);
+        return published;
+    }
+    
+    /**
+     * Update accessibility features of existing content
+     */
+    public LearningContent updateAccessibilityFeatures(Long contentId, Long tutorUserId, AccessibilityUpdateRequest request) {
+        LearningContent content = contentRepository.findById(contentId)
+                .orElseThrow(() -> new IllegalArgumentException("Content not found"));
+        
+        // Verify ownership
+        if (!content.getTutor().getUserId().equals(tutorUserId)) {
+            throw new SecurityException("Not authorized to update this content");
+        }
+        
+        // Only overwrite the features supplied in the request
+        if (request.getDyslexiaFriendly() != null) content.setDyslexiaFriendly(request.getDyslexiaFriendly());
+        if (request.getAdhdFriendly() != null) content.setAdhdFriendly(request.getAdhdFriendly());
+        if (request.getAutismFriendly() != null) content.setAutismFriendly(request.getAutismFriendly());
+        if (request.getVisualImpairmentFriendly() != null) content.setVisualImpairmentFriendly(request.getVisualImpairmentFriendly());
+        if (request.getHearingImpairmentFriendly() != null) content.setHearingImpairmentFriendly(request.getHearingImpairmentFriendly());
+        if (request.getMotorImpairmentFriendly() != null) content.setMotorImpairmentFriendly(request.getMotorImpairmentFriendly());
+        if (request.getFontType() != null) content.setFontType(request.getFontType());
+        if (request.getReadingLevel() != null) content.setReadingLevel(request.getReadingLevel());
+        if (request.getHasAudioDescription() != null) content.setHasAudioDescription(request.getHasAudioDescription());
+        if (request.getHasSubtitles() != null) content.setHasSubtitles(request.getHasSubtitles());
+        if (request.getCognitiveLoadLevel() != null) content.setCognitiveLoadLevel(request.getCognitiveLoadLevel());
+        
+        LearningContent updated = contentRepository.save(content);
+        afterCommit(() -> {
+            catalogIndex.index(updated);
+            searchIndex.index(updated);
+            recommendationCache.invalidateSubject(updated.getSubjectArea());
+        });
+        return updated;
     }
     
     /**
@@ -491,24 +587,256 @@ public class TutorContentService {
     }
     
     /**
-     * Search and filter content for students
+     * Search and filter content for students, one keyset page at a time. Text queries are ranked by
+     * relevance with an exact total; without a query content is listed newest first and the total is
+     * approximate, taken from the in-memory catalog index instead of a COUNT query. Facets are counted
+     * over everything the query matched (the whole published catalog without a query) before the
+     * subject and accessibility filters, so each count is what selecting that filter would return.
      */
-    public Page<LearningContent> searchContent(ContentSearchRequest searchRequest, Pageable pageable) {
+    public ContentSearchResults searchContent(ContentSearchRequest searchRequest, String cursor, int size) {
+        ContentCursor after = ContentCursor.decode(cursor);
+        long topicTagId = tagFilter(TagDictionaryEntry.KIND_TOPIC, searchRequest.getTopicTag());
+        long styleTagId = tagFilter(TagDictionaryEntry.KIND_LEARNING_STYLE, searchRequest.getLearningStyle());
+        BitSet filter = searchFilter(searchRequest, topicTagId, styleTagId);
+        
+        if (searchRequest.getQuery() != null && !searchRequest.getQuery().trim().isEmpty()
+                && "database".equalsIgnoreCase(searchMode) && fullTextSearchRepository.isAvailable()) {
+            return searchContentInDatabase(searchRequest, filter, tagIds(topicTagId, styleTagId), after, size);
+        }
+        
         if (searchRequest.getQuery() != null && !searchRequest.getQuery().trim().isEmpty()) {
-            return contentRepository.searchContent(searchRequest.getQuery().trim(), pageable);
+            // Relevance-ranked from the in-memory index; only the requested page is loaded
+            ContentSearchIndex.SearchResult result = searchIndex.search(searchRequest.getQuery(),
+                    filter != null ? id -> isInCatalogSet(filter, id) : null, after, size + 1);
+            List<Long> ranked = result.getContentIds();
+            boolean hasNext = ranked.size() > size;
+            List<Long> pageIds = hasNext ? ranked.subList(0, size) : ranked;
+            String nextCursor = hasNext ? new ContentCursor(result.getScores()[size - 1], pageIds.get(size - 1)).encode() : null;
+            ContentListing listing = new ContentListing(loadListItems(pageIds), nextCursor, result.getTotalHits());
+            return new ContentSearchResults(listing, true,
+                    catalogIndex.facetCounts(catalogIndex.ordinalsOf(result.getMatchedIds())),
+                    searchIndex.snippets(searchRequest.getQuery(), pageIds));
         }
         
-        if (searchRequest.getSubjectArea() != null) {
-            return contentRepository.findContentByAccessibilityFilters(
+        ContentListing listing = listPublished(searchRequest.getSubjectArea(),
+                Boolean.TRUE.equals(searchRequest.getDyslexiaFriendly()),
+                Boolean.TRUE.equals(searchRequest.getAdhdFriendly()),
+                Boolean.TRUE.equals(searchRequest.getAutismFriendly()),
+                topicTagId, styleTagId, after, size, filter != null ? filter.cardinality() : catalogIndex.size());
+        return new ContentSearchResults(listing, false, catalogIndex.facetCounts(catalogIndex.published()), new HashMap<>());
+    }
+    
+    /**
+     * Text search ranked by PostgreSQL ts_rank over the search_vector column, keyset-paginated on
+     * (rank, id). No snippets: document body text is only indexed in memory.
+     */
+    private ContentSearchResults searchContentInDatabase(ContentSearchRequest searchRequest, BitSet filter,
+                                                        long[] tagIds, ContentCursor after, int size) {
+        String query = searchRequest.getQuery().trim();
+        ContentFullTextSearchRepository.RankedIds ranked = fullTextSearchRepository.search(query,
                 searchRequest.getSubjectArea(),
-                searchRequest.getDyslexiaFriendly(),
-                searchRequest.getAdhdFriendly(),
-                searchRequest.getAutismFriendly(),
-                pageable
-            );
+                Boolean.TRUE.equals(searchRequest.getDyslexiaFriendly()),
+                Boolean.TRUE.equals(searchRequest.getAdhdFriendly()),
+                Boolean.TRUE.equals(searchRequest.getAutismFriendly()),
+                tagIds, after != null ? after.getSortKey() : 0.0, after != null ? after.getContentId() : null, size + 1);
+        
+        List<Long> ids = ranked.getContentIds();
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        String nextCursor = hasNext ? new ContentCursor(ranked.getRanks()[size - 1], pageIds.get(size - 1)).encode() : null;
+        
+        // Facets over every match before the filters, total over the matches passing them
+        List<Long> matched = fullTextSearchRepository.findMatchingIds(query);
+        long[] matchedIds = new long[matched.size()];
+        long totalHits = 0;
+        for (int i = 0; i < matchedIds.length; i++) {
+            matchedIds[i] = matched.get(i);
+            if (filter == null || isInCatalogSet(filter, matchedIds[i])) {
+                totalHits++;
+            }
         }
         
-        return contentRepository.findByStatusAndIsPublicTrue("published", pageable);
+        ContentListing listing = new ContentListing(loadListItems(pageIds), nextCursor, totalHits);
+        return new ContentSearchResults(listing, true,
+                catalogIndex.facetCounts(catalogIndex.ordinalsOf(matchedIds)), new HashMap<>());
+    }
+    
+    /**
+     * Latest published content, newest first, one keyset page at a time
+     */
+    public ContentListing getLatestContent(String cursor, int size) {
+        return listPublished(null, false, false, false, 0L, 0L, ContentCursor.decode(cursor), size, catalogIndex.size());
+    }
+    
+    /**
+     * Published content of a subject area, newest first, one keyset page at a time
+     */
+    public ContentListing getContentBySubject(String subjectArea, String cursor, int size) {
+        return listPublished(subjectArea, false, false, false, 0L, 0L, ContentCursor.decode(cursor), size,
+                catalogIndex.inSubject(subjectArea).cardinality());
+    }
+    
+    /**
+     * One page of published content strictly after the (createdAt, id) cursor. Fetches one row more
+     * than the page size to know whether another page follows, so no COUNT query is needed.
+     * Tag IDs of 0 mean no tag filter.
+     */
+    private ContentListing listPublished(String subjectArea, boolean dyslexia, boolean adhd, boolean autism,
+                                         long topicTagId, long styleTagId,
+                                         ContentCursor after, int size, long approximateTotal) {
+        LocalDateTime createdAt = after != null ? fromEpochMicros((long) after.getSortKey()) : LISTING_START;
+        long id = after != null ? after.getContentId() : Long.MAX_VALUE;
+        PageRequest limit = PageRequest.of(0, size + 1);
+        
+        List<ContentListItem> rows = subjectArea != null
+                ? contentRepository.findPublishedInSubjectBefore(subjectArea, createdAt, id, dyslexia, adhd, autism,
+                        topicTagId, styleTagId, limit)
+                : contentRepository.findPublishedBefore(createdAt, id, dyslexia, adhd, autism,
+                        topicTagId, styleTagId, limit);
+        
+        boolean hasNext = rows.size() > size;
+        List<ContentListItem> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ContentListItem last = content.get(size - 1);
+            nextCursor = new ContentCursor(toEpochMicros(last.getCreatedAt()), last.getId()).encode();
+        }
+        return new ContentListing(content, nextCursor, approximateTotal);
+    }
+    
+    /**
+     * Listing rows for the given content IDs, in the order of the IDs, with one projection query
+     */
+    public List<ContentListItem> loadListItems(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ContentListItem> byId = new HashMap<>();
+        for (ContentListItem item : contentRepository.findListItemsByIdIn(ids)) {
+            byId.put(item.getId(), item);
+        }
+        List<ContentListItem> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ContentListItem item = byId.get(id);
+            if (item != null) {
+                ordered.add(item);
+            }
+        }
+        return ordered;
+    }
+    
+    private static double toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+    
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+    
+    /**
+     * Catalog ordinals passing the request's subject and accessibility filters, or null when none are set
+     */
+    private BitSet searchFilter(ContentSearchRequest searchRequest, long topicTagId, long styleTagId) {
+        boolean dyslexia = Boolean.TRUE.equals(searchRequest.getDyslexiaFriendly());
+        boolean adhd = Boolean.TRUE.equals(searchRequest.getAdhdFriendly());
+        boolean autism = Boolean.TRUE.equals(searchRequest.getAutismFriendly());
+        if (searchRequest.getSubjectArea() == null && !dyslexia && !adhd && !autism
+                && topicTagId == 0L && styleTagId == 0L) {
+            return null;
+        }
+        BitSet filter = catalogIndex.published();
+        if (searchRequest.getSubjectArea() != null) {
+            filter.and(catalogIndex.inSubject(searchRequest.getSubjectArea()));
+        }
+        if (dyslexia) {
+            filter.and(catalogIndex.withFlag(ContentCatalogIndex.AccessibilityFlag.DYSLEXIA));
+        }
+        if (adhd) {
+            filter.and(catalogIndex.withFlag(ContentCatalogIndex.AccessibilityFlag.ADHD));
+        }
+        if (autism) {
+            filter.and(catalogIndex.withFlag(ContentCatalogIndex.AccessibilityFlag.AUTISM));
+        }
+        for (long tagId : tagIds(topicTagId, styleTagId)) {
+            List<Long> tagged = contentTagService.findContentIds(tagId);
+            long[] taggedIds = new long[tagged.size()];
+            for (int i = 0; i < taggedIds.length; i++) {
+                taggedIds[i] = tagged.get(i);
+            }
+            filter.and(catalogIndex.ordinalsOf(taggedIds));
+        }
+        return filter;
+    }
+    
+    /**
+     * Dictionary ID for a requested tag filter: 0 when not requested, NO_MATCH when the tag is unknown
+     */
+    private long tagFilter(String kind, String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return 0L;
+        }
+        return contentTagService.findTagId(kind, name);
+    }
+    
+    private static long[] tagIds(long topicTagId, long styleTagId) {
+        if (topicTagId == 0L) {
+            return styleTagId == 0L ? new long[0] : new long[] {styleTagId};
+        }
+        return styleTagId == 0L ? new long[] {topicTagId} : new long[] {topicTagId, styleTagId};
+    }
+    
+    private boolean isInCatalogSet(BitSet ordinals, long contentId) {
+        int ordinal = catalogIndex.ordinalOf(contentId);
+        return ordinal >= 0 && ordinals.get(ordinal);
+    }
+    
+    /**
+     * Get the most interacted-with published content over a trending window ("1h", "24h" or "7d"),
+     * one page at a time. Scores keep decaying between requests, so the cursor resumes after its
+     * content ID, or after its score if that item has since dropped out of the trending list.
+     */
+    public ContentListing getTrendingContent(String window, String cursor, int limit) {
+        ContentCursor after = ContentCursor.decode(cursor);
+        List<TrendingCounters.Trend> trends = trendingCounters.top(TrendingCounters.Window.fromLabel(window), Integer.MAX_VALUE);
+        
+        int start = 0;
+        if (after != null) {
+            start = trends.size();
+            for (int i = 0; i < trends.size(); i++) {
+                if (trends.get(i).getContentId() == after.getContentId()) {
+                    start = i + 1;
+                    break;
+                }
+                if (start == trends.size() && trends.get(i).getScore() < after.getSortKey()) {
+                    start = i;
+                }
+            }
+        }
+        
+        List<TrendingCounters.Trend> page = new ArrayList<>();
+        boolean hasNext = false;
+        for (int i = start; i < trends.size(); i++) {
+            if (!catalogIndex.isPublished(trends.get(i).getContentId())) {
+                continue;
+            }
+            if (page.size() == limit) {
+                hasNext = true;
+                break;
+            }
+            page.add(trends.get(i));
+        }
+        
+        List<Long> ids = new ArrayList<>(page.size());
+        for (TrendingCounters.Trend trend : page) {
+            ids.add(trend.getContentId());
+        }
+        String nextCursor = null;
+        if (hasNext && !page.isEmpty()) {
+            TrendingCounters.Trend last = page.get(page.size() - 1);
+            nextCursor = new ContentCursor(last.getScore(), last.getContentId()).encode();
+        }
+        return new ContentListing(loadListItems(ids), nextCursor, trends.size());
     }
     
     /**
@@ -520,26 +848,23 @@ public class TutorContentService {
             return contentRepository.findHighRatedContent(BigDecimal.valueOf(4.0));
         }
         
-        List<LearningContent> recommendations = new ArrayList<>();
+        BitSet candidates = new BitSet();
         
         // Get content based on neurodivergent traits
         if (profile.isHyperfocusIntense()) {
-            recommendations.addAll(contentRepository.findDyslexiaFriendlyContent(true));
+            candidates.or(catalogIndex.withFlag(ContentCatalogIndex.AccessibilityFlag.DYSLEXIA));
         }
         
         if (profile.isSensoryProcessingHigh()) {
-            recommendations.addAll(contentRepository.findAutismFriendlyContent(true));
+            candidates.or(catalogIndex.withFlag(ContentCatalogIndex.AccessibilityFlag.AUTISM));
         }
         
         if (profile.needsExecutiveSupport()) {
-            recommendations.addAll(contentRepository.findADHDFriendlyContent(true));
+            candidates.or(catalogIndex.withFlag(ContentCatalogIndex.AccessibilityFlag.ADHD));
         }
         
-        // Remove duplicates and limit results
-        return recommendations.stream()
-                .distinct()
-                .limit(20)
-                .collect(Collectors.toList());
+        // Union is already duplicate-free; only the first 20 are hydrated
+        return catalogIndex.loadContent(catalogIndex.selectIds(candidates, null, 20));
     }
     
     /**
@@ -565,16 +890,136 @@ public class TutorContentService {
         interaction.updateLastAccessed();
         
         interactionRepository.save(interaction);
+        recordStudySession(studentId, contentId, request);
+        
+        // In-memory models and buffered content metrics only see the interaction once it is committed
+        boolean positive = interaction.hadPositiveOutcome();
+        boolean download = "download".equals(request.getInteractionType());
+        afterCommit(() -> {
+            recommendationCache.invalidate(studentId, RecommendationCache.REASON_INTERACTION);
+            if (positive) {
+                coOccurrenceModel.recordPositive(studentId, contentId);
+            }
+            trendingCounters.record(contentId);
+            counterBuffer.recordView(contentId);
+            if (download) {
+                counterBuffer.recordDownload(contentId);
+            }
+        });
+    }
+    
+    /**
+     * Apply a batch of one student's interactions in this transaction with grouped lookups: one query
+     * for already-recorded idempotency keys, one for the content and one for the existing interaction
+     * rows, then batched writes. Events whose key was recorded before, or repeats within the batch,
+     * are skipped. Events for unknown content are dropped.
+     * @return the number of events dropped for unknown content
+     */
+    public int recordInteractionBatch(Long studentId, List<InteractionEventLog.InteractionEvent> events) {
+        Set<String> keys = new HashSet<>();
+        for (InteractionEventLog.InteractionEvent event : events) {
+            if (event.getIdempotencyKey() != null) {
+                keys.add(event.getIdempotencyKey());
+            }
+        }
+        Set<String> seenKeys = keys.isEmpty() ? new HashSet<>()
+                : new HashSet<>(idempotencyKeyRepository.findRecordedKeys(studentId, keys));
+        
+        List<InteractionEventLog.InteractionEvent> fresh = new ArrayList<>();
+        Set<Long> contentIds = new HashSet<>();
+        for (InteractionEventLog.InteractionEvent event : events) {
+            if (event.getIdempotencyKey() == null || seenKeys.add(event.getIdempotencyKey())) {
+                fresh.add(event);
+                contentIds.add(event.getContentId());
+            }
+        }
+        if (fresh.isEmpty()) {
+            return 0;
+        }
         
-        // Update content metrics
-        content.incrementViewCount();
-        if ("download".equals(request.getInteractionType())) {
-            content.incrementDownloadCount();
+        Map<Long, LearningContent> contents = new HashMap<>();
+        for (LearningContent content : contentRepository.findAllById(contentIds)) {
+            contents.put(content.getId(), content);
         }
-
-        contentRepository.save(content);
-
-        // Auto-record study session for meaningful content engagement
+        Map<Long, StudentContentInteraction> interactions = new HashMap<>();
+        for (StudentContentInteraction interaction : interactionRepository.findByStudentIdAndContentIdIn(studentId, contentIds)) {
+            interactions.put(interaction.getContent().getId(), interaction);
+        }
+        
+        List<InteractionEventLog.InteractionEvent> applied = new ArrayList<>();
+        List<String> appliedKeys = new ArrayList<>();
+        int dropped = 0;
+        for (InteractionEventLog.InteractionEvent event : fresh) {
+            LearningContent content = contents.get(event.getContentId());
+            if (content == null) {
+                logger.warn("Dropping interaction of student {} with unknown content {}", studentId, event.getContentId());
+                dropped++;
+                continue;
+            }
+            StudentContentInteraction interaction = interactions.get(content.getId());
+            if (interaction == null) {
+                interaction = new StudentContentInteraction();
+                interaction.setStudentId(studentId);
+                interaction.setContent(content);
+                interaction.setStartedAt(LocalDateTime.now());
+                interactions.put(content.getId(), interaction);
+            }
+            updateInteractionFromRequest(interaction, event.getRequest());
+            interaction.updateLastAccessed();
+            applied.add(event);
+            if (event.getIdempotencyKey() != null) {
+                appliedKeys.add(event.getIdempotencyKey());
+            }
+        }
+        
+        interactionRepository.saveAll(interactions.values());
+        idempotencyKeyWriter.insertKeys(studentId, appliedKeys, LocalDateTime.now());
+        Set<Long> positiveContentIds = new HashSet<>();
+        for (InteractionEventLog.InteractionEvent event : applied) {
+            if (interactions.get(event.getContentId()).hadPositiveOutcome()) {
+                positiveContentIds.add(event.getContentId());
+            }
+            recordStudySession(studentId, event.getContentId(), event.getRequest());
+        }
+        
+        // In-memory models and buffered counters only after commit: a rolled-back batch is retried
+        // event by event, and must not have been counted already
+        afterCommit(() -> {
+            recommendationCache.invalidate(studentId, RecommendationCache.REASON_INTERACTION);
+            for (InteractionEventLog.InteractionEvent event : applied) {
+                if (positiveContentIds.contains(event.getContentId())) {
+                    coOccurrenceModel.recordPositive(studentId, event.getContentId());
+                }
+                trendingCounters.record(event.getContentId());
+                counterBuffer.recordView(event.getContentId());
+                if ("download".equals(event.getRequest().getInteractionType())) {
+                    counterBuffer.recordDownload(event.getContentId());
+                }
+            }
+        });
+        return dropped;
+    }
+    
+    /**
+     * Run an in-memory side effect once the current transaction commits, or right away outside one
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    /**
+     * Auto-record a study session for meaningful content engagement (a view_end of 5+ minutes)
+     */
+    private void recordStudySession(Long studentId, Long contentId, InteractionRequest request) {
         if ("view_end".equals(request.getInteractionType()) &&
             request.getDuration() != null && request.getDuration() >= 300) { // 5+ minutes in seconds
             try {
@@ -618,8 +1063,11 @@ public class TutorContentService {
         
         ContentAnalytics analytics = new ContentAnalytics();
         analytics.setContentId(contentId);
-        analytics.setViewCount(content.getViewCount());
-        analytics.setDownloadCount(content.getDownloadCount());
+        // Persisted counts plus those still waiting in the write-behind buffer
+        int views = content.getViewCount() != null ? content.getViewCount() : 0;
+        int downloads = content.getDownloadCount() != null ? content.getDownloadCount() : 0;
+        analytics.setViewCount(views + (int) counterBuffer.pendingViews(contentId));
+        analytics.setDownloadCount(downloads + (int) counterBuffer.pendingDownloads(contentId));
         
         // Calculate engagement metrics
         Long uniqueStudents = interactionRepository.countUniqueStudentsForContent(contentId);
@@ -704,7 +1152,13 @@ public class TutorContentService {
         }
         
         // Delete the content record from database
+        contentTagService.removeTags(contentId);
         contentRepository.delete(content);
+        afterCommit(() -> {
+            catalogIndex.remove(contentId);
+            searchIndex.remove(contentId);
+        });
+        contentTextIndexer.remove(contentId);
         
         // Update tutor content count
         TutorProfile tutor = content.getTutor();
@@ -926,6 +1380,8 @@ public class TutorContentService {
         private Boolean dyslexiaFriendly = false;
         private Boolean adhdFriendly = false;
         private Boolean autismFriendly = false;
+        private String topicTag;
+        private String learningStyle;
         
         // Getters and setters
         public String getQuery() { return query; }
@@ -938,6 +1394,69 @@ public class TutorContentService {
         public void setAdhdFriendly(Boolean adhdFriendly) { this.adhdFriendly = adhdFriendly; }
         public Boolean getAutismFriendly() { return autismFriendly; }
         public void setAutismFriendly(Boolean autismFriendly) { this.autismFriendly = autismFriendly; }
+        public String getTopicTag() { return topicTag; }
+        public void setTopicTag(String topicTag) { this.topicTag = topicTag; }
+        public String getLearningStyle() { return learningStyle; }
+        public void setLearningStyle(String learningStyle) { this.learningStyle = learningStyle; }
+    }
+    
+    public static class AccessibilityUpdateRequest {
+        private Boolean dyslexiaFriendly;
+        private Boolean adhdFriendly;
+        private Boolean autismFriendly;
+        private Boolean visualImpairmentFriendly;
+        private Boolean hearingImpairmentFriendly;
+        private Boolean motorImpairmentFriendly;
+        private String fontType;
+        private String readingLevel;
+        private Boolean hasAudioDescription;
+        private Boolean hasSubtitles;
+        private String cognitiveLoadLevel;
+        
+        // Getters and setters
+        public Boolean getDyslexiaFriendly() { return dyslexiaFriendly; }
+        public void setDyslexiaFriendly(Boolean dyslexiaFriendly) { this.dyslexiaFriendly = dyslexiaFriendly; }
+        public Boolean getAdhdFriendly() { return adhdFriendly; }
+        public void setAdhdFriendly(Boolean adhdFriendly) { this.adhdFriendly = adhdFriendly; }
+        public Boolean getAutismFriendly() { return autismFriendly; }
+        public void setAutismFriendly(Boolean autismFriendly) { this.autismFriendly = autismFriendly; }
+        public Boolean getVisualImpairmentFriendly() { return visualImpairmentFriendly; }
+        public void setVisualImpairmentFriendly(Boolean visualImpairmentFriendly) { this.visualImpairmentFriendly = visualImpairmentFriendly; }
+        public Boolean getHearingImpairmentFriendly() { return hearingImpairmentFriendly; }
+        public void setHearingImpairmentFriendly(Boolean hearingImpairmentFriendly) { this.hearingImpairmentFriendly = hearingImpairmentFriendly; }
+        public Boolean getMotorImpairmentFriendly() { return motorImpairmentFriendly; }
+        public void setMotorImpairmentFriendly(Boolean motorImpairmentFriendly) { this.motorImpairmentFriendly = motorImpairmentFriendly; }
+        public String getFontType() { return fontType; }
+        public void setFontType(String fontType) { this.fontType = fontType; }
+        public String getReadingLevel() { return readingLevel; }
+        public void setReadingLevel(String readingLevel) { this.readingLevel = readingLevel; }
+        public Boolean getHasAudioDescription() { return hasAudioDescription; }
+        public void setHasAudioDescription(Boolean hasAudioDescription) { this.hasAudioDescription = hasAudioDescription; }
+        public Boolean getHasSubtitles() { return hasSubtitles; }
+        public void setHasSubtitles(Boolean hasSubtitles) { this.hasSubtitles = hasSubtitles; }
+        public String getCognitiveLoadLevel() { return cognitiveLoadLevel; }
+        public void setCognitiveLoadLevel(String cognitiveLoadLevel) { this.cognitiveLoadLevel = cognitiveLoadLevel; }
+    }
+    
+    /**
+     * One event of a batched interaction upload: an interaction plus the content it is about
+     * and a client-chosen key that makes retrying the upload safe
+     */
+    public static class BatchInteraction extends InteractionRequest {
+        private Long contentId;
+        private String idempotencyKey;
+        
+        public Long getContentId() { return contentId; }
+        public void setContentId(Long contentId) { this.contentId = contentId; }
+        public String getIdempotencyKey() { return idempotencyKey; }
+        public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+    }
+    
+    public static class InteractionBatchRequest {
+        private List<BatchInteraction> events;
+        
+        public List<BatchInteraction> getEvents() { return events; }
+        public void setEvents(List<BatchInteraction> events) { this.events = events; }
     }
     
     public static class InteractionRequest {
@@ -1002,6 +1521,46 @@ public class TutorContentService {
         public void setDuration(Integer duration) { this.duration = duration; }
     }
     
+    /**
+     * One keyset page of content; nextCursor is null on the last page
+     */
+    public static class ContentListing {
+        private final List<ContentListItem> content;
+        private final String nextCursor;
+        private final long total;
+        
+        public ContentListing(List<ContentListItem> content, String nextCursor, long total) {
+            this.content = content;
+            this.nextCursor = nextCursor;
+            this.total = total;
+        }
+        
+        public List<ContentListItem> getContent() { return content; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean hasNext() { return nextCursor != null; }
+        public long getTotal() { return total; }
+    }
+    
+    public static class ContentSearchResults {
+        private final ContentListing listing;
+        private final boolean totalExact;
+        private final ContentCatalogIndex.FacetCounts facets;
+        private final Map<Long, String> snippets;
+        
+        public ContentSearchResults(ContentListing listing, boolean totalExact, ContentCatalogIndex.FacetCounts facets,
+                                    Map<Long, String> snippets) {
+            this.listing = listing;
+            this.totalExact = totalExact;
+            this.facets = facets;
+            this.snippets = snippets;
+        }
+        
+        public ContentListing getListing() { return listing; }
+        public boolean isTotalExact() { return totalExact; }
+        public ContentCatalogIndex.FacetCounts getFacets() { return facets; }
+        public Map<Long, String> getSnippets() { return snippets; }
+    }
+    
     public static class ContentAnalytics {
         private Long contentId;
         private Integer viewCount;
@@ -1087,6 +1646,18 @@ public class TutorContentService {
      */
     @Transactional
     public LearningContent saveContent(LearningContent content) {
-        return contentRepository.save(content);
+        LearningContent saved = contentRepository.save(content);
+        contentTagService.syncTags(saved);
+        afterCommit(() -> {
+            catalogIndex.index(saved);
+            searchIndex.index(saved);
+            if (saved.isPublished()) {
+                recommendationCache.invalidateSubject(saved.getSubjectArea());
+            }
+        });
+        if (saved.isPublished()) {
+            contentTextIndexer.indexBodyAsync(saved);
+        }
+        return saved;
     }
 }
@@ -22,6 +22,12 @@ public class UserNeurodivergentProfileService {
     @Autowired
     private UserNeurodivergentProfileRepository profileRepository;
     
+    @Autowired
+    private ProfileSimilarityIndex similarityIndex;
+    
+    @Autowired
+    private RecommendationCache recommendationCache;
+    
     /**
      * Get or create a neurodivergent profile for a user
      */
@@ -39,7 +45,9 @@ public class UserNeurodivergentProfileService {
         profile.setCreatedAt(LocalDateTime.now());
         profile.setUpdatedAt(LocalDateTime.now());
         profile.setVersion("1.0");
-        return profileRepository.save(profile);
+        UserNeurodivergentProfile saved = profileRepository.save(profile);
+        similarityIndex.update(saved);
+        return saved;
     }
     
     /**
@@ -47,7 +55,10 @@ public class UserNeurodivergentProfileService {
      */
     public UserNeurodivergentProfile updateProfile(UserNeurodivergentProfile profile) {
         profile.setUpdatedAt(LocalDateTime.now());
-        return profileRepository.save(profile);
+        UserNeurodivergentProfile saved = profileRepository.save(profile);
+        similarityIndex.update(saved);
+        recommendationCache.invalidate(saved.getUserId(), RecommendationCache.REASON_PROFILE);
+        return saved;
     }
     
     /**
@@ -114,20 +125,33 @@ public class UserNeurodivergentProfileService {
      * Find users with similar profiles for peer insights
      */
     public List<UserNeurodivergentProfile> findSimilarProfiles(Long userId, int limit) {
-        UserNeurodivergentProfile userProfile = getOrCreateProfile(userId);
-        
-        List<UserNeurodivergentProfile> similarProfiles = profileRepository.findSimilarProfiles(
-            userProfile.getHyperfocusIntensity(),
-            userProfile.getAttentionFlexibility(),
-            userProfile.getSensoryProcessing(),
-            userId
-        );
-        
-        return similarProfiles.stream()
-                .limit(limit)
+        return findSimilarProfileMatches(userId, limit).stream()
+                .map(SimilarProfile::getProfile)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Find the nearest profiles by trait distance, closest first
+     */
+    public List<SimilarProfile> findSimilarProfileMatches(Long userId, int limit) {
+        UserNeurodivergentProfile userProfile = getOrCreateProfile(userId);
+        List<ProfileSimilarityIndex.Match> matches = similarityIndex.nearest(userProfile, limit);
+        
+        Map<Long, UserNeurodivergentProfile> profilesByUser = profileRepository.findByUserIdIn(
+                matches.stream().map(ProfileSimilarityIndex.Match::getUserId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(UserNeurodivergentProfile::getUserId, p -> p));
+        
+        List<SimilarProfile> similarProfiles = new ArrayList<>();
+        for (ProfileSimilarityIndex.Match match : matches) {
+            UserNeurodivergentProfile profile = profilesByUser.get(match.getUserId());
+            if (profile != null) {
+                similarProfiles.add(new SimilarProfile(profile, match.getDistance(), match.getSimilarity()));
+            }
+        }
+        return similarProfiles;
+    }
+    
     /**
      * Get profile statistics for analytics
      */
@@ -306,4 +330,20 @@ public class UserNeurodivergentProfileService {
         
         return recommendations;
     }
+
+    public static class SimilarProfile {
+        private final UserNeurodivergentProfile profile;
+        private final double distance;
+        private final double similarity;
+        
+        public SimilarProfile(UserNeurodivergentProfile profile, double distance, double similarity) {
+            this.profile = profile;
+            this.distance = distance;
+            this.similarity = similarity;
+        }
+        
+        public UserNeurodivergentProfile getProfile() { return profile; }
+        public double getDistance() { return distance; }
+        public double getSimilarity() { return similarity; }
+    }
 }
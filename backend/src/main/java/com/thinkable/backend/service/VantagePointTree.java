@@ -0,0 +1,182 @@
+package com.thinkable.backend.service;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable vantage-point tree for k-nearest-neighbour search over fixed-width float vectors
+ * using Euclidean distance. Vectors are stored flat ({@code dims} floats per item) and the tree
+ * is laid out in a single permuted array: the node covering positions [lo, hi) has its vantage
+ * point at lo, the inner subtree at [lo + 1, mid) and the outer subtree at [mid, hi).
+ */
+public final class VantagePointTree {
+
+    public static class Neighbour {
+        private final int item;
+        private final double distance;
+
+        public Neighbour(int item, double distance) {
+            this.item = item;
+            this.distance = distance;
+        }
+
+        public int getItem() { return item; }
+        public double getDistance() { return distance; }
+    }
+
+    private final float[] vectors;
+    private final int dims;
+    private final int[] items;
+    private final double[] thresholds;
+
+    /**
+     * @param vectors flat vector storage, item i occupies [i * dims, (i + 1) * dims)
+     * @param dims number of dimensions per vector
+     * @param itemIds items to index (indices into the vector storage)
+     */
+    public VantagePointTree(float[] vectors, int dims, int[] itemIds) {
+        this.vectors = vectors;
+        this.dims = dims;
+        this.items = itemIds.clone();
+        this.thresholds = new double[items.length];
+        double[] scratch = new double[items.length];
+        build(0, items.length, scratch);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Find the k items nearest to the query vector, closest first
+     */
+    public List<Neighbour> nearest(float[] query, int k, IntPredicate accept) {
+        if (k <= 0 || items.length == 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Neighbour> heap = new PriorityQueue<>(k + 1,
+                (a, b) -> Double.compare(b.getDistance(), a.getDistance()));
+        search(0, items.length, query, k, accept, heap);
+        List<Neighbour> result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingDouble(Neighbour::getDistance));
+        return result;
+    }
+
+    public static double distance(float[] vectors, int item, float[] query, int dims) {
+        double sum = 0.0;
+        int base = item * dims;
+        for (int d = 0; d < dims; d++) {
+            double diff = vectors[base + d] - query[d];
+            sum += diff * diff;
+        }
+        return Math.sqrt(sum);
+    }
+
+    // Helper methods
+
+    private void build(int lo, int hi, double[] scratch) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int vantage = items[lo];
+        for (int i = lo + 1; i < hi; i++) {
+            scratch[i] = distanceBetween(vantage, items[i]);
+        }
+        int mid = (lo + 1 + hi) >>> 1;
+        select(lo + 1, hi - 1, mid, scratch);
+        thresholds[lo] = scratch[mid];
+        build(lo + 1, mid, scratch);
+        build(mid, hi, scratch);
+    }
+
+    private void search(int lo, int hi, float[] query, int k, IntPredicate accept, PriorityQueue<Neighbour> heap) {
+        if (lo >= hi) {
+            return;
+        }
+        int vantage = items[lo];
+        double d = distance(vectors, vantage, query, dims);
+        if (accept == null || accept.test(vantage)) {
+            if (heap.size() < k) {
+                heap.offer(new Neighbour(vantage, d));
+            } else if (d < heap.peek().getDistance()) {
+                heap.poll();
+                heap.offer(new Neighbour(vantage, d));
+            }
+        }
+        if (hi - lo == 1) {
+            return;
+        }
+
+        int mid = (lo + 1 + hi) >>> 1;
+        double mu = thresholds[lo];
+        if (d < mu) {
+            if (d - tau(heap, k) <= mu) {
+                search(lo + 1, mid, query, k, accept, heap);
+            }
+            if (d + tau(heap, k) >= mu) {
+                search(mid, hi, query, k, accept, heap);
+            }
+        } else {
+            if (d + tau(heap, k) >= mu) {
+                search(mid, hi, query, k, accept, heap);
+            }
+            if (d - tau(heap, k) <= mu) {
+                search(lo + 1, mid, query, k, accept, heap);
+            }
+        }
+    }
+
+    private static double tau(PriorityQueue<Neighbour> heap, int k) {
+        return heap.size() < k ? Double.POSITIVE_INFINITY : heap.peek().getDistance();
+    }
+
+    private double distanceBetween(int a, int b) {
+        double sum = 0.0;
+        int baseA = a * dims;
+        int baseB = b * dims;
+        for (int d = 0; d < dims; d++) {
+            double diff = vectors[baseA + d] - vectors[baseB + d];
+            sum += diff * diff;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Three-way quickselect over positions [left, right] so position n holds the n-th smallest
+     * distance, permuting items and scratch distances together. Integer-valued traits produce
+     * many equal distances, so ties are grouped rather than partitioned one at a time.
+     */
+    private void select(int left, int right, int n, double[] scratch) {
+        while (left < right) {
+            double pivot = scratch[(left + right) >>> 1];
+            int lt = left;
+            int gt = right;
+            int i = left;
+            while (i <= gt) {
+                if (scratch[i] < pivot) {
+                    swap(lt++, i++, scratch);
+                } else if (scratch[i] > pivot) {
+                    swap(i, gt--, scratch);
+                } else {
+                    i++;
+                }
+            }
+            if (n < lt) {
+                right = lt - 1;
+            } else if (n > gt) {
+                left = gt + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j, double[] scratch) {
+        int item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+        double dist = scratch[i];
+        scratch[i] = scratch[j];
+        scratch[j] = dist;
+    }
+}
@@ -0,0 +1,19 @@
+-- Key content_recommendations on (student, content, algorithm version) so regeneration
+-- updates existing rows in place instead of inserting a new set every time
+
+-- Keep only the newest row for each key before adding the unique index
+DELETE FROM content_recommendations r
+USING content_recommendations newer
+WHERE r.student_id = newer.student_id
+  AND r.content_id = newer.content_id
+  AND r.algorithm_version = newer.algorithm_version
+  AND r.id < newer.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_content_recommendations_student_content_version
+ON content_recommendations(student_id, content_id, algorithm_version);
+
+-- Supports the set-based deactivation of a student's active recommendations
+CREATE INDEX IF NOT EXISTS idx_content_recommendations_student_active
+ON content_recommendations(student_id, is_active);
+
+COMMENT ON INDEX uq_content_recommendations_student_content_version IS 'Upsert key for regenerated recommendations';
@@ -0,0 +1,23 @@
+-- Compact archive of responded recommendations moved out of content_recommendations
+-- by the scheduled compaction job; feeds the per-algorithm feedback statistics
+
+CREATE TABLE IF NOT EXISTS recommendation_history (
+    id BIGINT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    content_id BIGINT NOT NULL,
+    recommendation_type VARCHAR(30),
+    algorithm_version VARCHAR(20),
+    confidence_score NUMERIC(4,3),
+    student_response VARCHAR(20),
+    feedback_rating INTEGER,
+    was_helpful BOOLEAN,
+    generated_at TIMESTAMP,
+    presented_at TIMESTAMP,
+    responded_at TIMESTAMP,
+    archived_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_recommendation_history_version ON recommendation_history(algorithm_version);
+
+-- Supports the compaction job's expiry scans
+CREATE INDEX IF NOT EXISTS idx_content_recommendations_expires_at ON content_recommendations(expires_at);
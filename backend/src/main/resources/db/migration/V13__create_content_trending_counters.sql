@@ -0,0 +1,10 @@
+-- Checkpoints of the in-memory time-decayed trending counters (1h, 24h and 7d windows).
+-- Scores are decayed values as of updated_at; the service keeps decaying them on reload.
+
+CREATE TABLE IF NOT EXISTS content_trending_counters (
+    content_id BIGINT PRIMARY KEY,
+    score_1h DOUBLE PRECISION NOT NULL,
+    score_24h DOUBLE PRECISION NOT NULL,
+    score_7d DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
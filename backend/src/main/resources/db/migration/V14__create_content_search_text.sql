@@ -0,0 +1,8 @@
+-- Body text extracted from PDF and TXT content files at publish time.
+-- Source of the body field of the in-memory search index and of search result snippets.
+
+CREATE TABLE IF NOT EXISTS content_search_text (
+    content_id BIGINT PRIMARY KEY,
+    body_text TEXT NOT NULL,
+    extracted_at TIMESTAMP NOT NULL
+);
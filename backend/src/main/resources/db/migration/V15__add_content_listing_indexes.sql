@@ -0,0 +1,8 @@
+-- Keyset pagination for content listings: newest first by (created_at, id), optionally within a subject.
+-- Each page is an index range scan starting after the previous page's last row.
+
+CREATE INDEX IF NOT EXISTS idx_learning_content_listing
+ON learning_content(status, is_public, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_learning_content_subject_listing
+ON learning_content(subject_area, status, is_public, created_at DESC, id DESC);
@@ -0,0 +1,14 @@
+-- PostgreSQL full-text search over learning content (search.mode=database).
+-- A stored generated tsvector over title (weight A), description (B) and topic tags (C),
+-- kept current by PostgreSQL itself on every insert and update, with a GIN index for @@ matching.
+-- Requires PostgreSQL 12+. Other databases skip this script; search then stays on the in-memory index.
+
+ALTER TABLE learning_content ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(topic_tags, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_learning_content_search_vector
+    ON learning_content USING GIN (search_vector);
@@ -0,0 +1,47 @@
+-- Normalized topic tags and learning styles (PostgreSQL).
+-- tag_dictionary holds each distinct name once per kind; content_tag joins it to learning_content.
+-- learning_content.topic_tags / learning_styles stay as the JSON read by the API.
+
+CREATE TABLE IF NOT EXISTS tag_dictionary (
+    id BIGSERIAL PRIMARY KEY,
+    kind VARCHAR(20) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    CONSTRAINT uk_tag_dictionary_kind_name UNIQUE (kind, name)
+);
+
+CREATE TABLE IF NOT EXISTS content_tag (
+    content_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    PRIMARY KEY (content_id, tag_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_content_tag_tag ON content_tag (tag_id, content_id);
+
+-- Backfill from the JSON columns; rows whose value is not a JSON array are skipped
+INSERT INTO tag_dictionary (kind, name)
+SELECT DISTINCT 'topic', lower(trim(t.value))
+FROM learning_content c
+CROSS JOIN LATERAL json_array_elements_text(CASE WHEN c.topic_tags LIKE '[%' THEN c.topic_tags::json ELSE '[]'::json END) AS t(value)
+WHERE trim(t.value) <> '' AND length(trim(t.value)) <= 100
+ON CONFLICT (kind, name) DO NOTHING;
+
+INSERT INTO tag_dictionary (kind, name)
+SELECT DISTINCT 'learning_style', lower(trim(t.value))
+FROM learning_content c
+CROSS JOIN LATERAL json_array_elements_text(CASE WHEN c.learning_styles LIKE '[%' THEN c.learning_styles::json ELSE '[]'::json END) AS t(value)
+WHERE trim(t.value) <> '' AND length(trim(t.value)) <= 100
+ON CONFLICT (kind, name) DO NOTHING;
+
+INSERT INTO content_tag (content_id, tag_id)
+SELECT DISTINCT c.id, d.id
+FROM learning_content c
+CROSS JOIN LATERAL json_array_elements_text(CASE WHEN c.topic_tags LIKE '[%' THEN c.topic_tags::json ELSE '[]'::json END) AS t(value)
+JOIN tag_dictionary d ON d.kind = 'topic' AND d.name = lower(trim(t.value))
+ON CONFLICT DO NOTHING;
+
+INSERT INTO content_tag (content_id, tag_id)
+SELECT DISTINCT c.id, d.id
+FROM learning_content c
+CROSS JOIN LATERAL json_array_elements_text(CASE WHEN c.learning_styles LIKE '[%' THEN c.learning_styles::json ELSE '[]'::json END) AS t(value)
+JOIN tag_dictionary d ON d.kind = 'learning_style' AND d.name = lower(trim(t.value))
+ON CONFLICT DO NOTHING;
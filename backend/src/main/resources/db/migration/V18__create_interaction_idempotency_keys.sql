@@ -0,0 +1,12 @@
+-- Idempotency keys of applied interaction events, per student.
+-- Lets clients retry interaction batches and the event log replay batches without double counting.
+-- Rows older than content.events.key-retention-days are purged by the application.
+
+CREATE TABLE IF NOT EXISTS interaction_idempotency_keys (
+    student_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL,
+    recorded_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (student_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_interaction_idempotency_recorded ON interaction_idempotency_keys (recorded_at);
@@ -0,0 +1,185 @@
+package com.thinkable.backend.service;
+
+import com.thinkable.backend.entity.LearningContent;
+import com.thinkable.backend.entity.StudentContentInteraction;
+import com.thinkable.backend.entity.TutorProfile;
+import com.thinkable.backend.repository.ContentRecommendationRepository;
+import com.thinkable.backend.repository.LearningContentRepository;
+import com.thinkable.backend.repository.StudentContentInteractionRepository;
+import com.thinkable.backend.repository.TutorProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One recommendation request issues the same number of SQL statements whatever the catalog size,
+ * including the JdbcTemplate upsert, so statements are counted on a DataSource proxy rather than
+ * through Hibernate statistics.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-count;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "jwt.secret=query-count-test-secret-query-count-test-secret",
+        "jwt.expiration=86400000",
+        "cors.allowed.origins=http://localhost",
+        "app.uploads.dir=target/test-uploads",
+        "gcs.bucket-name=query-count-test",
+        "content.events.dir=target/test-interaction-log",
+        // Keep scheduled jobs from issuing statements while a request is being counted
+        "content.events.poll-ms=3600000",
+        "content.counters.flush-ms=3600000",
+        "recommendation.trending.checkpoint-ms=3600000",
+        "search.typeahead.refresh-ms=3600000",
+        "search.extraction.sweep-initial-delay-ms=3600000",
+        "recommendation.strategy.shadow-sample-rate=0"
+})
+class ContentRecommendationEngineQueryCountTest {
+
+    private static final long STUDENT_ID = 1001L;
+    private static final String[] SUBJECTS = {"math", "science", "language", "history"};
+    private static final String[] DIFFICULTIES = {"beginner", "intermediate", "advanced"};
+
+    private static final AtomicInteger statements = new AtomicInteger();
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? countingDataSource((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private ContentRecommendationEngine engine;
+
+    @Autowired
+    private ContentCatalogIndex catalogIndex;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private LearningContentRepository contentRepository;
+
+    @Autowired
+    private TutorProfileRepository tutorRepository;
+
+    @Autowired
+    private StudentContentInteractionRepository interactionRepository;
+
+    @Autowired
+    private ContentRecommendationRepository recommendationRepository;
+
+    @Test
+    void statementCountDoesNotGrowWithTheCatalog() {
+        TutorProfile tutor = new TutorProfile();
+        tutor.setUserId(1L);
+        tutor.setDisplayName("Query Count Tutor");
+        tutor = tutorRepository.save(tutor);
+
+        List<LearningContent> seed = publish(tutor, 0, 50);
+        for (int i = 0; i < 5; i++) {
+            StudentContentInteraction interaction = new StudentContentInteraction();
+            interaction.setStudentId(STUDENT_ID);
+            interaction.setContent(seed.get(i));
+            interaction.setInteractionType("view");
+            interaction.setStartedAt(LocalDateTime.now());
+            interactionRepository.save(interaction);
+        }
+
+        // First call creates the student's profile
+        catalogIndex.rebuild();
+        engine.generateRecommendations(STUDENT_ID);
+
+        int smallCatalog = countStatements();
+
+        publish(tutor, 50, 5_000);
+        catalogIndex.rebuild();
+        int largeCatalog = countStatements();
+
+        assertThat(smallCatalog).isPositive();
+        assertThat(largeCatalog).isEqualTo(smallCatalog);
+    }
+
+    // Helper methods
+
+    /**
+     * Statements of one uncached request that writes a fresh recommendation set
+     */
+    private int countStatements() {
+        recommendationRepository.deleteAllInBatch();
+        recommendationCache.invalidate(STUDENT_ID, RecommendationCache.REASON_INTERACTION);
+        statements.set(0);
+        engine.generateRecommendations(STUDENT_ID);
+        return statements.get();
+    }
+
+    private List<LearningContent> publish(TutorProfile tutor, int from, int to) {
+        List<LearningContent> contents = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            LearningContent content = new LearningContent();
+            content.setTutor(tutor);
+            content.setTitle("Content " + i);
+            content.setContentType("document");
+            content.setSubjectArea(SUBJECTS[i % SUBJECTS.length]);
+            content.setDifficultyLevel(DIFFICULTIES[i % DIFFICULTIES.length]);
+            content.setDyslexiaFriendly(i % 2 == 0);
+            content.setAdhdFriendly(i % 3 == 0);
+            content.setAutismFriendly(i % 5 == 0);
+            content.setRatingAverage(BigDecimal.valueOf(i % 50, 1));
+            content.setIsPublic(true);
+            content.publish();
+            contents.add(content);
+        }
+        return contentRepository.saveAll(contents);
+    }
+
+    private static DataSource countingDataSource(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] {DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection ? countingConnection((Connection) result) : result;
+                });
+    }
+
+    private static Connection countingConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement")) {
+                        statements.incrementAndGet();
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}